@@ -2,6 +2,7 @@ package com.monkcommerce.coupon;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the Monk Commerce Coupon Management API.
@@ -30,6 +31,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @since 2025
  */
 @SpringBootApplication
+@EnableScheduling
 public class CouponManagementApplication {
 
 	/**
@@ -0,0 +1,42 @@
+package com.monkcommerce.coupon.config;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.strategy.CouponStrategy;
+
+/**
+ * Registers every {@link CouponStrategy} bean under the {@link CouponType} it
+ * handles.
+ * <p>
+ * Adding a new coupon type only requires a new {@code @Component} strategy;
+ * it is picked up here automatically.
+ * </p>
+ */
+@Configuration
+public class CouponStrategyConfig {
+
+	/**
+	 * Builds the strategy lookup table used by the service layer.
+	 *
+	 * @param strategies all strategy beans in the context
+	 * @return strategies keyed by coupon type
+	 * @throws IllegalStateException if two strategies claim the same type
+	 */
+	@Bean
+	public Map<CouponType, CouponStrategy> couponStrategies(List<CouponStrategy> strategies) {
+		Map<CouponType, CouponStrategy> byType = new EnumMap<>(CouponType.class);
+		for (CouponStrategy strategy : strategies) {
+			CouponStrategy previous = byType.put(strategy.getType(), strategy);
+			if (previous != null) {
+				throw new IllegalStateException("Multiple coupon strategies registered for type " + strategy.getType());
+			}
+		}
+		return byType;
+	}
+}
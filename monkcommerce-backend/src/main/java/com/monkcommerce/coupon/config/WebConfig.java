@@ -0,0 +1,32 @@
+package com.monkcommerce.coupon.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monkcommerce.coupon.controller.EvaluationCartArgumentResolver;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Spring MVC customizations.
+ * <p>
+ * Registers the {@link EvaluationCartArgumentResolver}, which decodes cart
+ * request bodies directly into the evaluation model using the application's
+ * Jackson configuration.
+ * </p>
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+		resolvers.add(new EvaluationCartArgumentResolver(objectMapper.getFactory()));
+	}
+}
@@ -1,23 +1,44 @@
 package com.monkcommerce.coupon.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.monkcommerce.coupon.dto.request.CartDto;
 import com.monkcommerce.coupon.dto.request.CreateCouponDto;
 import com.monkcommerce.coupon.dto.response.ApplicableCouponDto;
+import com.monkcommerce.coupon.dto.response.CartEvaluationResultDto;
+import com.monkcommerce.coupon.dto.response.CouponCombinationDto;
+import com.monkcommerce.coupon.dto.response.CouponCreationResultDto;
+import com.monkcommerce.coupon.dto.response.CouponJsonPage;
+import com.monkcommerce.coupon.dto.response.CouponSliceDto;
+import com.monkcommerce.coupon.dto.response.ImportResultDto;
 import com.monkcommerce.coupon.entity.Cart;
-import com.monkcommerce.coupon.entity.CartItem;
 import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
 import com.monkcommerce.coupon.service.CouponService;
 
 import jakarta.validation.Valid;
@@ -35,6 +56,26 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CouponController {
 
+	/**
+	 * Response header carrying the {@code afterId} of the next coupon page.
+	 */
+	static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
+	/**
+	 * Page size of {@code GET /coupons} when only {@code afterId} is given.
+	 */
+	static final int DEFAULT_PAGE_SIZE = 100;
+
+	/**
+	 * Content type of a compressed coupon export.
+	 */
+	static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+	/**
+	 * Output buffer of the gzip compressor of a coupon export, in bytes.
+	 */
+	static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
 	private final CouponService couponService;
 
 	/**
@@ -51,28 +92,194 @@ public class CouponController {
 	}
 
 	/**
-	 * Retrieves all available coupons.
+	 * Creates many coupons in one request.
+	 * <p>
+	 * Each coupon is validated on its own: an invalid coupon, or one that
+	 * conflicts with an existing coupon, yields an entry with an {@code error}
+	 * instead of failing the whole request.
+	 * </p>
 	 *
-	 * @return {@link ResponseEntity} containing a list of {@link Coupon} and HTTP
+	 * @param createCouponDtos the coupons to create (1–100000)
+	 * @return {@link ResponseEntity} with one {@link CouponCreationResultDto} per
+	 *         coupon, in request order, and HTTP status 200 (OK)
+	 */
+	@PostMapping("/coupons/bulk")
+	public ResponseEntity<List<CouponCreationResultDto>> createCoupons(
+			@RequestBody List<CreateCouponDto> createCouponDtos) {
+		List<CouponCreationResultDto> results = couponService.createCoupons(createCouponDtos);
+		return ResponseEntity.ok(results);
+	}
+
+	/**
+	 * Imports coupons from an NDJSON or CSV file streamed as the request body.
+	 * <p>
+	 * The body is read row by row and may be gzip-compressed
+	 * ({@code Content-Encoding: gzip}). Invalid rows are rejected and reported;
+	 * the others are written in batches. If the request fails part-way, send the
+	 * same file again with the same {@code importId} to resume after the last
+	 * written batch. The client chooses the ID (e.g. a UUID or the file name), so
+	 * it knows it even when the response never arrives.
+	 * </p>
+	 *
+	 * @param format          {@code ndjson} (default) or {@code csv}
+	 * @param importId        identifies the file across attempts; required
+	 * @param contentEncoding the {@code Content-Encoding} request header
+	 * @param body            the file content, UTF-8
+	 * @return {@link ResponseEntity} with the {@link ImportResultDto} and HTTP
 	 *         status 200 (OK)
+	 * @throws IllegalArgumentException if {@code importId} is missing, before the
+	 *                                  body is read
+	 * @throws IOException              if reading the request body fails
+	 */
+	@PostMapping("/coupons/import")
+	public ResponseEntity<ImportResultDto> importCoupons(@RequestParam(defaultValue = "ndjson") String format,
+			@RequestParam(required = false) String importId,
+			@RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+			InputStream body) throws IOException {
+		// Without an ID chosen by the client, a failed import could not be resumed
+		if (importId == null || importId.isBlank()) {
+			throw new IllegalArgumentException("importId is required to resume the import after a failure");
+		}
+		InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body) : body;
+		ImportResultDto result = couponService.importCoupons(importId, format, in);
+		return ResponseEntity.ok(result);
+	}
+
+	/**
+	 * Retrieves coupons, ordered by ID.
+	 * <p>
+	 * Without parameters all coupons are returned, streamed from a database
+	 * cursor. With {@code afterId} and/or {@code limit} one page is returned
+	 * (keyset pagination by ID); if the page is full, the
+	 * {@code X-Next-After-Id} header holds the {@code afterId} of the next page.
+	 * The body is assembled from cached, pre-serialized coupon JSON.
+	 * </p>
+	 *
+	 * @param afterId return coupons with an ID greater than this value
+	 * @param limit   the page size (1–1000, default 100)
+	 * @return {@link ResponseEntity} containing the JSON list of {@link Coupon}
+	 *         and HTTP status 200 (OK)
 	 */
 	@GetMapping("/coupons")
-	public ResponseEntity<List<Coupon>> getAllCoupons() {
-		List<Coupon> coupons = couponService.getAllCoupons();
+	public ResponseEntity<?> getAllCoupons(@RequestParam(required = false) Long afterId,
+			@RequestParam(required = false) Integer limit) {
+		if (afterId == null && limit == null) {
+			StreamingResponseBody body = couponService::writeAllCouponsJson;
+			return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+		}
+		CouponJsonPage page = couponService.getCouponsJsonPage(afterId == null ? 0 : afterId,
+				limit == null ? DEFAULT_PAGE_SIZE : limit);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+		if (page.getNextAfterId() != null) {
+			response.header(NEXT_AFTER_ID_HEADER, page.getNextAfterId().toString());
+		}
+		return response.body(page.getJson());
+	}
+
+	/**
+	 * Streams coupons as newline-delimited JSON, ordered by ID.
+	 * <p>
+	 * Selected with {@code Accept: application/x-ndjson}. The table is walked
+	 * with a database cursor, so the response can be of any size without
+	 * buffering it.
+	 * </p>
+	 *
+	 * @param afterId stream coupons with an ID greater than this value
+	 * @return {@link ResponseEntity} streaming one {@link Coupon} per line, with
+	 *         HTTP status 200 (OK)
+	 */
+	@GetMapping(value = "/coupons", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamCoupons(@RequestParam(defaultValue = "0") long afterId) {
+		StreamingResponseBody body = out -> couponService.streamCouponsJson(afterId, out);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	/**
+	 * Exports the coupons matching the optional filters as newline-delimited
+	 * JSON, ordered by ID, for reconciliation and warehouse loads.
+	 * <p>
+	 * The dump is streamed from a database cursor as it is produced, so it can
+	 * cover the whole catalog. With {@code gzip=true} it is sent as a gzip file
+	 * ({@code coupons.ndjson.gz}).
+	 * </p>
+	 *
+	 * @param type           the coupon type filter, e.g. {@code cart-wise}
+	 * @param isActive       the active status filter
+	 * @param includeExpired {@code false} to leave out expired coupons
+	 * @param createdFrom    creation date lower bound (ISO date-time, inclusive)
+	 * @param createdTo      creation date upper bound (ISO date-time, inclusive)
+	 * @param gzip           whether to compress the dump
+	 * @return {@link ResponseEntity} streaming one {@link Coupon} JSON object per
+	 *         line, with HTTP status 200 (OK)
+	 */
+	@GetMapping("/coupons/export")
+	public ResponseEntity<StreamingResponseBody> exportCoupons(@RequestParam(required = false) String type,
+			@RequestParam(required = false) Boolean isActive, @RequestParam(required = false) Boolean includeExpired,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+			@RequestParam(defaultValue = "false") boolean gzip) {
+		// Reject an unknown type before the response is committed
+		CouponType couponType = type == null ? null : CouponType.fromString(type);
+		if (!gzip) {
+			StreamingResponseBody body = out -> couponService.exportCoupons(couponType, isActive, includeExpired,
+					createdFrom, createdTo, out);
+			return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+		}
+		StreamingResponseBody body = out -> {
+			GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+			couponService.exportCoupons(couponType, isActive, includeExpired, createdFrom, createdTo, compressed);
+			compressed.finish();
+		};
+		return ResponseEntity.ok().contentType(GZIP)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename("coupons.ndjson.gz").build().toString())
+				.body(body);
+	}
+
+	/**
+	 * Searches coupons with optional filters, one page at a time.
+	 * <p>
+	 * Returns a slice without a total count. Sortable properties are
+	 * {@code id}, {@code type}, {@code isActive} and {@code expirationDate},
+	 * e.g. {@code sort=expirationDate,asc}; the page size is capped at 100.
+	 * </p>
+	 *
+	 * @param type           the coupon type filter, e.g. {@code cart-wise}
+	 * @param isActive       the active status filter
+	 * @param includeExpired {@code false} to exclude expired coupons
+	 * @param createdFrom    creation date lower bound (ISO date-time, inclusive)
+	 * @param createdTo      creation date upper bound (ISO date-time, inclusive)
+	 * @param pageable       the page ({@code page}, {@code size}, {@code sort};
+	 *                       default page size 20, sorted by {@code id})
+	 * @return {@link ResponseEntity} with the {@link CouponSliceDto} and HTTP
+	 *         status 200 (OK)
+	 */
+	@GetMapping("/coupons/search")
+	public ResponseEntity<CouponSliceDto> searchCoupons(@RequestParam(required = false) String type,
+			@RequestParam(required = false) Boolean isActive, @RequestParam(required = false) Boolean includeExpired,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+			@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+		CouponSliceDto coupons = couponService.searchCoupons(type, isActive, includeExpired, createdFrom, createdTo,
+				pageable);
 		return ResponseEntity.ok(coupons);
 	}
 
 	/**
 	 * Retrieves a coupon by its unique identifier.
 	 *
+	 * <p>
+	 * The body is the cached, pre-serialized coupon JSON.
+	 * </p>
+	 *
 	 * @param id the coupon ID
-	 * @return {@link ResponseEntity} containing the {@link Coupon} if found, with
-	 *         HTTP status 200 (OK)
+	 * @return {@link ResponseEntity} containing the {@link Coupon} JSON if found,
+	 *         with HTTP status 200 (OK)
 	 */
 	@GetMapping("/coupons/{id}")
-	public ResponseEntity<Coupon> getCouponById(@PathVariable Long id) {
-		Coupon coupon = couponService.getCouponById(id);
-		return ResponseEntity.ok(coupon);
+	public ResponseEntity<byte[]> getCouponById(@PathVariable Long id) {
+		byte[] coupon = couponService.getCouponJsonById(id);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(coupon);
 	}
 
 	/**
@@ -91,46 +298,94 @@ public class CouponController {
 	/**
 	 * Retrieves a list of applicable coupons for a given cart.
 	 *
-	 * @param cartDto the request body containing cart details
+	 * @param cart the request body, decoded by
+	 *             {@link EvaluationCartArgumentResolver}
 	 * @return {@link ResponseEntity} with a list of {@link ApplicableCouponDto} and
 	 *         HTTP status 200 (OK)
 	 */
 	@PostMapping("/applicable-coupons")
-	public ResponseEntity<List<ApplicableCouponDto>> getApplicableCoupons(@Valid @RequestBody CartDto cartDto) {
-		Cart cart = convertToCart(cartDto);
+	public ResponseEntity<List<ApplicableCouponDto>> getApplicableCoupons(EvaluationCart cart) {
 		List<ApplicableCouponDto> applicableCoupons = couponService.getApplicableCoupons(cart);
 		return ResponseEntity.ok(applicableCoupons);
 	}
 
+	/**
+	 * Retrieves the applicable coupons for many carts in one request.
+	 * <p>
+	 * Each cart is validated on its own: an invalid cart yields an entry with an
+	 * {@code error} instead of failing the whole batch.
+	 * </p>
+	 *
+	 * @param cartDtos the carts to evaluate (1–1000)
+	 * @return {@link ResponseEntity} with one {@link CartEvaluationResultDto} per
+	 *         cart, in request order, and HTTP status 200 (OK)
+	 */
+	@PostMapping("/applicable-coupons/batch")
+	public ResponseEntity<List<CartEvaluationResultDto>> getApplicableCouponsBatch(
+			@RequestBody List<CartDto> cartDtos) {
+		List<CartEvaluationResultDto> results = couponService.getApplicableCouponsBatch(cartDtos);
+		return ResponseEntity.ok(results);
+	}
+
+	/**
+	 * Retrieves the single coupon giving the highest discount for a given cart.
+	 *
+	 * @param cart the request body, decoded by
+	 *             {@link EvaluationCartArgumentResolver}
+	 * @return {@link ResponseEntity} with the best {@link ApplicableCouponDto} and
+	 *         HTTP status 200 (OK), or HTTP status 204 (No Content) if no coupon
+	 *         applies
+	 */
+	@PostMapping("/best-coupon")
+	public ResponseEntity<ApplicableCouponDto> getBestCoupon(EvaluationCart cart) {
+		List<ApplicableCouponDto> bestCoupons = couponService.getTopCoupons(cart, 1);
+		return bestCoupons.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(bestCoupons.get(0));
+	}
+
+	/**
+	 * Retrieves the {@code k} coupons giving the highest discount for a given
+	 * cart, best first.
+	 *
+	 * @param k       the number of coupons to return (1–50, default 3)
+	 * @param cart the request body, decoded by
+	 *             {@link EvaluationCartArgumentResolver}
+	 * @return {@link ResponseEntity} with up to {@code k}
+	 *         {@link ApplicableCouponDto} and HTTP status 200 (OK)
+	 */
+	@PostMapping("/top-coupons")
+	public ResponseEntity<List<ApplicableCouponDto>> getTopCoupons(@RequestParam(defaultValue = "3") int k,
+			EvaluationCart cart) {
+		List<ApplicableCouponDto> topCoupons = couponService.getTopCoupons(cart, k);
+		return ResponseEntity.ok(topCoupons);
+	}
+
+	/**
+	 * Computes the combination of stackable coupons (or the single exclusive
+	 * coupon) giving the highest total discount for a given cart.
+	 *
+	 * @param cart the request body, decoded by
+	 *             {@link EvaluationCartArgumentResolver}
+	 * @return {@link ResponseEntity} with the {@link CouponCombinationDto} and
+	 *         HTTP status 200 (OK)
+	 */
+	@PostMapping("/best-combination")
+	public ResponseEntity<CouponCombinationDto> getBestCombination(EvaluationCart cart) {
+		CouponCombinationDto combination = couponService.getBestCombination(cart);
+		return ResponseEntity.ok(combination);
+	}
+
 	/**
 	 * Applies a specific coupon to a cart.
 	 *
 	 * @param id      the coupon ID
-	 * @param cartDto the request body containing cart details
+	 * @param cart the request body, decoded by
+	 *             {@link EvaluationCartArgumentResolver}
 	 * @return {@link ResponseEntity} with the updated {@link Cart} reflecting
 	 *         discounts and totals
 	 */
 	@PostMapping("/apply-coupon/{id}")
-	public ResponseEntity<Cart> applyCoupon(@PathVariable Long id, @Valid @RequestBody CartDto cartDto) {
-		Cart cart = convertToCart(cartDto);
+	public ResponseEntity<Cart> applyCoupon(@PathVariable Long id, EvaluationCart cart) {
 		Cart updatedCart = couponService.applyCoupon(id, cart);
 		return ResponseEntity.ok(updatedCart);
 	}
-
-	/**
-	 * Converts a {@link CartDto} into a {@link Cart} entity.
-	 * <p>
-	 * Initializes discount, subtotal, and total to 0.0. These values will be
-	 * recalculated when applying coupons.
-	 * </p>
-	 *
-	 * @param cartDto the cart DTO containing item details
-	 * @return the {@link Cart} entity
-	 */
-	private Cart convertToCart(CartDto cartDto) {
-		List<CartItem> items = cartDto.getItems().stream()
-				.map(itemDto -> new CartItem(itemDto.getProductId(), itemDto.getQuantity(), itemDto.getPrice(), 0.0))
-				.toList();
-		return new Cart(items, 0.0, 0.0, 0.0);
-	}
 }
@@ -0,0 +1,187 @@
+package com.monkcommerce.coupon.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.HashMap;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.MapBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.monkcommerce.coupon.dto.request.CartDto;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.money.Money;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Decodes a {@link CartDto}-shaped JSON request body straight into an
+ * {@link EvaluationCart}.
+ * <p>
+ * The body is read token by token with a Jackson {@link JsonParser} and every
+ * item is written into the cart's primitive arrays as it is read, so no
+ * {@link CartDto} or item objects are built. Controller methods opt in by
+ * declaring an {@link EvaluationCart} parameter.
+ * </p>
+ * <p>
+ * Errors are reported the way the {@code @Valid @RequestBody CartDto} path
+ * reports them: an empty or missing {@code items} array, a quantity below 1
+ * and a negative price raise a {@link MethodArgumentNotValidException} on
+ * field {@code items}, {@code items[i].quantity} or {@code items[i].price}
+ * (the checks the batch endpoint applies to each cart), and malformed JSON or an item without {@code productId}, {@code quantity} or
+ * {@code price} raises an {@link HttpMessageNotReadableException}. Unknown
+ * fields are skipped.
+ * </p>
+ */
+public class EvaluationCartArgumentResolver implements HandlerMethodArgumentResolver {
+
+	private static final int EXPECTED_LINES = 16;
+
+	private final JsonFactory jsonFactory;
+
+	public EvaluationCartArgumentResolver(JsonFactory jsonFactory) {
+		this.jsonFactory = jsonFactory;
+	}
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return EvaluationCart.class.equals(parameter.getParameterType());
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+		HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+		ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
+
+		EvaluationCart.Builder builder = EvaluationCart.builder(EXPECTED_LINES);
+		BindingResult bindingResult = new MapBindingResult(new HashMap<>(), "cartDto");
+		int lines;
+		EvaluationCart cart;
+		try (InputStream body = request.getInputStream(); JsonParser parser = jsonFactory.createParser(body)) {
+			lines = readCart(parser, builder, bindingResult);
+			// Building sums quantities and totals per product, which may overflow
+			cart = builder.build();
+		} catch (JsonProcessingException | ArithmeticException | NumberFormatException ex) {
+			throw new HttpMessageNotReadableException("JSON parse error: " + ex.getMessage(), ex, inputMessage);
+		} catch (IOException ex) {
+			throw new HttpMessageNotReadableException("I/O error while reading input message", ex, inputMessage);
+		}
+
+		if (lines == 0) {
+			bindingResult.addError(new FieldError("cartDto", "items", null, false, new String[] { "NotEmpty" },
+					null, "Cart items cannot be empty"));
+		}
+		if (bindingResult.hasErrors()) {
+			throw new MethodArgumentNotValidException(parameter, bindingResult);
+		}
+		return cart;
+	}
+
+	/**
+	 * Reads the cart object and returns the number of items read. Items with an
+	 * invalid quantity or price are reported to {@code errors} and not added.
+	 */
+	private int readCart(JsonParser parser, EvaluationCart.Builder cart, BindingResult errors) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "Expected a cart object");
+		}
+		int lines = 0;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (!"items".equals(field) || value == JsonToken.VALUE_NULL) {
+				parser.skipChildren();
+				continue;
+			}
+			if (value != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "Expected 'items' to be an array");
+			}
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				readItem(parser, cart, lines, errors);
+				lines++;
+			}
+		}
+		return lines;
+	}
+
+	private void readItem(JsonParser parser, EvaluationCart.Builder cart, int index, BindingResult errors)
+			throws IOException {
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "Expected a cart item object");
+		}
+		long productId = 0;
+		int quantity = 0;
+		long price = 0;
+		boolean hasProductId = false;
+		boolean hasQuantity = false;
+		boolean hasPrice = false;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.currentName();
+			JsonToken value = parser.nextToken();
+			if (value == JsonToken.VALUE_NULL) {
+				continue;
+			}
+			switch (field) {
+			case "productId" -> {
+				productId = parser.getValueAsLong();
+				hasProductId = value == JsonToken.VALUE_NUMBER_INT;
+			}
+			case "quantity" -> {
+				quantity = parser.getValueAsInt();
+				hasQuantity = value == JsonToken.VALUE_NUMBER_INT;
+			}
+			case "price" -> {
+				price = readAmount(parser, value);
+				hasPrice = true;
+			}
+			default -> parser.skipChildren();
+			}
+		}
+		if (!hasProductId || !hasQuantity || !hasPrice) {
+			throw new JsonParseException(parser, "Cart item productId, quantity and price are required");
+		}
+		boolean valid = true;
+		if (quantity <= 0) {
+			errors.addError(new FieldError("cartDto", "items[" + index + "].quantity", quantity, false,
+					new String[] { "Positive" }, null, "Quantity must be positive for product " + productId));
+			valid = false;
+		}
+		if (price < 0) {
+			errors.addError(new FieldError("cartDto", "items[" + index + "].price", Money.toDecimal(price), false,
+					new String[] { "PositiveOrZero" }, null, "Price cannot be negative for product " + productId));
+			valid = false;
+		}
+		if (valid) {
+			cart.add(productId, quantity, price);
+		}
+	}
+
+	/**
+	 * Reads a decimal amount into minor units, as
+	 * {@link com.monkcommerce.coupon.money.MoneyDeserializer} does.
+	 */
+	private long readAmount(JsonParser parser, JsonToken value) throws IOException {
+		if (value == JsonToken.VALUE_NUMBER_INT || value == JsonToken.VALUE_NUMBER_FLOAT) {
+			return Money.toMinorUnits(parser.getDecimalValue());
+		}
+		if (value == JsonToken.VALUE_STRING) {
+			return Money.toMinorUnits(new BigDecimal(parser.getText().trim()));
+		}
+		throw new JsonParseException(parser, "Expected 'price' to be a number");
+	}
+}
@@ -1,5 +1,8 @@
 package com.monkcommerce.coupon.dto.request;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.monkcommerce.coupon.money.MoneyDeserializer;
+
 import jakarta.validation.constraints.NotEmpty;
 import lombok.Data;
 
@@ -39,8 +42,9 @@ public class CartDto {
 		private Integer quantity;
 
 		/**
-		 * Unit price of the product.
+		 * Unit price of the product in minor units, read from a JSON decimal.
 		 */
-		private Double price;
+		@JsonDeserialize(using = MoneyDeserializer.class)
+		private Long price;
 	}
 }
@@ -48,4 +48,13 @@ public class CreateCouponDto {
 	 * </p>
 	 */
 	private LocalDateTime expirationDate;
+
+	/**
+	 * Optional flag indicating whether the coupon can be combined with other
+	 * stackable coupons.
+	 * <p>
+	 * If null, the coupon is exclusive.
+	 * </p>
+	 */
+	private Boolean isStackable;
 }
@@ -52,4 +52,13 @@ public class UpdateCouponDto {
 	 * </p>
 	 */
 	private Boolean isActive;
+
+	/**
+	 * Optional flag indicating whether the coupon can be combined with other
+	 * stackable coupons.
+	 * <p>
+	 * If provided, the coupon's stacking mode will be updated.
+	 * </p>
+	 */
+	private Boolean isStackable;
 }
@@ -1,5 +1,8 @@
 package com.monkcommerce.coupon.dto.response;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.monkcommerce.coupon.money.MoneySerializer;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -17,8 +20,8 @@ import lombok.Data;
  * <ul>
  * <li>{@code couponId} – unique identifier of the coupon</li>
  * <li>{@code type} – type of coupon (e.g., cart-wise, product-wise, bxgy)</li>
- * <li>{@code discount} – discount amount or percentage calculated for the
- * cart</li>
+ * <li>{@code discount} – discount amount calculated for the cart, in minor
+ * units, written as a decimal</li>
  * </ul>
  */
 @Data
@@ -36,7 +39,8 @@ public class ApplicableCouponDto {
 	private String type;
 
 	/**
-	 * Discount amount or percentage that the coupon provides.
+	 * Discount amount that the coupon provides, in minor units.
 	 */
-	private Double discount;
+	@JsonSerialize(using = MoneySerializer.class)
+	private long discount;
 }
@@ -0,0 +1,49 @@
+package com.monkcommerce.coupon.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of evaluating one cart of
+ * a batch request.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code index} – position of the cart in the request</li>
+ * <li>{@code coupons} – coupons applicable to the cart; {@code null} if the
+ * cart failed</li>
+ * <li>{@code error} – why the cart could not be evaluated; {@code null} on
+ * success</li>
+ * </ul>
+ */
+@Data
+@AllArgsConstructor
+public class CartEvaluationResultDto {
+
+	/**
+	 * Zero-based position of the cart in the batch request.
+	 */
+	private Integer index;
+
+	/**
+	 * Coupons applicable to the cart.
+	 */
+	private List<ApplicableCouponDto> coupons;
+
+	/**
+	 * Error message if the cart could not be evaluated.
+	 */
+	private String error;
+
+	public static CartEvaluationResultDto success(int index, List<ApplicableCouponDto> coupons) {
+		return new CartEvaluationResultDto(index, coupons, null);
+	}
+
+	public static CartEvaluationResultDto failure(int index, String error) {
+		return new CartEvaluationResultDto(index, null, error);
+	}
+}
@@ -0,0 +1,62 @@
+package com.monkcommerce.coupon.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.monkcommerce.coupon.money.MoneySerializer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing the combination of coupons that
+ * gives a {@code Cart} the highest total discount.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code coupons} – the selected coupons, highest discount first</li>
+ * <li>{@code totalPrice} – cart total before discounts</li>
+ * <li>{@code totalDiscount} – combined discount, never above the cart
+ * total</li>
+ * <li>{@code finalPrice} – payable amount after the combined discount</li>
+ * <li>{@code optimal} – {@code false} if the search hit its time budget and
+ * the combination is the best found rather than proven best</li>
+ * </ul>
+ * <p>
+ * Amounts are minor units, written as decimals.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+public class CouponCombinationDto {
+
+	/**
+	 * Selected coupons, highest discount first.
+	 */
+	private List<ApplicableCouponDto> coupons;
+
+	/**
+	 * Total price of the cart before discounts.
+	 */
+	@JsonSerialize(using = MoneySerializer.class)
+	private long totalPrice;
+
+	/**
+	 * Combined discount of the selected coupons.
+	 */
+	@JsonSerialize(using = MoneySerializer.class)
+	private long totalDiscount;
+
+	/**
+	 * Final payable price after the combined discount.
+	 */
+	@JsonSerialize(using = MoneySerializer.class)
+	private long finalPrice;
+
+	/**
+	 * Whether the combination is proven to be the best possible.
+	 */
+	private Boolean optimal;
+}
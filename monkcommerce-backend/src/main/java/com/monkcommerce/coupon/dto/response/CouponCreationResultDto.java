@@ -0,0 +1,47 @@
+package com.monkcommerce.coupon.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of creating one coupon
+ * of a bulk request.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code index} – position of the coupon in the request</li>
+ * <li>{@code couponId} – ID of the created coupon; {@code null} if it
+ * failed</li>
+ * <li>{@code error} – why the coupon was not created; {@code null} on
+ * success</li>
+ * </ul>
+ */
+@Data
+@AllArgsConstructor
+public class CouponCreationResultDto {
+
+	/**
+	 * Zero-based position of the coupon in the bulk request.
+	 */
+	private Integer index;
+
+	/**
+	 * ID of the created coupon.
+	 */
+	private Long couponId;
+
+	/**
+	 * Error message if the coupon was not created.
+	 */
+	private String error;
+
+	public static CouponCreationResultDto success(int index, Long couponId) {
+		return new CouponCreationResultDto(index, couponId, null);
+	}
+
+	public static CouponCreationResultDto failure(int index, String error) {
+		return new CouponCreationResultDto(index, null, error);
+	}
+}
@@ -0,0 +1,29 @@
+package com.monkcommerce.coupon.dto.response;
+
+import lombok.Value;
+
+/**
+ * One page of a keyset-paginated coupon listing, already serialized.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code json} – the coupons of the page as a JSON array</li>
+ * <li>{@code nextAfterId} – the {@code afterId} of the next page;
+ * {@code null} if this is the last page</li>
+ * </ul>
+ */
+@Value
+public class CouponJsonPage {
+
+	/**
+	 * JSON array of the coupons in the page.
+	 */
+	byte[] json;
+
+	/**
+	 * ID to pass as {@code afterId} to fetch the next page, or {@code null}.
+	 */
+	Long nextAfterId;
+}
@@ -0,0 +1,50 @@
+package com.monkcommerce.coupon.dto.response;
+
+import java.util.List;
+
+import com.monkcommerce.coupon.entity.Coupon;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing one page of a coupon search.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code content} – the coupons of the page</li>
+ * <li>{@code page} – zero-based page number</li>
+ * <li>{@code size} – requested page size</li>
+ * <li>{@code hasNext} – whether a following page exists</li>
+ * </ul>
+ * <p>
+ * The total number of matches is deliberately not reported, so no
+ * {@code COUNT} query is needed.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+public class CouponSliceDto {
+
+	/**
+	 * Coupons of the page, in the requested order.
+	 */
+	private List<Coupon> content;
+
+	/**
+	 * Zero-based page number.
+	 */
+	private Integer page;
+
+	/**
+	 * Requested page size.
+	 */
+	private Integer size;
+
+	/**
+	 * Whether a following page exists.
+	 */
+	private Boolean hasNext;
+}
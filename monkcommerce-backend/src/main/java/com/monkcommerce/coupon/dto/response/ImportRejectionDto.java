@@ -0,0 +1,32 @@
+package com.monkcommerce.coupon.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing a row of a coupon import that was
+ * not imported.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code row} – 1-based row number in the file</li>
+ * <li>{@code error} – why the row was rejected</li>
+ * </ul>
+ */
+@Data
+@AllArgsConstructor
+public class ImportRejectionDto {
+
+	/**
+	 * 1-based row number: the line number for NDJSON, the record number after
+	 * the header for CSV.
+	 */
+	private Long row;
+
+	/**
+	 * Why the row was rejected.
+	 */
+	private String error;
+}
@@ -0,0 +1,67 @@
+package com.monkcommerce.coupon.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of a coupon import.
+ *
+ * <p>
+ * Contains:
+ * </p>
+ * <ul>
+ * <li>{@code importId} – identifier to resume the import with</li>
+ * <li>{@code resumedAfterRow} – last row processed by earlier attempts</li>
+ * <li>{@code rowsRead} – rows processed by this attempt</li>
+ * <li>{@code imported} / {@code rejected} – totals over all attempts</li>
+ * <li>{@code elapsedMillis} / {@code rowsPerSecond} – throughput of this
+ * attempt</li>
+ * <li>{@code rejectedRows} – the first rejected rows of this attempt</li>
+ * </ul>
+ */
+@Data
+@AllArgsConstructor
+public class ImportResultDto {
+
+	/**
+	 * Identifier of the import; repeat the import with it to resume.
+	 */
+	private String importId;
+
+	/**
+	 * Number of the last row processed before this attempt; 0 for a new import.
+	 */
+	private Long resumedAfterRow;
+
+	/**
+	 * Number of rows processed by this attempt.
+	 */
+	private Long rowsRead;
+
+	/**
+	 * Number of coupons created by the import, over all attempts.
+	 */
+	private Long imported;
+
+	/**
+	 * Number of rows rejected by the import, over all attempts.
+	 */
+	private Long rejected;
+
+	/**
+	 * Duration of this attempt in milliseconds.
+	 */
+	private Long elapsedMillis;
+
+	/**
+	 * Rows processed per second by this attempt.
+	 */
+	private Long rowsPerSecond;
+
+	/**
+	 * The first rejected rows of this attempt, in file order.
+	 */
+	private List<ImportRejectionDto> rejectedRows;
+}
@@ -1,5 +1,8 @@
 package com.monkcommerce.coupon.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.monkcommerce.coupon.money.MoneySerializer;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,6 +19,9 @@ import java.util.List;
  * cart-wide</li>
  * <li>{@code finalPrice} – payable amount after discounts</li>
  * </ul>
+ * Amounts are {@code long} minor units (see
+ * {@link com.monkcommerce.coupon.money.Money}) and are written as decimals in
+ * JSON.
  * </p>
  * <p>
  * This is a plain domain object and not a JPA entity. It is typically used as
@@ -35,17 +41,20 @@ public class Cart {
 	/**
 	 * Total price of all items before any discount.
 	 */
-	private Double totalPrice = 0.0;
+	@JsonSerialize(using = MoneySerializer.class)
+	private long totalPrice;
 
 	/**
 	 * Total discount applied across all items or cart-wide.
 	 */
-	private Double totalDiscount = 0.0;
+	@JsonSerialize(using = MoneySerializer.class)
+	private long totalDiscount;
 
 	/**
 	 * Final payable price after applying discounts.
 	 */
-	private Double finalPrice = 0.0;
+	@JsonSerialize(using = MoneySerializer.class)
+	private long finalPrice;
 
 	/**
 	 * Calculates the total price of the cart based on the sum of each item's price
@@ -57,7 +66,7 @@ public class Cart {
 	 *
 	 * @return total price before discounts
 	 */
-	public Double calculateTotalPrice() {
-		return items == null ? 0.0 : items.stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum();
+	public long calculateTotalPrice() {
+		return items == null ? 0 : items.stream().mapToLong(item -> item.getPrice() * item.getQuantity()).sum();
 	}
 }
@@ -1,5 +1,8 @@
 package com.monkcommerce.coupon.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.monkcommerce.coupon.money.MoneySerializer;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,9 +14,9 @@ import lombok.NoArgsConstructor;
  * <ul>
  * <li>{@code productId} – unique identifier of the product</li>
  * <li>{@code quantity} – number of units of the product in the cart</li>
- * <li>{@code price} – unit price of the product</li>
- * <li>{@code totalDiscount} – total discount applied to this product (default:
- * 0.0)</li>
+ * <li>{@code price} – unit price of the product, in minor units</li>
+ * <li>{@code totalDiscount} – total discount applied to this product, in minor
+ * units (default: 0)</li>
  * </ul>
  * </p>
  * <p>
@@ -39,10 +42,12 @@ public class CartItem {
 	/**
 	 * Unit price of the product.
 	 */
-	private Double price;
+	@JsonSerialize(using = MoneySerializer.class)
+	private long price;
 
 	/**
-	 * Total discount applied to this product. Defaults to {@code 0.0}.
+	 * Total discount applied to this product. Defaults to {@code 0}.
 	 */
-	private Double totalDiscount = 0.0;
+	@JsonSerialize(using = MoneySerializer.class)
+	private long totalDiscount;
 }
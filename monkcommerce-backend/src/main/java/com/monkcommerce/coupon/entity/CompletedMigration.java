@@ -0,0 +1,37 @@
+package com.monkcommerce.coupon.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Marker of a one-off data migration that has finished, so it is not checked
+ * again on later startups.
+ * <p>
+ * Rows are written by the migrations in
+ * {@code com.monkcommerce.coupon.service.migration}; the entity defines the
+ * table.
+ * </p>
+ */
+@Entity
+@Table(name = "completed_migrations")
+@Data
+public class CompletedMigration {
+
+	/**
+	 * Name of the migration.
+	 */
+	@Id
+	@Column(length = 100)
+	private String name;
+
+	/**
+	 * Time at which the migration finished.
+	 */
+	@Column(name = "completed_at", nullable = false)
+	private LocalDateTime completedAt;
+}
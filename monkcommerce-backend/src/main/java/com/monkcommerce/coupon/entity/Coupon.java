@@ -4,9 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 import com.monkcommerce.coupon.enums.CouponType;
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -14,10 +12,14 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
-import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 /**
  * Entity representing a coupon in the system.
  * <p>
@@ -30,6 +32,7 @@ import lombok.Data;
  * <li>{@code type} – e.g., cart-wise, product-wise, bxgy</li>
  * <li>{@code isActive} – whether the coupon is usable</li>
  * <li>{@code expirationDate} – to check if the coupon is still valid</li>
+ * <li>{@code createdAt} – creation date range in coupon search</li>
  * </ul>
  * </p>
  */
@@ -38,18 +41,32 @@ import lombok.Data;
 		@Index(name = "idx_coupon_is_active", columnList = "is_active"),
 		@Index(name = "idx_coupon_expiration", columnList = "expiration_date"),
 		@Index(name = "idx_coupon_type_active", columnList = "type,is_active"),
-		@Index(name = "idx_coupon_active_expiration", columnList = "is_active,expiration_date") }, uniqueConstraints = {
+		@Index(name = "idx_coupon_active_expiration", columnList = "is_active,expiration_date"),
+		@Index(name = "idx_coupon_created_at", columnList = "created_at") }, uniqueConstraints = {
 				// Ensures no duplicate active coupon of the same type with same expiration date
 				@jakarta.persistence.UniqueConstraint(name = "uk_coupon_type_active_expiration", columnNames = { "type",
 						"is_active", "expiration_date" }) })
 @Data
 public class Coupon {
 
+	/**
+	 * Name of the sequence backing {@link #id}. On databases without sequences
+	 * (MySQL) Hibernate emulates it with a one-row table of this name.
+	 */
+	public static final String ID_SEQUENCE = "coupon_id_seq";
+
+	/**
+	 * Number of IDs reserved per sequence call. IDs are handed out from memory
+	 * in between, which lets Hibernate batch coupon inserts.
+	 */
+	public static final int ID_ALLOCATION_SIZE = 50;
+
 	/**
 	 * Primary key – unique identifier for each coupon.
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupon_id")
+	@SequenceGenerator(name = "coupon_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 
 	/**
@@ -60,16 +77,19 @@ public class Coupon {
 	private CouponType type;
 
 	/**
-	 * Dynamic key-value details for coupon configuration. Example:
+	 * Dynamic key-value details for coupon configuration, stored inline as one
+	 * JSON column and loaded with the coupon. Example:
 	 * <ul>
 	 * <li>{@code {"discount": "10"}} – 10% discount</li>
 	 * <li>{@code {"product_id": "123"}} – applies to product 123</li>
+	 * <li>{@code {"buy_products": "[{\"product_id\":1,\"quantity\":2}]"}} –
+	 * list-valued details are stored as JSON</li>
 	 * </ul>
+	 * The details are turned into a typed rule per coupon type by
+	 * {@link com.monkcommerce.coupon.service.rule.CouponRuleCompiler}.
 	 */
-	@ElementCollection
-	@CollectionTable(name = "coupon_details")
-	@MapKeyColumn(name = "detail_key", length = 100)
-	@Column(name = "detail_value", length = 255)
+	@JdbcTypeCode(SqlTypes.JSON)
+	@Column(name = "details", columnDefinition = "json")
 	private Map<String, String> details;
 
 	/**
@@ -78,6 +98,13 @@ public class Coupon {
 	@Column(name = "is_active", nullable = false)
 	private Boolean isActive = true;
 
+	/**
+	 * Indicates whether the coupon may be combined with other stackable coupons.
+	 * Exclusive coupons ({@code false}) are only ever applied on their own.
+	 */
+	@Column(name = "is_stackable", nullable = false)
+	private Boolean isStackable = false;
+
 	/**
 	 * Expiration date of the coupon. If null, the coupon never expires.
 	 */
@@ -95,4 +122,12 @@ public class Coupon {
 	 */
 	@Column(name = "updated_at", nullable = false)
 	private LocalDateTime updatedAt = LocalDateTime.now();
+
+	/**
+	 * Optimistic-lock version, incremented on every update. Also identifies the
+	 * cached JSON representation of the coupon.
+	 */
+	@Version
+	@Column(nullable = false)
+	private long version;
 }
@@ -0,0 +1,51 @@
+package com.monkcommerce.coupon.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * One committed coupon mutation, appended to the change log in the same
+ * transaction as the mutation itself.
+ * <p>
+ * Rows are written and read with plain JDBC by
+ * {@link com.monkcommerce.coupon.service.changelog.CouponChangeLog} and
+ * {@link com.monkcommerce.coupon.service.changelog.CouponChangeTailer}; the
+ * entity defines the table.
+ * </p>
+ */
+@Entity
+@Table(name = "coupon_change_log", indexes = {
+		@Index(name = "idx_coupon_change_changed_at", columnList = "changed_at") })
+@Data
+public class CouponChange {
+
+	/**
+	 * Position in the change log. Auto-increment, so IDs grow in insertion
+	 * order; a transaction still open when a later one commits leaves a gap
+	 * until it commits or rolls back.
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	/**
+	 * ID of the coupon that was created, updated or deleted.
+	 */
+	@Column(name = "coupon_id", nullable = false)
+	private Long couponId;
+
+	/**
+	 * Database time of the mutation ({@code NOW(6)} of the inserting
+	 * statement), so ages can be measured with one clock.
+	 */
+	@Column(name = "changed_at", nullable = false, columnDefinition = "datetime(6)")
+	private LocalDateTime changedAt;
+}
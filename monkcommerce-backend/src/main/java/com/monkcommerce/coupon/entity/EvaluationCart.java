@@ -0,0 +1,349 @@
+package com.monkcommerce.coupon.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.monkcommerce.coupon.money.Money;
+
+/**
+ * Immutable, pre-aggregated view of a {@link Cart} used while evaluating
+ * coupons.
+ * <p>
+ * Built once per request, it holds everything the coupon strategies need in
+ * parallel primitive arrays (struct-of-arrays), so evaluation neither unboxes
+ * nor follows per-item object references:
+ * <ul>
+ * <li>per line, as submitted: product ID, quantity and unit price</li>
+ * <li>per product: merged quantity and line total, indexed by a product
+ * slot</li>
+ * <li>{@code totalPrice} and {@code itemCount} of the whole cart</li>
+ * </ul>
+ * Amounts are {@code long} minor units (see {@link Money}), with the cart
+ * total capped at {@link Money#MAX_AMOUNT}. Lines for the same product are
+ * merged into one slot; the lines of a slot stay reachable through
+ * {@link #getFirstLine(int)} and {@link #getNextLine(int)}. Product lookups go through an open-addressing table
+ * keyed by the primitive product ID.
+ * </p>
+ * <p>
+ * Like {@link Cart}, this is a plain domain object and not a JPA entity.
+ * </p>
+ */
+public final class EvaluationCart {
+
+	private final long[] lineProductIds;
+	private final int[] lineQuantities;
+	private final long[] lineUnitPrices;
+	private final int[] lineSlots;
+
+	/**
+	 * Next line of the same product, or {@code -1}.
+	 */
+	private final int[] nextLines;
+
+	private final long[] productIds;
+	private final int[] quantities;
+	private final long[] lineTotals;
+	private final int[] firstLines;
+
+	private final long totalPrice;
+	private final int itemCount;
+
+	/**
+	 * Open-addressing table of {@code slot + 1}; {@code 0} marks an empty
+	 * bucket.
+	 */
+	private final int[] table;
+	private final int mask;
+
+	private EvaluationCart(long[] lineProductIds, int[] lineQuantities, long[] lineUnitPrices) {
+		int lines = lineProductIds.length;
+		int capacity = 2;
+		while (capacity < lines * 2) {
+			capacity <<= 1;
+		}
+		this.lineProductIds = lineProductIds;
+		this.lineQuantities = lineQuantities;
+		this.lineUnitPrices = lineUnitPrices;
+		this.lineSlots = new int[lines];
+		this.nextLines = new int[lines];
+		this.table = new int[capacity];
+		this.mask = capacity - 1;
+
+		long[] ids = new long[lines];
+		int[] qty = new int[lines];
+		long[] totals = new long[lines];
+		int[] first = new int[lines];
+		int[] last = new int[lines];
+		int products = 0;
+		int units = 0;
+		long total = 0;
+		for (int line = 0; line < lines; line++) {
+			long productId = lineProductIds[line];
+			long lineTotal = Math.multiplyExact(lineUnitPrices[line], lineQuantities[line]);
+			int slot = indexOf(ids, productId);
+			if (slot < 0) {
+				slot = products++;
+				ids[slot] = productId;
+				insert(productId, slot);
+				first[slot] = line;
+			} else {
+				nextLines[last[slot]] = line;
+			}
+			last[slot] = line;
+			nextLines[line] = -1;
+			lineSlots[line] = slot;
+			qty[slot] = Math.addExact(qty[slot], lineQuantities[line]);
+			totals[slot] = Math.addExact(totals[slot], lineTotal);
+			units = Math.addExact(units, lineQuantities[line]);
+			total = Math.addExact(total, lineTotal);
+		}
+		// Every discount is a percentage of at most the total; keep it computable
+		if (total > Money.MAX_AMOUNT) {
+			throw new ArithmeticException("Cart total exceeds " + Money.MAX_AMOUNT + " minor units");
+		}
+
+		this.productIds = Arrays.copyOf(ids, products);
+		this.quantities = Arrays.copyOf(qty, products);
+		this.lineTotals = Arrays.copyOf(totals, products);
+		this.firstLines = Arrays.copyOf(first, products);
+		this.itemCount = units;
+		this.totalPrice = total;
+	}
+
+	/**
+	 * Starts building an evaluation cart.
+	 *
+	 * @param expectedLines number of lines the cart is expected to have
+	 * @return a new builder
+	 */
+	public static Builder builder(int expectedLines) {
+		return new Builder(expectedLines);
+	}
+
+	/**
+	 * @return total price of all items before any discount, in minor units
+	 */
+	public long getTotalPrice() {
+		return totalPrice;
+	}
+
+	/**
+	 * @return total number of units across all lines
+	 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	/**
+	 * @return number of lines as submitted, before merging
+	 */
+	public int getLineCount() {
+		return lineProductIds.length;
+	}
+
+	/**
+	 * @param line line index, {@code 0 <= line < getLineCount()}
+	 * @return product ID of the line
+	 */
+	public long getLineProductId(int line) {
+		return lineProductIds[line];
+	}
+
+	/**
+	 * @param line line index, {@code 0 <= line < getLineCount()}
+	 * @return quantity of the line
+	 */
+	public int getLineQuantity(int line) {
+		return lineQuantities[line];
+	}
+
+	/**
+	 * @param line line index, {@code 0 <= line < getLineCount()}
+	 * @return unit price of the line, in minor units
+	 */
+	public long getLinePrice(int line) {
+		return lineUnitPrices[line];
+	}
+
+	/**
+	 * @param line line index, {@code 0 <= line < getLineCount()}
+	 * @return unit price × quantity of the line, in minor units
+	 */
+	public long getLineAmount(int line) {
+		return lineUnitPrices[line] * lineQuantities[line];
+	}
+
+	/**
+	 * @param line line index, {@code 0 <= line < getLineCount()}
+	 * @return product slot the line was merged into
+	 */
+	public int getLineSlot(int line) {
+		return lineSlots[line];
+	}
+
+	/**
+	 * @param line line index, {@code 0 <= line < getLineCount()}
+	 * @return the next line of the same product, or {@code -1}
+	 */
+	public int getNextLine(int line) {
+		return nextLines[line];
+	}
+
+	/**
+	 * @return number of distinct products in the cart
+	 */
+	public int getProductCount() {
+		return productIds.length;
+	}
+
+	/**
+	 * @param slot product slot, {@code 0 <= slot < getProductCount()}
+	 * @return product ID stored in the slot
+	 */
+	public long getProductId(int slot) {
+		return productIds[slot];
+	}
+
+	/**
+	 * @param slot product slot, {@code 0 <= slot < getProductCount()}
+	 * @return merged quantity of the product in the slot
+	 */
+	public int getQuantity(int slot) {
+		return quantities[slot];
+	}
+
+	/**
+	 * @param slot product slot, {@code 0 <= slot < getProductCount()}
+	 * @return merged line total (unit price × quantity) of the product in the
+	 *         slot, in minor units
+	 */
+	public long getLineTotal(int slot) {
+		return lineTotals[slot];
+	}
+
+	/**
+	 * @param slot product slot, {@code 0 <= slot < getProductCount()}
+	 * @return the first line of the product; further lines follow through
+	 *         {@link #getNextLine(int)}
+	 */
+	public int getFirstLine(int slot) {
+		return firstLines[slot];
+	}
+
+	/**
+	 * Looks up the slot of a product.
+	 *
+	 * @param productId the product ID
+	 * @return the slot, or {@code -1} if the product is not in the cart
+	 */
+	public int slotOf(long productId) {
+		return indexOf(productIds, productId);
+	}
+
+	/**
+	 * @param productId the product ID
+	 * @return {@code true} if the cart contains the product
+	 */
+	public boolean containsProduct(long productId) {
+		return slotOf(productId) >= 0;
+	}
+
+	/**
+	 * Returns the distinct product IDs in the cart.
+	 *
+	 * @return a copy of the product IDs, in slot order
+	 */
+	public long[] getProductIds() {
+		return productIds.clone();
+	}
+
+	/**
+	 * Materializes the lines as {@link CartItem}s without discount, for
+	 * responses.
+	 *
+	 * @return new cart items, in line order
+	 */
+	public List<CartItem> toCartItems() {
+		List<CartItem> items = new ArrayList<>(getLineCount());
+		for (int line = 0; line < getLineCount(); line++) {
+			items.add(new CartItem(lineProductIds[line], lineQuantities[line], lineUnitPrices[line], 0));
+		}
+		return items;
+	}
+
+	private int indexOf(long[] ids, long productId) {
+		int bucket = hash(productId) & mask;
+		int entry;
+		while ((entry = table[bucket]) != 0) {
+			if (ids[entry - 1] == productId) {
+				return entry - 1;
+			}
+			bucket = (bucket + 1) & mask;
+		}
+		return -1;
+	}
+
+	private void insert(long productId, int slot) {
+		int bucket = hash(productId) & mask;
+		while (table[bucket] != 0) {
+			bucket = (bucket + 1) & mask;
+		}
+		table[bucket] = slot + 1;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Collects cart lines straight into primitive arrays.
+	 */
+	public static final class Builder {
+
+		private long[] productIds;
+		private int[] quantities;
+		private long[] unitPrices;
+		private int size;
+
+		private Builder(int expectedLines) {
+			int capacity = Math.max(expectedLines, 4);
+			this.productIds = new long[capacity];
+			this.quantities = new int[capacity];
+			this.unitPrices = new long[capacity];
+		}
+
+		/**
+		 * Adds a cart line.
+		 *
+		 * @param productId the product ID
+		 * @param quantity  the quantity
+		 * @param price     the unit price, in minor units
+		 * @return this builder
+		 */
+		public Builder add(long productId, int quantity, long price) {
+			if (size == productIds.length) {
+				productIds = Arrays.copyOf(productIds, size * 2);
+				quantities = Arrays.copyOf(quantities, size * 2);
+				unitPrices = Arrays.copyOf(unitPrices, size * 2);
+			}
+			productIds[size] = productId;
+			quantities[size] = quantity;
+			unitPrices[size] = price;
+			size++;
+			return this;
+		}
+
+		/**
+		 * @return the evaluation cart holding the added lines
+		 * @throws ArithmeticException if a product's quantity, the item count or
+		 *                             a total does not fit its type, or the cart
+		 *                             total exceeds {@link Money#MAX_AMOUNT}
+		 */
+		public EvaluationCart build() {
+			return new EvaluationCart(Arrays.copyOf(productIds, size), Arrays.copyOf(quantities, size),
+					Arrays.copyOf(unitPrices, size));
+		}
+	}
+}
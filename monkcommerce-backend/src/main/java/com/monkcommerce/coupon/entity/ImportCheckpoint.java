@@ -0,0 +1,63 @@
+package com.monkcommerce.coupon.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a coupon import, used to resume it after a failure.
+ * <p>
+ * Written in the same transaction as the coupons it accounts for, so every row
+ * up to {@code lastRow} has been imported or rejected exactly once.
+ * </p>
+ */
+@Entity
+@Table(name = "coupon_import_checkpoints")
+@Data
+@NoArgsConstructor
+public class ImportCheckpoint {
+
+	/**
+	 * Identifier of the import, chosen by the caller (e.g. the file name).
+	 */
+	@Id
+	@Column(name = "import_id", length = 200)
+	private String importId;
+
+	/**
+	 * Number of the last row that has been processed (1-based).
+	 */
+	@Column(name = "last_row", nullable = false)
+	private long lastRow;
+
+	/**
+	 * Number of coupons created up to {@code lastRow}.
+	 */
+	@Column(nullable = false)
+	private long imported;
+
+	/**
+	 * Number of rows rejected up to {@code lastRow}.
+	 */
+	@Column(nullable = false)
+	private long rejected;
+
+	/**
+	 * Time the checkpoint was last written.
+	 */
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+
+	public ImportCheckpoint(String importId, long lastRow, long imported, long rejected) {
+		this.importId = importId;
+		this.lastRow = lastRow;
+		this.imported = imported;
+		this.rejected = rejected;
+		this.updatedAt = LocalDateTime.now();
+	}
+}
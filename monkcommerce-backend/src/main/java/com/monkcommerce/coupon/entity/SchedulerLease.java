@@ -0,0 +1,43 @@
+package com.monkcommerce.coupon.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Time-limited lease on a background job, so that only one node runs it at a
+ * time.
+ * <p>
+ * Leases are acquired and renewed with single conditional statements by
+ * {@link com.monkcommerce.coupon.service.lease.SchedulerLeaseManager}; the
+ * entity defines the table.
+ * </p>
+ */
+@Entity
+@Table(name = "scheduler_leases")
+@Data
+public class SchedulerLease {
+
+	/**
+	 * Name of the job the lease is for.
+	 */
+	@Id
+	@Column(length = 100)
+	private String name;
+
+	/**
+	 * Identifier of the node holding the lease.
+	 */
+	@Column(nullable = false, length = 200)
+	private String owner;
+
+	/**
+	 * Database time at which the lease lapses unless renewed.
+	 */
+	@Column(name = "expires_at", nullable = false, columnDefinition = "datetime(6)")
+	private LocalDateTime expiresAt;
+}
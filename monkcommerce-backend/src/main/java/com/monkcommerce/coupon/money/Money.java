@@ -0,0 +1,95 @@
+package com.monkcommerce.coupon.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic.
+ * <p>
+ * Every price, total and discount is a {@code long} number of minor units
+ * (cents), and percentages are {@code int} basis points (1/100 of a percent).
+ * The rounding policy is defined here and nowhere else:
+ * <ul>
+ * <li>decimal input (JSON prices, coupon details) is rounded
+ * {@link RoundingMode#HALF_UP half-up} to whole minor units or basis points,
+ * once, when it enters the system</li>
+ * <li>a percentage of an amount is rounded half-up to whole minor units, once
+ * per discounted amount (per cart for cart-wise, per cart line for
+ * product-wise coupons)</li>
+ * <li>all other arithmetic (sums, quantities, final prices) is exact</li>
+ * </ul>
+ * Amounts are only turned back into decimals when written as JSON
+ * ({@link MoneySerializer}).
+ * </p>
+ */
+public final class Money {
+
+	/**
+	 * Decimal places of one minor unit.
+	 */
+	public static final int SCALE = 2;
+
+	/**
+	 * Rounding applied to every conversion and percentage.
+	 */
+	public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+	/**
+	 * Basis points in 100%.
+	 */
+	public static final int FULL_PERCENT = 10_000;
+
+	/**
+	 * Largest amount, in minor units, of which {@link #percentOf(long, int)} can
+	 * take any percentage up to 100%.
+	 */
+	public static final long MAX_AMOUNT = Long.MAX_VALUE / FULL_PERCENT;
+
+	private Money() {
+	}
+
+	/**
+	 * Converts a decimal amount to minor units.
+	 *
+	 * @param amount the decimal amount, e.g. {@code 12.345}
+	 * @return the amount in minor units, e.g. {@code 1235}
+	 * @throws ArithmeticException if the amount does not fit in a {@code long}
+	 */
+	public static long toMinorUnits(BigDecimal amount) {
+		return amount.setScale(SCALE, ROUNDING).unscaledValue().longValueExact();
+	}
+
+	/**
+	 * Converts minor units to a decimal amount.
+	 *
+	 * @param minorUnits the amount in minor units
+	 * @return the decimal amount with {@link #SCALE} decimal places
+	 */
+	public static BigDecimal toDecimal(long minorUnits) {
+		return BigDecimal.valueOf(minorUnits, SCALE);
+	}
+
+	/**
+	 * Converts a decimal percentage to basis points.
+	 *
+	 * @param percent the percentage, e.g. {@code 12.5}
+	 * @return the percentage in basis points, e.g. {@code 1250}
+	 * @throws ArithmeticException if the value does not fit in an {@code int}
+	 */
+	public static int toBasisPoints(BigDecimal percent) {
+		return percent.setScale(2, ROUNDING).unscaledValue().intValueExact();
+	}
+
+	/**
+	 * Computes a percentage of an amount, rounded half-up to minor units.
+	 *
+	 * @param amount      the non-negative amount in minor units, at most
+	 *                    {@link #MAX_AMOUNT} for percentages up to 100%
+	 * @param basisPoints the percentage in basis points
+	 * @return the rounded share of {@code amount}
+	 * @throws ArithmeticException on overflow
+	 */
+	public static long percentOf(long amount, int basisPoints) {
+		return (Math.multiplyExact(amount, basisPoints) + FULL_PERCENT / 2) / FULL_PERCENT;
+	}
+}
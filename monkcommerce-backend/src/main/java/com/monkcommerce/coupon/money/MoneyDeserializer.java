@@ -0,0 +1,40 @@
+package com.monkcommerce.coupon.money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Reads a JSON decimal amount (number or numeric string) into minor units,
+ * rounding as defined by {@link Money}. The number is read as a
+ * {@link BigDecimal}, never as a {@code double}, so e.g. {@code 0.29} becomes
+ * exactly {@code 29}.
+ */
+public class MoneyDeserializer extends StdDeserializer<Long> {
+
+	private static final long serialVersionUID = 1L;
+
+	public MoneyDeserializer() {
+		super(Long.class);
+	}
+
+	@Override
+	public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		JsonToken token = parser.currentToken();
+		try {
+			if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+				return Money.toMinorUnits(parser.getDecimalValue());
+			}
+			if (token == JsonToken.VALUE_STRING) {
+				return Money.toMinorUnits(new BigDecimal(parser.getText().trim()));
+			}
+		} catch (NumberFormatException | ArithmeticException ex) {
+			return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), "not a valid amount");
+		}
+		return (Long) context.handleUnexpectedToken(Long.class, parser);
+	}
+}
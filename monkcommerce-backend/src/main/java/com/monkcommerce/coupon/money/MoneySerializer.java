@@ -0,0 +1,25 @@
+package com.monkcommerce.coupon.money;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes an amount held in minor units as a JSON decimal number, e.g.
+ * {@code 1250} as {@code 12.50}.
+ */
+public class MoneySerializer extends StdSerializer<Long> {
+
+	private static final long serialVersionUID = 1L;
+
+	public MoneySerializer() {
+		super(Long.class);
+	}
+
+	@Override
+	public void serialize(Long value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+		generator.writeNumber(Money.toDecimal(value));
+	}
+}
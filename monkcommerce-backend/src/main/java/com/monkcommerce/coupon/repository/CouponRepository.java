@@ -2,15 +2,21 @@ package com.monkcommerce.coupon.repository;
 
 import com.monkcommerce.coupon.entity.Coupon;
 import com.monkcommerce.coupon.enums.CouponType;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Coupon} entities.
@@ -26,6 +32,11 @@ import java.util.Optional;
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long>, JpaSpecificationExecutor<Coupon> {
 
+	/**
+	 * Rows fetched per round trip by {@link #streamVersionsAfter(long)}.
+	 */
+	int STREAM_FETCH_SIZE = 500;
+
 	/**
 	 * Retrieves all coupons that are currently active.
 	 *
@@ -49,6 +60,32 @@ public interface CouponRepository extends JpaRepository<Coupon, Long>, JpaSpecif
 	@Query("SELECT c FROM Coupon c WHERE c.isActive = true AND (c.expirationDate IS NULL OR c.expirationDate > :currentTime)")
 	List<Coupon> findActiveAndNotExpired(@Param("currentTime") LocalDateTime currentTime);
 
+	/**
+	 * Retrieves the ID and version of the coupons with an ID greater than
+	 * {@code afterId}, ordered by ID (keyset pagination).
+	 *
+	 * @param afterId the last ID of the previous page, or {@code 0}
+	 * @param limit   the maximum number of results
+	 * @return list of {@link CouponVersion} for the page
+	 */
+	@Query("SELECT new com.monkcommerce.coupon.repository.CouponVersion(c.id, c.version) FROM Coupon c WHERE c.id > :afterId ORDER BY c.id")
+	List<CouponVersion> findVersionsAfter(@Param("afterId") long afterId, Limit limit);
+
+	/**
+	 * Streams the ID and version of the coupons with an ID greater than
+	 * {@code afterId}, ordered by ID.
+	 * <p>
+	 * Rows are fetched from a database cursor {@value #STREAM_FETCH_SIZE} at a
+	 * time. The stream must be consumed inside a transaction and closed.
+	 * </p>
+	 *
+	 * @param afterId the ID to start after, or {@code 0}
+	 * @return stream of {@link CouponVersion}
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+	@Query("SELECT new com.monkcommerce.coupon.repository.CouponVersion(c.id, c.version) FROM Coupon c WHERE c.id > :afterId ORDER BY c.id")
+	Stream<CouponVersion> streamVersionsAfter(@Param("afterId") long afterId);
+
 	/**
 	 * Retrieves all coupons of a given type.
 	 *
@@ -89,13 +126,15 @@ public interface CouponRepository extends JpaRepository<Coupon, Long>, JpaSpecif
 			@Param("futureDate") LocalDateTime futureDate);
 
 	/**
-	 * Retrieves all coupons that are expired (past their expiration date).
+	 * Retrieves expired coupons (past their expiration date), earliest
+	 * expiration first.
 	 *
 	 * @param currentTime current timestamp for filtering
+	 * @param limit       the maximum number of coupons to return
 	 * @return list of expired coupons
 	 */
-	@Query("SELECT c FROM Coupon c WHERE c.expirationDate IS NOT NULL AND c.expirationDate < :currentTime")
-	List<Coupon> findExpiredCoupons(@Param("currentTime") LocalDateTime currentTime);
+	@Query("SELECT c FROM Coupon c WHERE c.expirationDate IS NOT NULL AND c.expirationDate < :currentTime ORDER BY c.expirationDate, c.id")
+	List<Coupon> findExpiredCoupons(@Param("currentTime") LocalDateTime currentTime, Limit limit);
 
 	/**
 	 * Counts the number of active coupons.
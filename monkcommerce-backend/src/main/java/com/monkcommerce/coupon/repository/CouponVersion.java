@@ -0,0 +1,20 @@
+package com.monkcommerce.coupon.repository;
+
+import lombok.Value;
+
+/**
+ * ID and version of a coupon, read without loading the entity.
+ */
+@Value
+public class CouponVersion {
+
+	/**
+	 * ID of the coupon.
+	 */
+	Long id;
+
+	/**
+	 * Current version of the coupon.
+	 */
+	long version;
+}
@@ -0,0 +1,12 @@
+package com.monkcommerce.coupon.repository;
+
+import com.monkcommerce.coupon.entity.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for {@link ImportCheckpoint} entities, keyed by import ID.
+ */
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+}
@@ -1,12 +1,26 @@
 package com.monkcommerce.coupon.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+
+import com.monkcommerce.coupon.dto.request.CartDto;
 import com.monkcommerce.coupon.dto.request.CreateCouponDto;
 import com.monkcommerce.coupon.dto.request.UpdateCouponDto;
 import com.monkcommerce.coupon.dto.response.ApplicableCouponDto;
+import com.monkcommerce.coupon.dto.response.CartEvaluationResultDto;
+import com.monkcommerce.coupon.dto.response.CouponCombinationDto;
+import com.monkcommerce.coupon.dto.response.CouponCreationResultDto;
+import com.monkcommerce.coupon.dto.response.CouponJsonPage;
+import com.monkcommerce.coupon.dto.response.CouponSliceDto;
+import com.monkcommerce.coupon.dto.response.ImportResultDto;
 import com.monkcommerce.coupon.entity.Cart;
 import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
 import com.monkcommerce.coupon.enums.CouponType;
 
 /**
@@ -29,24 +43,130 @@ public interface CouponService {
 	Coupon createCoupon(CreateCouponDto createCouponDto);
 
 	/**
-	 * Retrieves all coupons.
+	 * Retrieves a coupon by its unique ID.
+	 * <p>
+	 * Served from the local {@link com.monkcommerce.coupon.service.cache.CouponCache};
+	 * the returned coupon is shared and must not be modified.
+	 * </p>
 	 *
-	 * @return a list of all {@link Coupon}
+	 * @param id the coupon ID
+	 * @return the {@link Coupon} if found
+	 * @throws com.monkcommerce.coupon.exception.CouponNotFoundException if no
+	 *                                                                   coupon
+	 *                                                                   exists with
+	 *                                                                   the given
+	 *                                                                   ID
 	 */
-	List<Coupon> getAllCoupons();
+	Coupon getCouponById(Long id);
 
 	/**
-	 * Retrieves a coupon by its unique ID.
+	 * Creates many coupons in one call.
+	 * <p>
+	 * Every coupon is validated first (bean constraints, type and details);
+	 * invalid coupons are reported and skipped. The valid ones are inserted in
+	 * JDBC batches, one transaction per chunk of coupons; if a chunk fails, its
+	 * coupons are retried one at a time so that only the offending ones fail.
+	 * </p>
+	 *
+	 * @param createCouponDtos the coupons to create (1–100000)
+	 * @return one {@link CouponCreationResultDto} per coupon, in request order
+	 * @throws IllegalArgumentException if the request is empty or too large
+	 */
+	List<CouponCreationResultDto> createCoupons(List<CreateCouponDto> createCouponDtos);
+
+	/**
+	 * Imports coupons from an NDJSON or CSV file without loading it into memory.
+	 * <p>
+	 * Rows are validated like {@link #createCoupons(List)} and written in
+	 * batched transactions that also record a checkpoint. Invalid rows are
+	 * reported and skipped. If the import fails, repeating it with the same
+	 * {@code importId} resumes after the last checkpoint.
+	 * </p>
+	 *
+	 * @param importId identifies the file across attempts
+	 * @param format   the file format ({@code ndjson} or {@code csv})
+	 * @param in       the file content, UTF-8; closed when done
+	 * @return the outcome of this attempt
+	 * @throws IllegalArgumentException if the format or import ID is invalid, the
+	 *                                  import is already running or the CSV
+	 *                                  header is malformed
+	 * @throws IOException              if reading {@code in} fails
+	 */
+	ImportResultDto importCoupons(String importId, String format, InputStream in) throws IOException;
+
+	/**
+	 * Writes all coupons as one JSON array, ordered by ID.
+	 * <p>
+	 * The table is read through a database cursor and written in chunks, so
+	 * memory use does not grow with the number of coupons.
+	 * </p>
+	 *
+	 * @param out the stream to write to; not closed
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	void writeAllCouponsJson(OutputStream out) throws IOException;
+
+	/**
+	 * Retrieves one page of coupons as a JSON array, using keyset pagination by
+	 * ID.
+	 *
+	 * @param afterId return coupons with an ID greater than this value
+	 * @param limit   the maximum number of coupons to return (1–1000)
+	 * @return the page, with the {@code afterId} of the next page if this one is
+	 *         full
+	 * @throws IllegalArgumentException if {@code limit} is out of range
+	 */
+	CouponJsonPage getCouponsJsonPage(long afterId, int limit);
+
+	/**
+	 * Writes all coupons with an ID greater than {@code afterId} as
+	 * newline-delimited JSON, ordered by ID.
+	 * <p>
+	 * The table is read through a database cursor and written in chunks, so
+	 * memory use does not grow with the number of coupons.
+	 * </p>
+	 *
+	 * @param afterId write coupons with an ID greater than this value
+	 * @param out     the stream to write to; not closed
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	void streamCouponsJson(long afterId, OutputStream out) throws IOException;
+
+	/**
+	 * Writes the coupons matching the filters as newline-delimited JSON, ordered
+	 * by ID.
+	 * <p>
+	 * Rows are read through a forward-only database cursor and detached once
+	 * written, so memory use does not grow with the number of coupons.
+	 * </p>
+	 *
+	 * @param type           the coupon type filter (nullable)
+	 * @param isActive       the active status filter (nullable)
+	 * @param includeExpired whether to include expired coupons (nullable,
+	 *                       default {@code true})
+	 * @param createdFrom    creation date lower bound, inclusive (nullable)
+	 * @param createdTo      creation date upper bound, inclusive (nullable)
+	 * @param out            the stream to write to; flushed, not closed
+	 * @return the number of coupons written
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	long exportCoupons(CouponType type, Boolean isActive, Boolean includeExpired, LocalDateTime createdFrom,
+			LocalDateTime createdTo, OutputStream out) throws IOException;
+
+	/**
+	 * Retrieves a coupon by its unique ID as JSON. The coupon comes from
+	 * {@link #getCouponById(Long)}; its JSON is served from the representation
+	 * cache when its version is unchanged.
 	 *
 	 * @param id the coupon ID
-	 * @return the {@link Coupon} if found
+	 * @return the JSON bytes of the {@link Coupon}
 	 * @throws com.monkcommerce.coupon.exception.CouponNotFoundException if no
 	 *                                                                   coupon
 	 *                                                                   exists with
 	 *                                                                   the given
 	 *                                                                   ID
 	 */
-	Coupon getCouponById(Long id);
+	byte[] getCouponJsonById(Long id);
 
 	/**
 	 * Updates an existing coupon with new details.
@@ -77,16 +197,62 @@ public interface CouponService {
 	/**
 	 * Retrieves all coupons applicable to a given cart.
 	 *
-	 * @param cart the {@link Cart} containing items and totals
+	 * @param cart the {@link EvaluationCart} containing items and totals
 	 * @return a list of {@link ApplicableCouponDto} representing eligible coupons
 	 */
-	List<ApplicableCouponDto> getApplicableCoupons(Cart cart);
+	List<ApplicableCouponDto> getApplicableCoupons(EvaluationCart cart);
+
+	/**
+	 * Retrieves the applicable coupons for each cart of a batch.
+	 * <p>
+	 * All carts are evaluated against the same coupon snapshot, spread over the
+	 * available cores. A cart that is invalid or cannot be evaluated produces a
+	 * failure entry without affecting the other carts.
+	 * </p>
+	 *
+	 * @param carts the carts to evaluate
+	 * @return one {@link CartEvaluationResultDto} per cart, in input order
+	 * @throws IllegalArgumentException if the batch is empty or too large
+	 */
+	List<CartEvaluationResultDto> getApplicableCouponsBatch(List<CartDto> carts);
+
+	/**
+	 * Retrieves the {@code k} coupons giving the highest discount for a given
+	 * cart, best first.
+	 * <p>
+	 * Ties are broken by ascending coupon ID. Coupons whose maximum possible
+	 * discount cannot beat the current k-th best are not fully evaluated.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} containing items and totals
+	 * @param k    the maximum number of coupons to return
+	 * @return up to {@code k} {@link ApplicableCouponDto}, ordered by discount
+	 *         descending
+	 * @throws IllegalArgumentException if {@code k} is out of range
+	 */
+	List<ApplicableCouponDto> getTopCoupons(EvaluationCart cart, int k);
+
+	/**
+	 * Computes the combination of coupons giving the highest total discount for
+	 * a given cart.
+	 * <p>
+	 * Stackable coupons are combined as long as they discount different parts of
+	 * the cart; exclusive coupons are only considered on their own. The search
+	 * is bounded by {@code coupon.stacking.time-budget}.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} containing items and totals
+	 * @return the best {@link CouponCombinationDto} found; its coupon list is
+	 *         empty if no coupon applies
+	 */
+	CouponCombinationDto getBestCombination(EvaluationCart cart);
 
 	/**
 	 * Applies a coupon to the given cart if valid and applicable.
 	 *
 	 * @param couponId the coupon ID
-	 * @param cart     the {@link Cart} to which the coupon will be applied
+	 * @param cart     the {@link EvaluationCart} to which the coupon will be
+	 *                 applied
 	 * @return the updated {@link Cart} with discounts applied
 	 * @throws com.monkcommerce.coupon.exception.CouponNotFoundException if the
 	 *                                                                   coupon does
@@ -100,7 +266,7 @@ public interface CouponService {
 	 *                                                                   not
 	 *                                                                   applicable
 	 */
-	Cart applyCoupon(Long couponId, Cart cart);
+	Cart applyCoupon(Long couponId, EvaluationCart cart);
 
 	/**
 	 * Retrieves all active coupons of a specific type.
@@ -117,4 +283,28 @@ public interface CouponService {
 	 * @return a list of {@link Coupon} expiring within the given timeframe
 	 */
 	List<Coupon> getCouponsExpiringWithin(int days);
+
+	/**
+	 * Searches coupons with optional filters, one page at a time.
+	 * <p>
+	 * Returns a slice rather than a page: the query fetches one row more than
+	 * the page size to tell whether a next page exists, and no {@code COUNT}
+	 * query is run. Sorting is limited to indexed columns ({@code id},
+	 * {@code type}, {@code isActive}, {@code expirationDate}); {@code id} is
+	 * always appended as a tie-breaker so pages are stable.
+	 * </p>
+	 *
+	 * @param type           the coupon type filter (nullable)
+	 * @param isActive       the active status filter (nullable)
+	 * @param includeExpired whether to include expired coupons (nullable,
+	 *                       default {@code true})
+	 * @param createdFrom    creation date lower bound, inclusive (nullable)
+	 * @param createdTo      creation date upper bound, inclusive (nullable)
+	 * @param pageable       the page number, size (1–100) and sort
+	 * @return the {@link CouponSliceDto} for the requested page
+	 * @throws IllegalArgumentException if the type, page size or a sort property
+	 *                                  is invalid
+	 */
+	CouponSliceDto searchCoupons(String type, Boolean isActive, Boolean includeExpired, LocalDateTime createdFrom,
+			LocalDateTime createdTo, Pageable pageable);
 }
@@ -0,0 +1,130 @@
+package com.monkcommerce.coupon.service.bulk;
+
+import java.util.List;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.service.changelog.CouponChangeLog;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inserts new coupons in JDBC batches.
+ * <p>
+ * All coupons passed to {@link #insert(List, BatchListener)} are written in one
+ * transaction, flushed every {@link Coupon#ID_ALLOCATION_SIZE} coupons (the
+ * pooled ID generator and {@code hibernate.jdbc.batch_size} make each flush
+ * one batch). If the transaction fails, e.g. because a coupon violates a
+ * unique constraint, the coupons are retried one per transaction so only the
+ * offending ones fail.
+ * </p>
+ * <p>
+ * No {@link com.monkcommerce.coupon.service.snapshot.CouponChangedEvent} is
+ * published; callers reload the snapshot once they are done. The new coupons
+ * are recorded in the {@link CouponChangeLog} in the transaction that writes
+ * them, so other nodes pick them up.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponBulkWriter {
+
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final CouponChangeLog couponChangeLog;
+
+	/**
+	 * Callback run inside each insert transaction, before it commits.
+	 */
+	@FunctionalInterface
+	public interface BatchListener {
+
+		/**
+		 * Called after coupons have been written in the current transaction; any
+		 * exception rolls the transaction back.
+		 *
+		 * @param last    position of the last coupon handled, written or not
+		 * @param written number of coupons written so far by this
+		 *                {@link CouponBulkWriter#insert(List, BatchListener)}
+		 *                call, including the current transaction
+		 */
+		void beforeCommit(int last, int written);
+	}
+
+	/**
+	 * Inserts the coupons.
+	 *
+	 * @param coupons  the new coupons; their IDs are set on success
+	 * @param listener called inside every transaction that writes coupons, e.g.
+	 *                 to store an import checkpoint atomically with them; may be
+	 *                 {@code null}
+	 * @return for each coupon, {@code null} if it was created or the reason it
+	 *         was not
+	 */
+	public String[] insert(List<Coupon> coupons, BatchListener listener) {
+		String[] errors = new String[coupons.size()];
+		if (coupons.isEmpty()) {
+			return errors;
+		}
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				for (int i = 0; i < coupons.size(); i++) {
+					entityManager.persist(coupons.get(i));
+					if ((i + 1) % Coupon.ID_ALLOCATION_SIZE == 0) {
+						entityManager.flush();
+						entityManager.clear();
+					}
+				}
+				couponChangeLog.record(coupons.stream().map(Coupon::getId).toList());
+				if (listener != null) {
+					listener.beforeCommit(coupons.size() - 1, coupons.size());
+				}
+			});
+			return errors;
+		} catch (DataAccessException | PersistenceException ex) {
+			if (coupons.size() == 1) {
+				log.debug("Rejected coupon: {}", ex.getMessage());
+				errors[0] = rejection(ex);
+				return errors;
+			}
+			log.warn("Bulk insert of {} coupons failed, retrying one by one: {}", coupons.size(), ex.getMessage());
+		}
+
+		int written = 0;
+		for (int i = 0; i < coupons.size(); i++) {
+			Coupon coupon = coupons.get(i);
+			// The rolled-back attempt assigned IDs and versions; start over
+			coupon.setId(null);
+			coupon.setVersion(0);
+			int position = i;
+			int writtenBefore = written;
+			try {
+				transactionTemplate.executeWithoutResult(status -> {
+					entityManager.persist(coupon);
+					couponChangeLog.record(List.of(coupon.getId()));
+					if (listener != null) {
+						listener.beforeCommit(position, writtenBefore + 1);
+					}
+				});
+				written++;
+			} catch (DataAccessException | PersistenceException ex) {
+				log.debug("Rejected coupon: {}", ex.getMessage());
+				errors[i] = rejection(ex);
+			}
+		}
+		return errors;
+	}
+
+	private static String rejection(RuntimeException ex) {
+		return ex instanceof DataIntegrityViolationException ? "Coupon conflicts with an existing coupon"
+				: "Coupon could not be saved";
+	}
+}
@@ -0,0 +1,107 @@
+package com.monkcommerce.coupon.service.bulk;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monkcommerce.coupon.dto.request.CreateCouponDto;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.service.rule.CouponRuleCompiler;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns coupon creation requests into new, validated {@link Coupon} entities.
+ * <p>
+ * Shared by single creation, bulk creation and file import so that every path
+ * applies the same validation: bean constraints of {@link CreateCouponDto},
+ * a known {@link CouponType} and details that compile into a rule.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponFactory {
+
+	private final CouponRuleCompiler couponRuleCompiler;
+	private final ObjectMapper objectMapper;
+	private final Validator validator;
+
+	/**
+	 * Builds a new, active coupon from the DTO and compiles it, so malformed
+	 * details are rejected before anything is written. Bean constraints are
+	 * not checked (see {@link #validate(CreateCouponDto)}).
+	 *
+	 * @param createCouponDto the creation request
+	 * @return the unsaved coupon
+	 * @throws IllegalArgumentException if the type is unknown
+	 * @throws InvalidCouponException   if the details are malformed
+	 */
+	public Coupon create(CreateCouponDto createCouponDto) {
+		LocalDateTime now = LocalDateTime.now();
+		Coupon coupon = new Coupon();
+		coupon.setType(CouponType.fromString(createCouponDto.getType()));
+		coupon.setDetails(toDetails(createCouponDto.getDetails()));
+		coupon.setExpirationDate(createCouponDto.getExpirationDate());
+		coupon.setIsActive(true);
+		coupon.setIsStackable(Boolean.TRUE.equals(createCouponDto.getIsStackable()));
+		coupon.setCreatedAt(now);
+		coupon.setUpdatedAt(now);
+		couponRuleCompiler.compile(coupon);
+		return coupon;
+	}
+
+	/**
+	 * Applies the DTO's bean validation constraints, as {@code @Valid} does for
+	 * a single request body.
+	 *
+	 * @param createCouponDto the creation request
+	 * @return {@code createCouponDto}
+	 * @throws IllegalArgumentException listing the violated constraints
+	 */
+	public CreateCouponDto validate(CreateCouponDto createCouponDto) {
+		if (createCouponDto == null) {
+			throw new IllegalArgumentException("Coupon is required");
+		}
+		Set<ConstraintViolation<CreateCouponDto>> violations = validator.validate(createCouponDto);
+		if (!violations.isEmpty()) {
+			throw new IllegalArgumentException(violations.stream().map(ConstraintViolation::getMessage).sorted()
+					.collect(Collectors.joining(", ")));
+		}
+		return createCouponDto;
+	}
+
+	/**
+	 * Converts coupon details to a string-based map for persistence. Scalars are
+	 * stored as-is; arrays and objects (e.g. BxGy {@code buy_products}) are
+	 * stored as JSON.
+	 *
+	 * @param details the details from a request
+	 * @return the details as stored on {@link Coupon}
+	 * @throws InvalidCouponException if a value cannot be written as JSON
+	 */
+	public Map<String, String> toDetails(Map<String, Object> details) {
+		return details.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> detailToString(e.getKey(), e.getValue())));
+	}
+
+	private String detailToString(String key, Object value) {
+		if (!(value instanceof Map<?, ?>) && !(value instanceof Collection<?>)) {
+			return value.toString();
+		}
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException ex) {
+			throw new InvalidCouponException(key, value.toString());
+		}
+	}
+}
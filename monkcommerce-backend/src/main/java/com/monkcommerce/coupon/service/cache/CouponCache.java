@@ -0,0 +1,97 @@
+package com.monkcommerce.coupon.service.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.service.snapshot.CouponChangedEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded local cache of {@link Coupon} entities by ID, including their
+ * details.
+ * <p>
+ * Entries are evicted by size ({@code coupon.cache.maximum-size}), by age
+ * ({@code coupon.cache.expire-after-write}), once a
+ * {@link CouponChangedEvent} for the coupon is committed, after bulk
+ * updates such as the expiry sweep, and when the coupon change log reports a
+ * change committed by another node. The age limit bounds staleness should the
+ * change log stop being tailed.
+ * </p>
+ * <p>
+ * Cached coupons are detached and shared between callers; they must not be
+ * modified.
+ * </p>
+ * <p>
+ * Exposes the Micrometer Caffeine metrics with {@code cache=coupons}:
+ * {@code cache.gets} ({@code result=hit|miss}), {@code cache.evictions},
+ * {@code cache.size} and {@code cache.puts}.
+ * </p>
+ */
+@Component
+public class CouponCache {
+
+	private final Cache<Long, Coupon> coupons;
+
+	public CouponCache(@Value("${coupon.cache.maximum-size:10000}") long maximumSize,
+			@Value("${coupon.cache.expire-after-write:PT5M}") Duration expireAfterWrite, MeterRegistry meterRegistry) {
+		this.coupons = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireAfterWrite)
+				.recordStats().build();
+		CaffeineCacheMetrics.monitor(meterRegistry, coupons, "coupons");
+	}
+
+	/**
+	 * Returns the cached coupon, loading and caching it on a miss.
+	 * <p>
+	 * An eviction for the same coupon that arrives while it is being loaded
+	 * waits for the load and then removes its result, so a load that raced with
+	 * a committed change is not kept.
+	 * </p>
+	 *
+	 * @param id     the coupon ID
+	 * @param loader loads the coupon, or returns {@code null} if it does not
+	 *               exist (nothing is cached then)
+	 * @return the coupon, or {@code null} if {@code loader} found none
+	 */
+	public Coupon get(Long id, Function<Long, Coupon> loader) {
+		return coupons.get(id, loader);
+	}
+
+	/**
+	 * Evicts coupons changed without a local {@link CouponChangedEvent}, such as
+	 * by a bulk statement or on another node, once the change has been
+	 * committed.
+	 *
+	 * @param ids the IDs of the changed coupons
+	 */
+	public void invalidateAll(Collection<Long> ids) {
+		coupons.invalidateAll(ids);
+	}
+
+	/**
+	 * Evicts every coupon, e.g. after a data migration rewrote the table.
+	 */
+	public void invalidateAll() {
+		coupons.invalidateAll();
+	}
+
+	/**
+	 * Evicts a coupon whose creation, update or deletion has been committed.
+	 *
+	 * @param event the change event published by the service layer
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCouponChanged(CouponChangedEvent event) {
+		coupons.invalidate(event.getCouponId());
+	}
+}
@@ -0,0 +1,182 @@
+package com.monkcommerce.coupon.service.cache;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.service.snapshot.CouponChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache of the serialized JSON representation of each coupon, as returned by
+ * the coupon read endpoints.
+ * <p>
+ * Entries are keyed by coupon ID and hold the bytes for one coupon
+ * {@code version}. A lookup only hits when the caller's version matches, so an
+ * entry written for an older version is never served, even if it was stored
+ * after a concurrent update. Entries are evicted once a
+ * {@link CouponChangedEvent} is committed and when the coupon change log
+ * reports a change made elsewhere. The cache holds at most
+ * {@code coupon.json-cache.maximum-size} coupons, least recently used first
+ * out, so heap use does not grow with the catalog.
+ * </p>
+ * <p>
+ * Only single-coupon reads populate the cache. Listings read it and serialize
+ * the misses with {@link #serialize(Coupon)} without caching them, so walking
+ * the catalog does not evict the coupons that are actually requested
+ * repeatedly.
+ * </p>
+ * <p>
+ * The bytes are produced by the application {@link ObjectMapper}, so they are
+ * identical to what the HTTP message converters would write.
+ * </p>
+ * <p>
+ * Exposes the {@code coupon.json.cache.size} gauge and the
+ * {@code coupon.json.cache.requests} counter, tagged {@code result=hit|miss}.
+ * </p>
+ */
+@Component
+public class CouponJsonCache {
+
+	private static final byte[] EMPTY_ARRAY = { '[', ']' };
+
+	private final ObjectMapper objectMapper;
+	private final Cache<Long, Entry> entries;
+	private final Counter hits;
+	private final Counter misses;
+
+	public CouponJsonCache(ObjectMapper objectMapper,
+			@Value("${coupon.json-cache.maximum-size:10000}") long maximumSize, MeterRegistry meterRegistry) {
+		this.objectMapper = objectMapper;
+		this.entries = Caffeine.newBuilder().maximumSize(maximumSize).build();
+
+		Gauge.builder("coupon.json.cache.size", entries, Cache::estimatedSize)
+				.description("Number of coupons with a cached JSON representation").register(meterRegistry);
+		hits = Counter.builder("coupon.json.cache.requests").tag("result", "hit")
+				.description("Lookups of cached coupon JSON").register(meterRegistry);
+		misses = Counter.builder("coupon.json.cache.requests").tag("result", "miss")
+				.description("Lookups of cached coupon JSON").register(meterRegistry);
+	}
+
+	/**
+	 * Returns the cached JSON of a coupon version.
+	 *
+	 * @param id      the coupon ID
+	 * @param version the current version of the coupon
+	 * @return the JSON bytes, or {@code null} if no entry exists for this version
+	 */
+	public byte[] get(Long id, long version) {
+		Entry entry = entries.getIfPresent(id);
+		if (entry != null && entry.version == version) {
+			hits.increment();
+			return entry.json;
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Serializes a coupon and caches the result.
+	 * <p>
+	 * An existing entry for a newer version is kept.
+	 * </p>
+	 *
+	 * @param coupon the coupon to serialize
+	 * @return the JSON bytes of {@code coupon}
+	 * @throws IllegalStateException if the coupon cannot be serialized
+	 */
+	public byte[] put(Coupon coupon) {
+		byte[] json = serialize(coupon);
+		Entry entry = new Entry(coupon.getVersion(), json);
+		entries.asMap().merge(coupon.getId(), entry,
+				(current, candidate) -> current.version > candidate.version ? current : candidate);
+		return json;
+	}
+
+	/**
+	 * Serializes a coupon without caching the result.
+	 *
+	 * @param coupon the coupon to serialize
+	 * @return the JSON bytes of {@code coupon}
+	 * @throws IllegalStateException if the coupon cannot be serialized
+	 */
+	public byte[] serialize(Coupon coupon) {
+		try {
+			return objectMapper.writeValueAsBytes(coupon);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Coupon " + coupon.getId() + " could not be serialized", ex);
+		}
+	}
+
+	/**
+	 * Evicts the entries of coupons changed without a local
+	 * {@link CouponChangedEvent}, e.g. on another node.
+	 *
+	 * @param ids the IDs of the changed coupons
+	 */
+	public void invalidateAll(Collection<Long> ids) {
+		entries.invalidateAll(ids);
+	}
+
+	/**
+	 * Evicts every entry, e.g. after a data migration rewrote the table.
+	 */
+	public void invalidateAll() {
+		entries.invalidateAll();
+	}
+
+	/**
+	 * Evicts the entry of a coupon whose update or deletion has been committed.
+	 *
+	 * @param event the change event published by the service layer
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void onCouponChanged(CouponChangedEvent event) {
+		entries.invalidate(event.getCouponId());
+	}
+
+	/**
+	 * Joins JSON documents into a JSON array, skipping {@code null} elements.
+	 *
+	 * @param elements the JSON bytes of each element
+	 * @return the JSON array
+	 */
+	public static byte[] toJsonArray(byte[][] elements) {
+		int length = 1;
+		for (byte[] element : elements) {
+			if (element != null) {
+				length += element.length + 1;
+			}
+		}
+		if (length == 1) {
+			return EMPTY_ARRAY.clone();
+		}
+		byte[] array = new byte[length];
+		byte separator = '[';
+		int position = 0;
+		for (byte[] element : elements) {
+			if (element != null) {
+				array[position++] = separator;
+				separator = ',';
+				System.arraycopy(element, 0, array, position, element.length);
+				position += element.length;
+			}
+		}
+		array[position] = ']';
+		return array;
+	}
+
+	private record Entry(long version, byte[] json) {
+	}
+}
@@ -0,0 +1,110 @@
+package com.monkcommerce.coupon.service.changelog;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.entity.CouponChange;
+import com.monkcommerce.coupon.service.snapshot.CouponChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Appends coupon mutations to the {@link CouponChange} log, which every node
+ * tails with a {@link CouponChangeTailer} to apply changes made on other
+ * nodes.
+ * <p>
+ * Rows are inserted through the JDBC connection of the caller's transaction,
+ * so a change is logged if and only if the mutation commits. Single mutations
+ * are logged from their {@link CouponChangedEvent}, which the service layer
+ * publishes inside the mutating transaction; bulk writers call
+ * {@link #record(Collection)} themselves.
+ * </p>
+ * <p>
+ * Rows older than {@code coupon.change-log.retention} are purged every
+ * {@code coupon.change-log.purge-interval}. Every node purges; the deletes are
+ * idempotent. Only the database is needed, no message broker; the statements
+ * use MySQL functions ({@code NOW(6)}, {@code TIMESTAMPADD}), like the rest of
+ * the application.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CouponChangeLog {
+
+	private static final String INSERT = "INSERT INTO coupon_change_log (coupon_id, changed_at) VALUES (?, NOW(6))";
+
+	private static final String CUTOFF = "SELECT TIMESTAMPADD(MICROSECOND, ?, NOW(6))";
+
+	private static final String PURGE_RANGE = "SELECT MIN(id), MAX(id) FROM coupon_change_log WHERE changed_at < ?";
+
+	private static final String PURGE = "DELETE FROM coupon_change_log WHERE id >= ? AND id < ? AND changed_at < ?";
+
+	/**
+	 * Log IDs covered by one purge {@code DELETE}.
+	 */
+	private static final int PURGE_CHUNK = 10_000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Duration retention;
+
+	public CouponChangeLog(JdbcTemplate jdbcTemplate,
+			@Value("${coupon.change-log.retention:P1D}") Duration retention) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.retention = retention;
+	}
+
+	/**
+	 * Logs a coupon mutation in the publishing transaction.
+	 *
+	 * @param event the change event published by the service layer
+	 */
+	@EventListener
+	public void onCouponChanged(CouponChangedEvent event) {
+		record(List.of(event.getCouponId()));
+	}
+
+	/**
+	 * Logs mutations of the given coupons in the current transaction.
+	 *
+	 * @param couponIds the IDs of the created, updated or deleted coupons
+	 */
+	public void record(Collection<Long> couponIds) {
+		if (couponIds.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate(INSERT, couponIds, couponIds.size(),
+				(statement, couponId) -> statement.setLong(1, couponId));
+	}
+
+	/**
+	 * Deletes the rows older than the retention, a chunk of IDs per statement.
+	 */
+	@Scheduled(fixedDelayString = "${coupon.change-log.purge-interval:PT1H}", initialDelayString = "${coupon.change-log.purge-interval:PT1H}")
+	public void purge() {
+		try {
+			LocalDateTime cutoff = jdbcTemplate.queryForObject(CUTOFF, LocalDateTime.class,
+					-retention.toNanos() / 1000);
+			long[] range = jdbcTemplate.queryForObject(PURGE_RANGE,
+					(resultSet, rowNum) -> new long[] { resultSet.getLong(1), resultSet.getLong(2) }, cutoff);
+			if (range == null || range[1] == 0) {
+				return;
+			}
+			int deleted = 0;
+			for (long from = range[0]; from <= range[1]; from += PURGE_CHUNK) {
+				deleted += jdbcTemplate.update(PURGE, from, Math.min(from + PURGE_CHUNK, range[1] + 1), cutoff);
+			}
+			log.debug("Purged {} coupon change log rows", deleted);
+		} catch (DataAccessException ex) {
+			log.warn("Coupon change log purge failed: {}", ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,250 @@
+package com.monkcommerce.coupon.service.changelog;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.service.cache.CouponCache;
+import com.monkcommerce.coupon.service.cache.CouponJsonCache;
+import com.monkcommerce.coupon.service.snapshot.CouponSnapshotManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies the coupon changes appended to the {@link CouponChangeLog} to this
+ * node's local state: the {@link CouponSnapshotManager snapshot}, the
+ * {@link CouponCache} and the {@link CouponJsonCache}.
+ * <p>
+ * Every {@code coupon.change-log.poll-interval}, the rows after the last
+ * position read are fetched in ID order, {@code coupon.change-log.batch-size}
+ * at a time, until the tailer has caught up. Each batch reloads the changed
+ * coupons with one query and publishes one new snapshot. Applying a change
+ * means reloading the coupon's committed state, so changes made on this node,
+ * already applied through their {@code CouponChangedEvent}, are simply applied
+ * again.
+ * </p>
+ * <p>
+ * Log IDs are assigned on insert but become visible on commit, so a
+ * transaction that is still open leaves a gap behind a later one that has
+ * already committed. Skipped IDs are remembered and looked up again on every
+ * poll until they show up or are older than
+ * {@code coupon.change-log.gap-timeout}, after which they are given up on
+ * (rolled-back transactions leave such holes for good). A change lost that
+ * way is still picked up by the next full snapshot refresh and cache expiry.
+ * </p>
+ * <p>
+ * The position starts at the end of the log when the application starts,
+ * before the initial snapshot is loaded, so nothing committed after that load
+ * is missed.
+ * </p>
+ * <p>
+ * Exposes the {@code coupon.change.log.lag} timer (from the mutation to its
+ * application on this node: the row's age by the database clock when read,
+ * plus the time this node took to apply it), the
+ * {@code coupon.change.log.staleness} gauge (time since the last successful
+ * poll), the {@code coupon.change.log.position} and
+ * {@code coupon.change.log.gaps} gauges, and the
+ * {@code coupon.change.log.applied} and {@code coupon.change.log.gaps.expired}
+ * counters.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CouponChangeTailer {
+
+	private static final String LAST_POSITION = "SELECT COALESCE(MAX(id), 0) FROM coupon_change_log";
+
+	// The age is computed by the database, whose clock also stamped changed_at
+	private static final String NEXT_BATCH = "SELECT id, coupon_id, TIMESTAMPDIFF(MICROSECOND, changed_at, NOW(6))"
+			+ " FROM coupon_change_log WHERE id > ? ORDER BY id LIMIT ?";
+
+	private static final String GAPS = "SELECT id, coupon_id, TIMESTAMPDIFF(MICROSECOND, changed_at, NOW(6))"
+			+ " FROM coupon_change_log WHERE id IN (:ids)";
+
+	/**
+	 * Upper bound on the skipped IDs remembered at once; larger holes (e.g. an
+	 * auto-increment jump after a server restart) are given up on immediately.
+	 */
+	private static final int MAX_GAPS = 10_000;
+
+	private static final RowMapper<Change> CHANGE = (resultSet, rowNum) -> new Change(resultSet.getLong(1),
+			resultSet.getLong(2), resultSet.getLong(3));
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+	private final CouponSnapshotManager couponSnapshotManager;
+	private final CouponCache couponCache;
+	private final CouponJsonCache couponJsonCache;
+	private final int batchSize;
+	private final long gapTimeoutNanos;
+	private final Timer lag;
+	private final Counter applied;
+	private final Counter expiredGaps;
+
+	/** Skipped log IDs → {@link System#nanoTime()} when first skipped. */
+	private final Map<Long, Long> gaps = new ConcurrentSkipListMap<>();
+	private volatile long position;
+	private volatile long lastPollNanos = System.nanoTime();
+
+	public CouponChangeTailer(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+			CouponSnapshotManager couponSnapshotManager, CouponCache couponCache, CouponJsonCache couponJsonCache,
+			@Value("${coupon.change-log.batch-size:1000}") int batchSize,
+			@Value("${coupon.change-log.gap-timeout:PT1M}") Duration gapTimeout, MeterRegistry meterRegistry) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("coupon.change-log.batch-size must be at least 1");
+		}
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+		this.couponSnapshotManager = couponSnapshotManager;
+		this.couponCache = couponCache;
+		this.couponJsonCache = couponJsonCache;
+		this.batchSize = batchSize;
+		this.gapTimeoutNanos = gapTimeout.toNanos();
+
+		this.lag = Timer.builder("coupon.change.log.lag")
+				.description("Time from a coupon change to its application on this node").register(meterRegistry);
+		this.applied = Counter.builder("coupon.change.log.applied")
+				.description("Coupon change log rows applied on this node").register(meterRegistry);
+		this.expiredGaps = Counter.builder("coupon.change.log.gaps.expired")
+				.description("Skipped change log IDs given up on").register(meterRegistry);
+		Gauge.builder("coupon.change.log.position", this, tailer -> tailer.position)
+				.description("Highest change log ID read by this node").register(meterRegistry);
+		Gauge.builder("coupon.change.log.gaps", gaps, Map::size)
+				.description("Skipped change log IDs still awaited").register(meterRegistry);
+		TimeGauge.builder("coupon.change.log.staleness", this, TimeUnit.NANOSECONDS,
+				tailer -> System.nanoTime() - tailer.lastPollNanos)
+				.description("Time since the change log was last read successfully").register(meterRegistry);
+	}
+
+	/**
+	 * Starts tailing at the current end of the log.
+	 */
+	@PostConstruct
+	public void start() {
+		Long last = jdbcTemplate.queryForObject(LAST_POSITION, Long.class);
+		position = last == null ? 0 : last;
+		log.info("Tailing the coupon change log from position {}", position);
+	}
+
+	/**
+	 * Applies the changes committed since the last poll.
+	 */
+	@Scheduled(fixedDelayString = "${coupon.change-log.poll-interval:PT1S}")
+	public void poll() {
+		try {
+			if (!gaps.isEmpty()) {
+				fillGaps();
+			}
+			List<Change> batch;
+			do {
+				long readNanos = System.nanoTime();
+				batch = jdbcTemplate.query(NEXT_BATCH, CHANGE, position, batchSize);
+				apply(batch, readNanos);
+				advance(batch);
+			} while (batch.size() == batchSize);
+			lastPollNanos = System.nanoTime();
+		} catch (DataAccessException ex) {
+			log.warn("Coupon change log poll failed at position {}: {}", position, ex.getMessage());
+		}
+	}
+
+	/**
+	 * Applies the changes that showed up in the gaps and gives up on the gaps
+	 * that have been open for longer than the timeout.
+	 */
+	private void fillGaps() {
+		List<Long> awaited = new ArrayList<>(gaps.keySet());
+		for (int from = 0; from < awaited.size(); from += batchSize) {
+			long readNanos = System.nanoTime();
+			List<Change> filled = namedParameterJdbcTemplate.query(GAPS,
+					Map.of("ids", awaited.subList(from, Math.min(from + batchSize, awaited.size()))), CHANGE);
+			apply(filled, readNanos);
+			for (Change change : filled) {
+				gaps.remove(change.id());
+			}
+		}
+
+		long now = System.nanoTime();
+		int expired = 0;
+		for (Iterator<Long> skippedAt = gaps.values().iterator(); skippedAt.hasNext();) {
+			if (now - skippedAt.next() > gapTimeoutNanos) {
+				skippedAt.remove();
+				expired++;
+			}
+		}
+		if (expired > 0) {
+			expiredGaps.increment(expired);
+			log.debug("Gave up on {} coupon change log IDs", expired);
+		}
+	}
+
+	/**
+	 * Moves the position past the batch, remembering the IDs it skipped.
+	 */
+	private void advance(List<Change> batch) {
+		long now = System.nanoTime();
+		for (Change change : batch) {
+			long skipped = change.id() - position - 1;
+			if (skipped > MAX_GAPS - gaps.size()) {
+				expiredGaps.increment(skipped);
+				log.warn("Skipping {} coupon change log IDs after position {}", skipped, position);
+			} else {
+				for (long id = position + 1; id < change.id(); id++) {
+					gaps.put(id, now);
+				}
+			}
+			position = change.id();
+		}
+	}
+
+	/**
+	 * Reloads the changed coupons into the snapshot and evicts them from the
+	 * caches.
+	 *
+	 * @param readNanos {@link System#nanoTime()} before the changes were read
+	 */
+	private void apply(List<Change> changes, long readNanos) {
+		if (changes.isEmpty()) {
+			return;
+		}
+		Set<Long> couponIds = new LinkedHashSet<>();
+		for (Change change : changes) {
+			couponIds.add(change.couponId());
+		}
+		couponSnapshotManager.reload(couponIds);
+		couponCache.invalidateAll(couponIds);
+		couponJsonCache.invalidateAll(couponIds);
+
+		long applyNanos = System.nanoTime() - readNanos;
+		for (Change change : changes) {
+			lag.record(change.ageMicros() * 1000 + applyNanos, TimeUnit.NANOSECONDS);
+		}
+		applied.increment(changes.size());
+	}
+
+	/**
+	 * @param ageMicros age of the row by the database clock when it was read
+	 */
+	private record Change(long id, long couponId, long ageMicros) {
+	}
+}
@@ -0,0 +1,154 @@
+package com.monkcommerce.coupon.service.evaluation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.dto.response.ApplicableCouponDto;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.strategy.CouponStrategy;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Evaluates candidate coupons against a cart, in parallel when the candidate
+ * set is large.
+ * <p>
+ * Candidate sets smaller than {@code coupon.evaluation.parallel-threshold} are
+ * evaluated sequentially on the calling thread. Larger sets are split in
+ * halves down to that size and evaluated on a dedicated {@link ForkJoinPool}
+ * of {@code coupon.evaluation.parallelism} workers, so large catalogs cannot
+ * starve the common pool or the request threads. Either way, results keep the
+ * candidate order.
+ * </p>
+ * <p>
+ * Counts evaluations per path in {@code coupon.evaluation.path}
+ * ({@code path=parallel|sequential}).
+ * </p>
+ */
+@Component
+public class CouponEvaluator {
+
+	private final Map<CouponType, CouponStrategy> couponStrategies;
+	private final int parallelThreshold;
+	private final ForkJoinPool pool;
+
+	private final Counter sequentialCounter;
+	private final Counter parallelCounter;
+
+	public CouponEvaluator(Map<CouponType, CouponStrategy> couponStrategies,
+			@Value("${coupon.evaluation.parallel-threshold:2048}") int parallelThreshold,
+			@Value("${coupon.evaluation.parallelism:0}") int parallelism, MeterRegistry meterRegistry) {
+		if (parallelThreshold < 1) {
+			throw new IllegalArgumentException("coupon.evaluation.parallel-threshold must be positive");
+		}
+		this.couponStrategies = couponStrategies;
+		this.parallelThreshold = parallelThreshold;
+		this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+		this.sequentialCounter = Counter.builder("coupon.evaluation.path").tag("path", "sequential")
+				.description("Coupon evaluations by execution path").register(meterRegistry);
+		this.parallelCounter = Counter.builder("coupon.evaluation.path").tag("path", "parallel")
+				.description("Coupon evaluations by execution path").register(meterRegistry);
+	}
+
+	/**
+	 * Evaluates the candidates and returns those applicable to the cart.
+	 *
+	 * @param candidates candidate rules, e.g. from
+	 *                   {@link com.monkcommerce.coupon.service.snapshot.CouponSnapshot#getCandidateRules}
+	 * @param cart       the cart
+	 * @return the applicable coupons with their discount, in candidate order
+	 */
+	public List<ApplicableCouponDto> evaluate(List<CouponRule> candidates, EvaluationCart cart) {
+		if (candidates.size() < parallelThreshold) {
+			sequentialCounter.increment();
+			List<ApplicableCouponDto> applicable = new ArrayList<>();
+			evaluateRange(candidates, 0, candidates.size(), cart, applicable);
+			return applicable;
+		}
+
+		parallelCounter.increment();
+		EvaluateTask task = new EvaluateTask(candidates, 0, candidates.size(), cart);
+		// Already on one of our workers (e.g. a batch): fork in place
+		return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+	}
+
+	/**
+	 * Runs the given work on the evaluation pool and waits for it, so parallel
+	 * streams inside it use the pool's workers instead of the common pool.
+	 *
+	 * @param work the work to run
+	 * @param <T>  the result type
+	 * @return the result of the work
+	 */
+	public <T> T execute(Callable<T> work) {
+		return pool.submit(work).join();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	private void evaluateRange(List<CouponRule> candidates, int from, int to, EvaluationCart cart,
+			List<ApplicableCouponDto> applicable) {
+		for (int i = from; i < to; i++) {
+			CouponRule rule = candidates.get(i);
+			CouponStrategy strategy = couponStrategies.get(rule.getType());
+			if (strategy != null && strategy.isApplicable(cart, rule)) {
+				applicable.add(new ApplicableCouponDto(rule.getCouponId(), rule.getType().getValue(),
+						strategy.calculateDiscount(cart, rule)));
+			}
+		}
+	}
+
+	/**
+	 * Evaluates {@code candidates[from, to)}, splitting in halves while the range
+	 * is at least the parallel threshold.
+	 */
+	private final class EvaluateTask extends RecursiveTask<List<ApplicableCouponDto>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient List<CouponRule> candidates;
+		private final int from;
+		private final int to;
+		private final transient EvaluationCart cart;
+
+		EvaluateTask(List<CouponRule> candidates, int from, int to, EvaluationCart cart) {
+			this.candidates = candidates;
+			this.from = from;
+			this.to = to;
+			this.cart = cart;
+		}
+
+		@Override
+		protected List<ApplicableCouponDto> compute() {
+			if (to - from < parallelThreshold) {
+				List<ApplicableCouponDto> applicable = new ArrayList<>();
+				evaluateRange(candidates, from, to, cart, applicable);
+				return applicable;
+			}
+			int mid = (from + to) >>> 1;
+			EvaluateTask left = new EvaluateTask(candidates, from, mid, cart);
+			EvaluateTask right = new EvaluateTask(candidates, mid, to, cart);
+			left.fork();
+			List<ApplicableCouponDto> rightResult = right.compute();
+			List<ApplicableCouponDto> leftResult = left.join();
+			leftResult.addAll(rightResult);
+			return leftResult;
+		}
+	}
+}
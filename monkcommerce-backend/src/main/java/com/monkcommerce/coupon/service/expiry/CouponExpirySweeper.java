@@ -0,0 +1,253 @@
+package com.monkcommerce.coupon.service.expiry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.monkcommerce.coupon.service.cache.CouponCache;
+import com.monkcommerce.coupon.service.changelog.CouponChangeLog;
+import com.monkcommerce.coupon.service.lease.SchedulerLeaseManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deactivates expired coupons in the background.
+ * <p>
+ * Every {@code coupon.expiry.sweep.interval}, the node holding the
+ * {@value #LEASE} lease (see {@link SchedulerLeaseManager}) walks the active,
+ * expired coupons in {@code (expiration_date, id)} order through the
+ * {@code idx_coupon_active_expiration} index and deactivates them
+ * {@code coupon.expiry.sweep.batch-size} at a time, one {@code UPDATE} per
+ * batch. The lease is renewed after every batch; a node that loses it stops.
+ * </p>
+ * <p>
+ * Deactivating a coupon would collide with an inactive coupon of the same type
+ * and expiration date ({@code uk_coupon_type_active_expiration}). That twin
+ * has expired too and is deleted in the transaction of the batch, so the
+ * deactivated coupon takes its place and no coupon is left active run after
+ * run. A coupon that still cannot be deactivated (a twin committed
+ * concurrently) is skipped ({@code UPDATE IGNORE}) and retried on the next
+ * run; queries still filter it by expiration date.
+ * </p>
+ * <p>
+ * Deactivated coupons get a new {@code version}; they and the deleted twins
+ * are evicted from this node's {@link CouponCache} and recorded in the
+ * {@link CouponChangeLog} in the transaction of the batch, so other nodes
+ * evict them as well. Skipped coupons are not recorded. The coupon snapshot
+ * already leaves expired coupons out and needs no update.
+ * </p>
+ * <p>
+ * Exposes, per run of the leader, the {@code coupon.expiry.sweep.duration}
+ * timer and the {@code coupon.expiry.sweep.deactivated} and
+ * {@code coupon.expiry.sweep.skipped} distribution summaries, plus the
+ * {@code coupon.expiry.sweep.runs} counter tagged
+ * {@code result=leader|standby|lost|failed} ({@code lost}: the lease was lost
+ * mid-sweep and the sweep stopped early). Disable with
+ * {@code coupon.expiry.sweep.enabled=false}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.expiry.sweep.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CouponExpirySweeper {
+
+	/**
+	 * Name of the lease that elects the sweeping node.
+	 */
+	static final String LEASE = "coupon-expiry-sweep";
+
+	private static final String FIRST_BATCH = "SELECT id, expiration_date FROM coupons"
+			+ " WHERE is_active = true AND expiration_date <= :now ORDER BY expiration_date, id LIMIT :limit";
+
+	private static final String NEXT_BATCH = "SELECT id, expiration_date FROM coupons"
+			+ " WHERE is_active = true AND expiration_date <= :now AND (expiration_date > :afterExpiration"
+			+ " OR (expiration_date = :afterExpiration AND id > :afterId))"
+			+ " ORDER BY expiration_date, id LIMIT :limit";
+
+	// Locks the batch rows, so the re-read after the UPDATE sees only this sweep's changes
+	private static final String LOCK_EXPIRED = "SELECT id FROM coupons"
+			+ " WHERE id IN (:ids) AND is_active = true AND expiration_date <= :now FOR UPDATE";
+
+	private static final String INACTIVE_TWINS = "SELECT t.id FROM coupons t JOIN coupons c"
+			+ " ON c.type = t.type AND c.expiration_date = t.expiration_date"
+			+ " WHERE c.id IN (:ids) AND t.is_active = false FOR UPDATE";
+
+	private static final String DELETE_TWINS = "DELETE FROM coupons WHERE id IN (:twins) AND is_active = false";
+
+	private static final String DEACTIVATED = "SELECT id FROM coupons WHERE id IN (:ids) AND is_active = false";
+
+	private static final String DEACTIVATE = "UPDATE IGNORE coupons"
+			+ " SET is_active = false, updated_at = :now, version = version + 1"
+			+ " WHERE id IN (:ids) AND is_active = true AND expiration_date <= :now";
+
+	private static final RowMapper<ExpiredCoupon> EXPIRED_COUPON = (resultSet, rowNum) -> new ExpiredCoupon(
+			resultSet.getLong(1), resultSet.getObject(2, LocalDateTime.class));
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final SchedulerLeaseManager leaseManager;
+	private final CouponCache couponCache;
+	private final CouponChangeLog couponChangeLog;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final Duration leaseTtl;
+	private final Timer duration;
+	private final DistributionSummary deactivatedPerRun;
+	private final DistributionSummary skippedPerRun;
+	private final Counter leaderRuns;
+	private final Counter standbyRuns;
+	private final Counter lostRuns;
+	private final Counter failedRuns;
+
+	public CouponExpirySweeper(NamedParameterJdbcTemplate jdbcTemplate, SchedulerLeaseManager leaseManager,
+			CouponCache couponCache, CouponChangeLog couponChangeLog, TransactionTemplate transactionTemplate,
+			@Value("${coupon.expiry.sweep.batch-size:1000}") int batchSize,
+			@Value("${coupon.expiry.sweep.lease-ttl:PT5M}") Duration leaseTtl, MeterRegistry meterRegistry) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("coupon.expiry.sweep.batch-size must be at least 1");
+		}
+		this.jdbcTemplate = jdbcTemplate;
+		this.leaseManager = leaseManager;
+		this.couponCache = couponCache;
+		this.couponChangeLog = couponChangeLog;
+		this.transactionTemplate = transactionTemplate;
+		this.batchSize = batchSize;
+		this.leaseTtl = leaseTtl;
+
+		this.duration = Timer.builder("coupon.expiry.sweep.duration")
+				.description("Duration of expiry sweeps run by the leader").register(meterRegistry);
+		this.deactivatedPerRun = DistributionSummary.builder("coupon.expiry.sweep.deactivated")
+				.description("Expired coupons deactivated per sweep").register(meterRegistry);
+		this.skippedPerRun = DistributionSummary.builder("coupon.expiry.sweep.skipped")
+				.description("Expired coupons left active per sweep (unique key conflict or concurrent change)")
+				.register(meterRegistry);
+		this.leaderRuns = Counter.builder("coupon.expiry.sweep.runs").tag("result", "leader")
+				.description("Scheduled expiry sweeps").register(meterRegistry);
+		this.standbyRuns = Counter.builder("coupon.expiry.sweep.runs").tag("result", "standby")
+				.description("Scheduled expiry sweeps").register(meterRegistry);
+		this.lostRuns = Counter.builder("coupon.expiry.sweep.runs").tag("result", "lost")
+				.description("Scheduled expiry sweeps").register(meterRegistry);
+		this.failedRuns = Counter.builder("coupon.expiry.sweep.runs").tag("result", "failed")
+				.description("Scheduled expiry sweeps").register(meterRegistry);
+	}
+
+	/**
+	 * Deactivates the coupons expired by now, if this node holds the lease.
+	 */
+	@Scheduled(fixedDelayString = "${coupon.expiry.sweep.interval:PT1M}", initialDelayString = "${coupon.expiry.sweep.interval:PT1M}")
+	public void sweep() {
+		try {
+			if (!leaseManager.tryAcquire(LEASE, leaseTtl)) {
+				standbyRuns.increment();
+				return;
+			}
+		} catch (DataAccessException ex) {
+			failedRuns.increment();
+			log.error("Expiry sweep could not check its lease: {}", ex.getMessage());
+			return;
+		}
+
+		long start = System.nanoTime();
+		LocalDateTime now = LocalDateTime.now();
+		int deactivated = 0;
+		int skipped = 0;
+		int batches = 0;
+		try {
+			List<ExpiredCoupon> batch = jdbcTemplate.query(FIRST_BATCH, Map.of("now", now, "limit", batchSize),
+					EXPIRED_COUPON);
+			while (!batch.isEmpty()) {
+				List<Long> ids = batch.stream().map(ExpiredCoupon::id).toList();
+				BatchOutcome outcome = transactionTemplate.execute(status -> deactivate(ids, now));
+				couponCache.invalidateAll(outcome.deactivated());
+				couponCache.invalidateAll(outcome.deleted());
+				deactivated += outcome.deactivated().size();
+				skipped += ids.size() - outcome.deactivated().size();
+				batches++;
+
+				if (batch.size() < batchSize) {
+					break;
+				}
+				if (!leaseManager.tryAcquire(LEASE, leaseTtl)) {
+					log.warn("Expiry sweep lost its lease after {} batches; stopping", batches);
+					lostRuns.increment();
+					return;
+				}
+				ExpiredCoupon last = batch.get(batch.size() - 1);
+				batch = jdbcTemplate.query(NEXT_BATCH, Map.of("now", now, "afterExpiration", last.expirationDate(),
+						"afterId", last.id(), "limit", batchSize), EXPIRED_COUPON);
+			}
+			leaderRuns.increment();
+		} catch (DataAccessException ex) {
+			failedRuns.increment();
+			log.error("Expiry sweep failed after {} batches: {}", batches, ex.getMessage());
+		} finally {
+			long elapsedNanos = System.nanoTime() - start;
+			duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+			deactivatedPerRun.record(deactivated);
+			skippedPerRun.record(skipped);
+			if (deactivated > 0 || skipped > 0) {
+				log.info("Expiry sweep deactivated {} coupons in {} batches ({} skipped) in {} ms", deactivated,
+						batches, skipped, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+			}
+		}
+	}
+
+	/**
+	 * Deactivates the batch in the current transaction, deleting the inactive
+	 * twins that would collide with it, and records the changes.
+	 *
+	 * @return the IDs of the deactivated coupons and of the deleted twins
+	 */
+	private BatchOutcome deactivate(List<Long> ids, LocalDateTime now) {
+		List<Long> expired = jdbcTemplate.queryForList(LOCK_EXPIRED, Map.of("now", now, "ids", ids), Long.class);
+		if (expired.isEmpty()) {
+			return new BatchOutcome(List.of(), List.of());
+		}
+		List<Long> twins = jdbcTemplate.queryForList(INACTIVE_TWINS, Map.of("ids", expired), Long.class);
+		if (!twins.isEmpty()) {
+			jdbcTemplate.update(DELETE_TWINS, Map.of("twins", twins));
+			log.debug("Deleted {} inactive coupons in the way of expired ones", twins.size());
+		}
+		jdbcTemplate.update(DEACTIVATE, Map.of("now", now, "ids", expired));
+
+		List<Long> deactivated = jdbcTemplate.queryForList(DEACTIVATED, Map.of("ids", expired), Long.class);
+		List<Long> changed = new ArrayList<>(deactivated);
+		changed.addAll(twins);
+		couponChangeLog.record(changed);
+		return new BatchOutcome(deactivated, twins);
+	}
+
+	/**
+	 * Hands the lease over on shutdown instead of letting it lapse.
+	 */
+	@PreDestroy
+	public void releaseLease() {
+		try {
+			leaseManager.release(LEASE);
+		} catch (DataAccessException ex) {
+			log.debug("Could not release lease {}: {}", LEASE, ex.getMessage());
+		}
+	}
+
+	private record ExpiredCoupon(long id, LocalDateTime expirationDate) {
+	}
+
+	private record BatchOutcome(List<Long> deactivated, List<Long> deleted) {
+	}
+}
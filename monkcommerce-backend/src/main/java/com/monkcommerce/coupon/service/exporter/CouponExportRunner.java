@@ -0,0 +1,89 @@
+package com.monkcommerce.coupon.service.exporter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.CouponService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exports coupons to a file from the command line and exits.
+ * <p>
+ * Active when {@code coupon.export.file} is set, e.g.
+ * {@code java -jar coupon.jar --spring.main.web-application-type=none --coupon.export.file=coupons.ndjson.gz}.
+ * Files ending in {@code .gz} are gzip-compressed. Optional filters:
+ * {@code coupon.export.type}, {@code coupon.export.is-active},
+ * {@code coupon.export.include-expired}, {@code coupon.export.created-from}
+ * and {@code coupon.export.created-to} (ISO date-times). The dump is written
+ * to {@code <file>.part} and renamed when complete, so a loader never picks
+ * up a partial file. A failed export fails the startup with a non-zero exit
+ * code.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.export.file")
+@Slf4j
+public class CouponExportRunner implements ApplicationRunner {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final CouponService couponService;
+	private final ApplicationContext applicationContext;
+	private final Path file;
+	private final CouponType type;
+	private final Boolean isActive;
+	private final Boolean includeExpired;
+	private final LocalDateTime createdFrom;
+	private final LocalDateTime createdTo;
+
+	public CouponExportRunner(CouponService couponService, ApplicationContext applicationContext,
+			@Value("${coupon.export.file}") Path file, @Value("${coupon.export.type:}") String type,
+			@Value("${coupon.export.is-active:#{null}}") Boolean isActive,
+			@Value("${coupon.export.include-expired:#{null}}") Boolean includeExpired,
+			@Value("${coupon.export.created-from:}") String createdFrom,
+			@Value("${coupon.export.created-to:}") String createdTo) {
+		this.couponService = couponService;
+		this.applicationContext = applicationContext;
+		this.file = file;
+		this.type = type.isBlank() ? null : CouponType.fromString(type);
+		this.isActive = isActive;
+		this.includeExpired = includeExpired;
+		this.createdFrom = createdFrom.isBlank() ? null : LocalDateTime.parse(createdFrom);
+		this.createdTo = createdTo.isBlank() ? null : LocalDateTime.parse(createdTo);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		Path part = file.resolveSibling(file.getFileName() + ".part");
+		log.info("Exporting coupons to {}", file);
+		long written;
+		try (OutputStream out = open(part)) {
+			written = couponService.exportCoupons(type, isActive, includeExpired, createdFrom, createdTo, out);
+		}
+		Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		log.info("Exported {} coupons to {}", written, file);
+		System.exit(SpringApplication.exit(applicationContext));
+	}
+
+	private OutputStream open(Path part) throws IOException {
+		OutputStream out = Files.newOutputStream(part);
+		return file.getFileName().toString().endsWith(".gz") ? new GZIPOutputStream(out, BUFFER_SIZE)
+				: new BufferedOutputStream(out, BUFFER_SIZE);
+	}
+}
@@ -0,0 +1,101 @@
+package com.monkcommerce.coupon.service.exporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.repository.CouponRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes coupons as newline-delimited JSON, straight from a database cursor.
+ * <p>
+ * The coupons matching a {@link Specification} are read in ID order through a
+ * forward-only result stream, {@link CouponRepository#STREAM_FETCH_SIZE} rows
+ * per round trip, as read-only entities. Each coupon is serialized with the
+ * application {@link ObjectMapper} (the same JSON as {@code GET /coupons}) and
+ * detached right away, so neither the persistence context nor the output
+ * buffer grows with the number of coupons. The coupon caches are bypassed.
+ * </p>
+ * <p>
+ * Must be called inside a read-only transaction.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CouponExporter {
+
+	private final EntityManager entityManager;
+	private final ObjectMapper objectMapper;
+	private final ObjectWriter couponWriter;
+
+	public CouponExporter(EntityManager entityManager, ObjectMapper objectMapper) {
+		this.entityManager = entityManager;
+		this.objectMapper = objectMapper;
+		// Flush once at the end (or when the generator buffer is full), not per coupon
+		this.couponWriter = objectMapper.writerFor(Coupon.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	/**
+	 * Writes every coupon matching {@code filter}, one JSON object per line,
+	 * ordered by ID.
+	 *
+	 * @param filter the coupons to export
+	 * @param out    the stream to write to; flushed, not closed
+	 * @return the number of coupons written
+	 * @throws IOException if writing to {@code out} fails
+	 */
+	public long export(Specification<Coupon> filter, OutputStream out) throws IOException {
+		long start = System.nanoTime();
+		long written = 0;
+
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Coupon> query = criteriaBuilder.createQuery(Coupon.class);
+		Root<Coupon> root = query.from(Coupon.class);
+		Predicate predicate = filter.toPredicate(root, query, criteriaBuilder);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+				Stream<Coupon> coupons = entityManager.createQuery(query)
+						.setHint(HibernateHints.HINT_FETCH_SIZE, CouponRepository.STREAM_FETCH_SIZE)
+						.setHint(HibernateHints.HINT_READ_ONLY, true).getResultStream()) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(null);
+			Iterator<Coupon> iterator = coupons.iterator();
+			while (iterator.hasNext()) {
+				Coupon coupon = iterator.next();
+				couponWriter.writeValue(generator, coupon);
+				generator.writeRaw('\n');
+				entityManager.detach(coupon);
+				written++;
+			}
+			generator.flush();
+		}
+
+		long elapsedNanos = System.nanoTime() - start;
+		log.info("Exported {} coupons in {} ms ({} rows/s)", written, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+				written * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1));
+		return written;
+	}
+}
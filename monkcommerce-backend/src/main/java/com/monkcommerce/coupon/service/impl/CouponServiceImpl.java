@@ -1,26 +1,72 @@
 package com.monkcommerce.coupon.service.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.monkcommerce.coupon.dto.request.CartDto;
 import com.monkcommerce.coupon.dto.request.CreateCouponDto;
 import com.monkcommerce.coupon.dto.request.UpdateCouponDto;
 import com.monkcommerce.coupon.dto.response.ApplicableCouponDto;
+import com.monkcommerce.coupon.dto.response.CartEvaluationResultDto;
+import com.monkcommerce.coupon.dto.response.CouponCombinationDto;
+import com.monkcommerce.coupon.dto.response.CouponCreationResultDto;
+import com.monkcommerce.coupon.dto.response.CouponJsonPage;
+import com.monkcommerce.coupon.dto.response.CouponSliceDto;
+import com.monkcommerce.coupon.dto.response.ImportResultDto;
 import com.monkcommerce.coupon.entity.Cart;
 import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
 import com.monkcommerce.coupon.enums.CouponType;
 import com.monkcommerce.coupon.exception.CouponNotFoundException;
 import com.monkcommerce.coupon.exception.InvalidCouponException;
 import com.monkcommerce.coupon.repository.CouponRepository;
+import com.monkcommerce.coupon.repository.CouponVersion;
+import com.monkcommerce.coupon.repository.specification.CouponSpecifications;
 import com.monkcommerce.coupon.service.CouponService;
+import com.monkcommerce.coupon.service.bulk.CouponBulkWriter;
+import com.monkcommerce.coupon.service.bulk.CouponFactory;
+import com.monkcommerce.coupon.service.cache.CouponCache;
+import com.monkcommerce.coupon.service.cache.CouponJsonCache;
+import com.monkcommerce.coupon.service.evaluation.CouponEvaluator;
+import com.monkcommerce.coupon.service.exporter.CouponExporter;
+import com.monkcommerce.coupon.service.importer.CouponImporter;
+import com.monkcommerce.coupon.service.importer.ImportFormat;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.rule.CouponRuleCompiler;
+import com.monkcommerce.coupon.service.snapshot.CouponChangedEvent;
+import com.monkcommerce.coupon.service.snapshot.CouponSnapshot;
+import com.monkcommerce.coupon.service.snapshot.CouponSnapshotManager;
+import com.monkcommerce.coupon.service.stacking.CouponStackingOptimizer;
+import com.monkcommerce.coupon.service.stacking.StackingCandidate;
+import com.monkcommerce.coupon.service.stacking.StackingResult;
 import com.monkcommerce.coupon.service.strategy.CouponStrategy;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,6 +77,20 @@ import lombok.extern.slf4j.Slf4j;
  * Business logic for applying coupons is delegated to different
  * {@link CouponStrategy} implementations based on {@link CouponType}.
  * </p>
+ * <p>
+ * Evaluation ({@link #getApplicableCoupons(EvaluationCart)} and
+ * {@link #applyCoupon(Long, EvaluationCart)}) reads from the in-memory
+ * {@link CouponSnapshotManager} and does not touch the database. Every
+ * mutation publishes a {@link CouponChangedEvent} that is logged to the
+ * coupon change log in the mutating transaction, for the other nodes, and
+ * applied to the local snapshot once it commits. Only coupons that can match the
+ * cart's products and total are evaluated (see {@link CouponSnapshot#getCandidateRules}).
+ * </p>
+ * <p>
+ * Batch evaluation ({@link #getApplicableCouponsBatch(List)}) evaluates all
+ * carts against one snapshot, in parallel on the {@link CouponEvaluator}
+ * pool, and isolates failures per cart.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
@@ -38,49 +98,215 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class CouponServiceImpl implements CouponService {
 
+    /**
+     * Upper limit for {@code k} in {@link #getTopCoupons(EvaluationCart, int)}.
+     */
+    static final int MAX_TOP_COUPONS = 50;
+
+    /**
+     * Upper limit for the number of carts in
+     * {@link #getApplicableCouponsBatch(List)}.
+     */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Upper limit for the number of coupons in {@link #createCoupons(List)}.
+     */
+    static final int MAX_BULK_CREATE_SIZE = 100_000;
+
+    /**
+     * Number of coupons inserted per transaction by {@link #createCoupons(List)}.
+     */
+    private static final int BULK_CREATE_CHUNK_SIZE = 1000;
+
+    /**
+     * Number of coupon IDs per query when loading coupons missing from the
+     * {@link CouponJsonCache}.
+     */
+    private static final int JSON_LOAD_CHUNK_SIZE = 500;
+
+    /**
+     * Upper limit for {@code limit} in {@link #getCouponsJsonPage(long, int)}.
+     */
+    static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Upper limit for the page size in
+     * {@link #searchCoupons(String, Boolean, Boolean, LocalDateTime, LocalDateTime, Pageable)}.
+     */
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    /**
+     * Properties a coupon search may be sorted by; each is backed by an index.
+     */
+    static final Set<String> SEARCH_SORT_PROPERTIES = Set.of("id", "type", "isActive", "expirationDate");
+
+    /**
+     * Orders applicable coupons from best to worst: highest discount first, ties
+     * broken by ascending coupon ID.
+     */
+    private static final Comparator<ApplicableCouponDto> BEST_FIRST = Comparator
+            .comparingLong(ApplicableCouponDto::getDiscount).reversed()
+            .thenComparing(ApplicableCouponDto::getCouponId);
+
     private final CouponRepository couponRepository;
     private final Map<CouponType, CouponStrategy> couponStrategies;
+    private final CouponSnapshotManager couponSnapshotManager;
+    private final CouponRuleCompiler couponRuleCompiler;
+    private final CouponStackingOptimizer couponStackingOptimizer;
+    private final CouponEvaluator couponEvaluator;
+    private final CouponJsonCache couponJsonCache;
+    private final CouponCache couponCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CouponFactory couponFactory;
+    private final CouponBulkWriter couponBulkWriter;
+    private final CouponImporter couponImporter;
+    private final CouponExporter couponExporter;
+    private final EntityManager entityManager;
 
     @Override
     public Coupon createCoupon(CreateCouponDto createCouponDto) {
         log.info("Creating coupon of type: {}", createCouponDto.getType());
-        Coupon coupon = new Coupon();
-        coupon.setType(CouponType.fromString(createCouponDto.getType()));
-        coupon.setDetails(convertDetailsToStringMap(createCouponDto.getDetails()));
-        coupon.setExpirationDate(createCouponDto.getExpirationDate());
-        coupon.setIsActive(true);
-        coupon.setCreatedAt(LocalDateTime.now());
-        coupon.setUpdatedAt(LocalDateTime.now());
+        Coupon coupon = couponFactory.create(createCouponDto);
+        Coupon savedCoupon = couponRepository.save(coupon);
+        publishSaved(savedCoupon);
+        return savedCoupon;
+    }
 
-        return couponRepository.save(coupon);
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CouponCreationResultDto> createCoupons(List<CreateCouponDto> createCouponDtos) {
+        if (createCouponDtos == null || createCouponDtos.isEmpty()
+                || createCouponDtos.size() > MAX_BULK_CREATE_SIZE) {
+            throw new IllegalArgumentException(
+                    "Bulk request must contain between 1 and " + MAX_BULK_CREATE_SIZE + " coupons");
+        }
+        log.info("Creating {} coupons in bulk", createCouponDtos.size());
+        long start = System.nanoTime();
+
+        // Validate everything before the first insert
+        CouponCreationResultDto[] results = new CouponCreationResultDto[createCouponDtos.size()];
+        Coupon[] coupons = new Coupon[createCouponDtos.size()];
+        List<Integer> valid = new ArrayList<>(createCouponDtos.size());
+        for (int i = 0; i < createCouponDtos.size(); i++) {
+            try {
+                coupons[i] = couponFactory.create(couponFactory.validate(createCouponDtos.get(i)));
+                valid.add(i);
+            } catch (IllegalArgumentException | InvalidCouponException ex) {
+                results[i] = CouponCreationResultDto.failure(i, ex.getMessage());
+            }
+        }
+
+        int created = 0;
+        for (int from = 0; from < valid.size(); from += BULK_CREATE_CHUNK_SIZE) {
+            List<Integer> indexes = valid.subList(from, Math.min(from + BULK_CREATE_CHUNK_SIZE, valid.size()));
+            String[] errors = couponBulkWriter.insert(indexes.stream().map(index -> coupons[index]).toList(), null);
+            for (int i = 0; i < errors.length; i++) {
+                int index = indexes.get(i);
+                if (errors[i] == null) {
+                    results[index] = CouponCreationResultDto.success(index, coupons[index].getId());
+                    created++;
+                } else {
+                    results[index] = CouponCreationResultDto.failure(index, errors[i]);
+                }
+            }
+        }
+        if (created > 0) {
+            // One reload instead of one snapshot copy per created coupon
+            couponSnapshotManager.refresh();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        log.info("Created {} of {} coupons in {} ms ({} inserts/s)", created, createCouponDtos.size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                created * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1));
+        return List.of(results);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<Coupon> getAllCoupons() {
-        log.info("Fetching all coupons");
-        return couponRepository.findAll();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResultDto importCoupons(String importId, String format, InputStream in) throws IOException {
+        ImportResultDto result = couponImporter.importCoupons(importId, ImportFormat.fromString(format), in);
+        if (result.getRowsRead() > 0) {
+            couponSnapshotManager.refresh();
+        }
+        return result;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Coupon getCouponById(Long id) {
         log.info("Fetching coupon by id: {}", id);
-        return couponRepository.findById(id)
-                .orElseThrow(() -> new CouponNotFoundException("Coupon not found with id: " + id));
+        Coupon coupon = couponCache.get(id, key -> couponRepository.findById(key).orElse(null));
+        if (coupon == null) {
+            throw new CouponNotFoundException("Coupon not found with id: " + id);
+        }
+        return coupon;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CouponJsonPage getCouponsJsonPage(long afterId, int limit) {
+        log.info("Fetching coupons after id {} (limit {})", afterId, limit);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<CouponVersion> versions = couponRepository.findVersionsAfter(afterId, Limit.of(limit));
+        Long nextAfterId = versions.size() == limit ? versions.get(versions.size() - 1).getId() : null;
+        return new CouponJsonPage(CouponJsonCache.toJsonArray(loadCouponJson(versions)), nextAfterId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeAllCouponsJson(OutputStream out) throws IOException {
+        log.info("Fetching all coupons as JSON");
+        long start = System.nanoTime();
+        int written = writeCouponsJson(0, true, out);
+        log.debug("Wrote {} coupons in {} ms", written, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamCouponsJson(long afterId, OutputStream out) throws IOException {
+        log.info("Streaming coupons after id {}", afterId);
+        long start = System.nanoTime();
+        int written = writeCouponsJson(afterId, false, out);
+        log.debug("Streamed {} coupons in {} ms", written,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCoupons(CouponType type, Boolean isActive, Boolean includeExpired, LocalDateTime createdFrom,
+            LocalDateTime createdTo, OutputStream out) throws IOException {
+        log.info("Exporting coupons: type={}, isActive={}, includeExpired={}, created=[{}, {}]", type, isActive,
+                includeExpired, createdFrom, createdTo);
+        return couponExporter.export(
+                CouponSpecifications.buildCouponFilter(type, isActive, includeExpired, createdFrom, createdTo), out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public byte[] getCouponJsonById(Long id) {
+        log.info("Fetching coupon JSON by id: {}", id);
+        Coupon coupon = getCouponById(id);
+        byte[] json = couponJsonCache.get(id, coupon.getVersion());
+        return json != null ? json : couponJsonCache.put(coupon);
     }
 
     @Override
     public Coupon updateCoupon(Long id, UpdateCouponDto updateCouponDto) {
         log.info("Updating coupon with id: {}", id);
 
-        Coupon existingCoupon = getCouponById(id);
+        // Load a managed instance; cached coupons are shared and must not be modified
+        Coupon existingCoupon = couponRepository.findById(id)
+                .orElseThrow(() -> new CouponNotFoundException("Coupon not found with id: " + id));
 
         Optional.ofNullable(updateCouponDto.getType())
                 .ifPresent(type -> existingCoupon.setType(CouponType.fromString(type)));
 
         Optional.ofNullable(updateCouponDto.getDetails())
-                .ifPresent(details -> existingCoupon.setDetails(convertDetailsToStringMap(details)));
+                .ifPresent(details -> existingCoupon.setDetails(couponFactory.toDetails(details)));
 
         Optional.ofNullable(updateCouponDto.getExpirationDate())
                 .ifPresent(existingCoupon::setExpirationDate);
@@ -88,9 +314,14 @@ public class CouponServiceImpl implements CouponService {
         Optional.ofNullable(updateCouponDto.getIsActive())
                 .ifPresent(existingCoupon::setIsActive);
 
+        Optional.ofNullable(updateCouponDto.getIsStackable())
+                .ifPresent(existingCoupon::setIsStackable);
+
         existingCoupon.setUpdatedAt(LocalDateTime.now());
 
-        return couponRepository.save(existingCoupon);
+        Coupon savedCoupon = couponRepository.save(existingCoupon);
+        publishSaved(savedCoupon);
+        return savedCoupon;
     }
 
     @Override
@@ -102,57 +333,276 @@ public class CouponServiceImpl implements CouponService {
                         couponRepository::delete,
                         () -> { throw new CouponNotFoundException("Coupon not found with id: " + id); }
                 );
+        eventPublisher.publishEvent(CouponChangedEvent.removed(id));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<ApplicableCouponDto> getApplicableCoupons(Cart cart) {
-        log.info("Finding applicable coupons for cart with {} items", cart.getItems().size());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ApplicableCouponDto> getApplicableCoupons(EvaluationCart cart) {
+        log.info("Finding applicable coupons for cart with {} items", cart.getLineCount());
+        return findApplicableCoupons(couponSnapshotManager.current(), cart);
+    }
 
-        return couponRepository.findActiveAndNotExpired(LocalDateTime.now())
-                .stream()
-                .map(coupon -> {
-                    CouponStrategy strategy = couponStrategies.get(coupon.getType());
-                    if (strategy != null && strategy.isApplicable(cart, coupon)) {
-                        double discount = strategy.calculateDiscount(cart, coupon);
-                        return new ApplicableCouponDto(coupon.getId(), coupon.getType().getValue(), discount);
-                    }
-                    return null;
-                })
-                .filter(c -> c != null)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<CartEvaluationResultDto> getApplicableCouponsBatch(List<CartDto> carts) {
+        if (carts == null || carts.isEmpty() || carts.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " carts");
+        }
+        log.info("Finding applicable coupons for a batch of {} carts", carts.size());
+
+        // Every cart of the batch sees the same snapshot
+        CouponSnapshot snapshot = couponSnapshotManager.current();
+        return couponEvaluator.execute(() -> IntStream.range(0, carts.size())
+                .parallel()
+                .mapToObj(i -> evaluateBatchCart(i, carts.get(i), snapshot))
+                .toList());
     }
 
     @Override
-    public Cart applyCoupon(Long couponId, Cart cart) {
-        log.info("Applying coupon {} to cart", couponId);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ApplicableCouponDto> getTopCoupons(EvaluationCart cart, int k) {
+        if (k < 1 || k > MAX_TOP_COUPONS) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_TOP_COUPONS);
+        }
+        log.info("Finding top {} coupons for cart with {} items", k, cart.getLineCount());
 
-        Coupon coupon = couponRepository.findByIdAndIsActiveTrue(couponId)
-                .orElseThrow(() -> new CouponNotFoundException("Active coupon not found with id: " + couponId));
+        // Min-heap on BEST_FIRST: the head is the current k-th best coupon
+        PriorityQueue<ApplicableCouponDto> heap = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+        List<CouponRule> candidates = couponSnapshotManager.current()
+                .getCandidateRules(cart.getProductIds(), cart.getTotalPrice());
+
+        for (CouponRule rule : candidates) {
+            CouponStrategy strategy = couponStrategies.get(rule.getType());
+            if (strategy == null) {
+                continue;
+            }
+            if (heap.size() == k && strategy.maxDiscount(cart, rule) < heap.peek().getDiscount()) {
+                continue;
+            }
+            if (!strategy.isApplicable(cart, rule)) {
+                continue;
+            }
+            ApplicableCouponDto candidate = new ApplicableCouponDto(rule.getCouponId(), rule.getType().getValue(),
+                    strategy.calculateDiscount(cart, rule));
+            if (heap.size() < k) {
+                heap.add(candidate);
+            } else if (BEST_FIRST.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<ApplicableCouponDto> topCoupons = new ArrayList<>(heap);
+        topCoupons.sort(BEST_FIRST);
+        return topCoupons;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CouponCombinationDto getBestCombination(EvaluationCart cart) {
+        log.info("Finding best coupon combination for cart with {} items", cart.getLineCount());
+
+        List<StackingCandidate> candidates = new ArrayList<>();
+        for (CouponRule rule : couponSnapshotManager.current()
+                .getCandidateRules(cart.getProductIds(), cart.getTotalPrice())) {
+            CouponStrategy strategy = couponStrategies.get(rule.getType());
+            if (strategy != null && strategy.isApplicable(cart, rule)) {
+                candidates.add(new StackingCandidate(rule.getCouponId(), rule.getType().getValue(),
+                        strategy.calculateDiscount(cart, rule), rule.isStackable(), strategy.claims(cart, rule)));
+            }
+        }
 
-        if (coupon.getExpirationDate() != null && coupon.getExpirationDate().isBefore(LocalDateTime.now())) {
-            throw new InvalidCouponException("Coupon has expired");
+        StackingResult result = couponStackingOptimizer.optimize(candidates);
+        if (!result.isOptimal()) {
+            log.warn("Coupon stacking search hit its time budget after {} nodes; returning best found",
+                    result.getNodesExplored());
         }
 
-        CouponStrategy strategy = couponStrategies.get(coupon.getType());
+        List<ApplicableCouponDto> coupons = result.getCoupons().stream()
+                .map(c -> new ApplicableCouponDto(c.getCouponId(), c.getType(), c.getDiscount()))
+                .toList();
+        long totalDiscount = Math.min(result.getTotalDiscount(), cart.getTotalPrice());
+        return new CouponCombinationDto(coupons, cart.getTotalPrice(), totalDiscount,
+                cart.getTotalPrice() - totalDiscount, result.isOptimal());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Cart applyCoupon(Long couponId, EvaluationCart cart) {
+        log.info("Applying coupon {} to cart", couponId);
+
+        // Expired coupons are removed from the snapshot when they expire
+        CouponRule rule = couponSnapshotManager.current().find(couponId);
+        if (rule == null) {
+            throw new CouponNotFoundException("Active coupon not found with id: " + couponId);
+        }
+
+        CouponStrategy strategy = couponStrategies.get(rule.getType());
         if (strategy == null) {
-            throw new InvalidCouponException("Unsupported coupon type: " + coupon.getType());
+            throw new InvalidCouponException("Unsupported coupon type: " + rule.getType());
         }
 
-        if (!strategy.isApplicable(cart, coupon)) {
+        if (!strategy.isApplicable(cart, rule)) {
             throw new InvalidCouponException("Coupon is not applicable to this cart");
         }
 
-        return strategy.applyCoupon(cart, coupon);
+        return strategy.applyCoupon(cart, rule);
+    }
+
+    /**
+     * Evaluates the snapshot's candidate coupons for the cart, in parallel for
+     * large candidate sets (see {@link CouponEvaluator}).
+     */
+    private List<ApplicableCouponDto> findApplicableCoupons(CouponSnapshot snapshot, EvaluationCart cart) {
+        return couponEvaluator.evaluate(snapshot.getCandidateRules(cart.getProductIds(), cart.getTotalPrice()),
+                cart);
     }
 
     /**
-     * Converts coupon details to a string-based map for persistence.
+     * Evaluates one cart of a batch. A cart that is invalid or fails to evaluate
+     * yields a failure result instead of failing the batch.
      */
-    private Map<String, String> convertDetailsToStringMap(Map<String, Object> details) {
-        return details.entrySet()
-                .stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString()));
+    private CartEvaluationResultDto evaluateBatchCart(int index, CartDto cartDto, CouponSnapshot snapshot) {
+        try {
+            EvaluationCart cart = toEvaluationCart(cartDto);
+            return CartEvaluationResultDto.success(index, findApplicableCoupons(snapshot, cart));
+        } catch (IllegalArgumentException ex) {
+            log.debug("Rejected cart {} of batch: {}", index, ex.getMessage());
+            return CartEvaluationResultDto.failure(index, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Failed to evaluate cart {} of batch", index, ex);
+            return CartEvaluationResultDto.failure(index, "Cart could not be evaluated");
+        }
+    }
+
+    /**
+     * Validates a batch cart and converts it into an {@link EvaluationCart}.
+     * Batch carts are not covered by {@code @Valid}, so the checks are done here
+     * to reject a single cart with a readable message.
+     */
+    private EvaluationCart toEvaluationCart(CartDto cartDto) {
+        if (cartDto == null || cartDto.getItems() == null || cartDto.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Cart items cannot be empty");
+        }
+        EvaluationCart.Builder cart = EvaluationCart.builder(cartDto.getItems().size());
+        for (CartDto.CartItemDto itemDto : cartDto.getItems()) {
+            if (itemDto == null || itemDto.getProductId() == null || itemDto.getQuantity() == null
+                    || itemDto.getPrice() == null) {
+                throw new IllegalArgumentException("Cart item productId, quantity and price are required");
+            }
+            if (itemDto.getQuantity() <= 0 || itemDto.getPrice() < 0) {
+                throw new IllegalArgumentException(
+                        "Invalid quantity or price for product " + itemDto.getProductId());
+            }
+            cart.add(itemDto.getProductId(), itemDto.getQuantity(), itemDto.getPrice());
+        }
+        try {
+            return cart.build();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Cart quantities or totals are too large");
+        }
+    }
+
+    /**
+     * Returns the JSON of each coupon, in the order of {@code versions}.
+     * <p>
+     * Cached JSON is used when the version matches; the other coupons are loaded
+     * in chunks of {@link #JSON_LOAD_CHUNK_SIZE} and serialized without being
+     * cached, so listing the catalog does not fill the cache.
+     * Coupons deleted since the versions were read are {@code null}.
+     * </p>
+     */
+    private byte[][] loadCouponJson(List<CouponVersion> versions) {
+        byte[][] elements = new byte[versions.size()][];
+        Map<Long, Integer> missing = new HashMap<>();
+        for (int i = 0; i < versions.size(); i++) {
+            CouponVersion version = versions.get(i);
+            elements[i] = couponJsonCache.get(version.getId(), version.getVersion());
+            if (elements[i] == null) {
+                missing.put(version.getId(), i);
+            }
+        }
+
+        List<Long> missingIds = new ArrayList<>(missing.keySet());
+        for (int from = 0; from < missingIds.size(); from += JSON_LOAD_CHUNK_SIZE) {
+            List<Long> chunk = missingIds.subList(from, Math.min(from + JSON_LOAD_CHUNK_SIZE, missingIds.size()));
+            for (Coupon coupon : couponRepository.findAllById(chunk)) {
+                elements[missing.get(coupon.getId())] = couponJsonCache.serialize(coupon);
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Writes the coupons with an ID greater than {@code afterId}, ordered by ID,
+     * read through a database cursor and loaded in chunks of
+     * {@link #JSON_LOAD_CHUNK_SIZE}.
+     *
+     * @param array {@code true} for one JSON array, {@code false} for one JSON
+     *              object per line
+     * @return the number of coupons written
+     */
+    private int writeCouponsJson(long afterId, boolean array, OutputStream out) throws IOException {
+        int written = 0;
+        List<CouponVersion> chunk = new ArrayList<>(JSON_LOAD_CHUNK_SIZE);
+        try (Stream<CouponVersion> versions = couponRepository.streamVersionsAfter(afterId)) {
+            Iterator<CouponVersion> iterator = versions.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == JSON_LOAD_CHUNK_SIZE || !iterator.hasNext()) {
+                    written = writeJsonElements(loadCouponJson(chunk), array, written, out);
+                    chunk.clear();
+                    // Loaded coupons have been written out; keep the persistence context empty
+                    entityManager.clear();
+                }
+            }
+        }
+        if (array) {
+            if (written == 0) {
+                out.write('[');
+            }
+            out.write(']');
+        }
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Writes JSON documents as array elements or lines, skipping {@code null}
+     * elements.
+     *
+     * @param written the number of elements written before
+     * @return the number of elements written, including {@code written}
+     */
+    private static int writeJsonElements(byte[][] elements, boolean array, int written, OutputStream out)
+            throws IOException {
+        for (byte[] element : elements) {
+            if (element == null) {
+                continue;
+            }
+            if (array) {
+                out.write(written == 0 ? '[' : ',');
+            }
+            out.write(element);
+            if (!array) {
+                out.write('\n');
+            }
+            written++;
+        }
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Compiles the saved coupon and publishes it for the in-memory snapshot.
+     * Inactive coupons are published as removals. Malformed details throw an
+     * {@link InvalidCouponException} and roll back the transaction.
+     */
+    private void publishSaved(Coupon coupon) {
+        CouponRule rule = couponRuleCompiler.compile(coupon);
+        eventPublisher.publishEvent(CouponChangedEvent.saved(coupon.getId(),
+                Boolean.TRUE.equals(coupon.getIsActive()) ? rule : null));
     }
 
     @Override
@@ -168,4 +618,29 @@ public class CouponServiceImpl implements CouponService {
         LocalDateTime futureDate = now.plusDays(days);
         return couponRepository.findCouponsExpiringWithin(now, futureDate);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CouponSliceDto searchCoupons(String type, Boolean isActive, Boolean includeExpired,
+            LocalDateTime createdFrom, LocalDateTime createdTo, Pageable pageable) {
+        log.info("Searching coupons: type={}, isActive={}, includeExpired={}, created=[{}, {}], {}", type, isActive,
+                includeExpired, createdFrom, createdTo, pageable);
+        if (pageable.getPageSize() > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SEARCH_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort by '" + order.getProperty() + "'; allowed: "
+                        + SEARCH_SORT_PROPERTIES);
+            }
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") == null ? pageable.getSort().and(Sort.by("id"))
+                : pageable.getSort();
+        Pageable request = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+
+        Specification<Coupon> filter = CouponSpecifications.buildCouponFilter(
+                type == null ? null : CouponType.fromString(type), isActive, includeExpired, createdFrom, createdTo);
+        Slice<Coupon> slice = couponRepository.findBy(filter, query -> query.slice(request));
+        return new CouponSliceDto(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext());
+    }
 }
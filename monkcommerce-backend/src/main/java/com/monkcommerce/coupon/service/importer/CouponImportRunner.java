@@ -0,0 +1,70 @@
+package com.monkcommerce.coupon.service.importer;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.dto.response.ImportResultDto;
+import com.monkcommerce.coupon.service.CouponService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports a coupon file from the command line and exits.
+ * <p>
+ * Active when {@code coupon.import.file} is set, e.g.
+ * {@code java -jar coupon.jar --spring.main.web-application-type=none --coupon.import.file=coupons.ndjson.gz}.
+ * Files ending in {@code .gz} are decompressed. The format defaults to
+ * {@code csv} for {@code .csv} / {@code .csv.gz} files and {@code ndjson}
+ * otherwise ({@code coupon.import.format}); the import ID defaults to the file
+ * name ({@code coupon.import.id}), so running the same command again resumes
+ * a failed import. A failed import fails the startup with a non-zero exit
+ * code.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.import.file")
+@Slf4j
+public class CouponImportRunner implements ApplicationRunner {
+
+	private final CouponService couponService;
+	private final ApplicationContext applicationContext;
+	private final Path file;
+	private final String format;
+	private final String importId;
+
+	public CouponImportRunner(CouponService couponService, ApplicationContext applicationContext,
+			@Value("${coupon.import.file}") Path file, @Value("${coupon.import.format:}") String format,
+			@Value("${coupon.import.id:}") String importId) {
+		String name = file.getFileName().toString();
+		String uncompressed = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+		this.couponService = couponService;
+		this.applicationContext = applicationContext;
+		this.file = file;
+		this.format = !format.isBlank() ? format
+				: uncompressed.endsWith(".csv") ? ImportFormat.CSV.getValue() : ImportFormat.NDJSON.getValue();
+		this.importId = !importId.isBlank() ? importId : name;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		log.info("Importing {} as {} (import ID {})", file, format, importId);
+		InputStream in = Files.newInputStream(file);
+		if (file.getFileName().toString().endsWith(".gz")) {
+			in = new GZIPInputStream(in);
+		}
+		ImportResultDto result = couponService.importCoupons(importId, format, in);
+		log.info("Imported {}: {} coupons created, {} rows rejected", file, result.getImported(),
+				result.getRejected());
+		System.exit(SpringApplication.exit(applicationContext));
+	}
+}
@@ -0,0 +1,281 @@
+package com.monkcommerce.coupon.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monkcommerce.coupon.dto.response.ImportRejectionDto;
+import com.monkcommerce.coupon.dto.response.ImportResultDto;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.ImportCheckpoint;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.repository.ImportCheckpointRepository;
+import com.monkcommerce.coupon.service.bulk.CouponBulkWriter;
+import com.monkcommerce.coupon.service.bulk.CouponFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Streams coupons from an NDJSON or CSV file into the database.
+ * <p>
+ * Rows are read one at a time and validated like
+ * {@code POST /api/v1/coupons/bulk}; valid coupons are collected into batches
+ * of {@code coupon.import.batch-size} and written by the
+ * {@link CouponBulkWriter}, so memory use does not grow with the file. Each
+ * transaction also stores an {@link ImportCheckpoint} with the last row it
+ * covers. Repeating a failed import with the same ID skips the rows up to the
+ * checkpoint, so no coupon is created twice.
+ * </p>
+ * <p>
+ * Progress (rows read, imported, rejected, rows/s) is logged every
+ * {@code coupon.import.progress-interval}; the first rejected rows are logged
+ * individually and returned with the result. Exposes the
+ * {@code coupon.import.rows} counter, tagged
+ * {@code result=imported|rejected}.
+ * </p>
+ * <p>
+ * The caller is responsible for reloading the coupon snapshot afterwards.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CouponImporter {
+
+	/**
+	 * Maximum number of rejected rows logged and returned per import attempt;
+	 * further rejections are only counted.
+	 */
+	static final int MAX_REPORTED_REJECTIONS = 100;
+
+	/**
+	 * Maximum length of an import ID.
+	 */
+	static final int MAX_IMPORT_ID_LENGTH = 200;
+
+	private final CouponFactory couponFactory;
+	private final CouponBulkWriter couponBulkWriter;
+	private final ImportCheckpointRepository checkpointRepository;
+	private final ObjectMapper objectMapper;
+	private final int batchSize;
+	private final long progressIntervalNanos;
+	private final Counter importedRows;
+	private final Counter rejectedRows;
+	private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+	public CouponImporter(CouponFactory couponFactory, CouponBulkWriter couponBulkWriter,
+			ImportCheckpointRepository checkpointRepository, ObjectMapper objectMapper,
+			@Value("${coupon.import.batch-size:1000}") int batchSize,
+			@Value("${coupon.import.progress-interval:PT10S}") Duration progressInterval,
+			MeterRegistry meterRegistry) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("coupon.import.batch-size must be at least 1");
+		}
+		this.couponFactory = couponFactory;
+		this.couponBulkWriter = couponBulkWriter;
+		this.checkpointRepository = checkpointRepository;
+		this.objectMapper = objectMapper;
+		this.batchSize = batchSize;
+		this.progressIntervalNanos = progressInterval.toNanos();
+		this.importedRows = Counter.builder("coupon.import.rows").tag("result", "imported")
+				.description("Rows processed by coupon imports").register(meterRegistry);
+		this.rejectedRows = Counter.builder("coupon.import.rows").tag("result", "rejected")
+				.description("Rows processed by coupon imports").register(meterRegistry);
+	}
+
+	/**
+	 * Imports the coupons in {@code in}, resuming after the checkpoint of
+	 * {@code importId} if there is one.
+	 *
+	 * @param importId identifies the file across attempts
+	 * @param format   the file format
+	 * @param in       the file content, UTF-8; closed when done
+	 * @return the outcome of this attempt
+	 * @throws IllegalArgumentException if the import ID is invalid or already
+	 *                                  running, or the CSV header is malformed
+	 * @throws IOException              if reading {@code in} fails; rows up to
+	 *                                  the last checkpoint stay imported
+	 */
+	public ImportResultDto importCoupons(String importId, ImportFormat format, InputStream in) throws IOException {
+		if (importId == null || importId.isBlank() || importId.length() > MAX_IMPORT_ID_LENGTH) {
+			throw new IllegalArgumentException(
+					"importId must be non-blank and at most " + MAX_IMPORT_ID_LENGTH + " characters");
+		}
+		if (!running.add(importId)) {
+			throw new IllegalArgumentException("Import " + importId + " is already running");
+		}
+		try (CouponRowReader reader = CouponRowReader.open(format,
+				new InputStreamReader(in, StandardCharsets.UTF_8), objectMapper)) {
+			ImportCheckpoint checkpoint = checkpointRepository.findById(importId)
+					.orElseGet(() -> new ImportCheckpoint(importId, 0, 0, 0));
+			ImportRun run = new ImportRun(checkpoint);
+			if (checkpoint.getLastRow() > 0) {
+				log.info("Resuming import {} after row {} ({} imported, {} rejected so far)", importId,
+						checkpoint.getLastRow(), checkpoint.getImported(), checkpoint.getRejected());
+				long skipped = reader.skipTo(checkpoint.getLastRow());
+				if (skipped < checkpoint.getLastRow()) {
+					log.warn("Import {} has only {} rows but was checkpointed at row {}", importId, skipped,
+							checkpoint.getLastRow());
+				}
+			} else {
+				log.info("Starting {} import {}", format.getValue(), importId);
+			}
+			try {
+				for (CouponRow row = reader.next(); row != null; row = reader.next()) {
+					run.accept(row);
+				}
+				run.flush();
+			} catch (IOException | RuntimeException ex) {
+				log.error("Import {} failed after row {}; repeat it with the same importId to resume", importId,
+						run.lastRow);
+				throw ex;
+			}
+			ImportResultDto result = run.result();
+			log.info("Finished import {}: {} rows read, {} imported, {} rejected in {} ms ({} rows/s)", importId,
+					result.getRowsRead(), result.getImported(), result.getRejected(), result.getElapsedMillis(),
+					result.getRowsPerSecond());
+			return result;
+		} finally {
+			running.remove(importId);
+		}
+	}
+
+	/**
+	 * State of one import attempt, including the batch being collected.
+	 */
+	private final class ImportRun {
+
+		private final String importId;
+		private final long resumedAfterRow;
+		private final long start = System.nanoTime();
+		private final List<ImportRejectionDto> reported = new ArrayList<>();
+		private final List<Coupon> coupons = new ArrayList<>(batchSize);
+		private final List<Long> couponRows = new ArrayList<>(batchSize);
+		private final List<Long> rejectedInBatch = new ArrayList<>();
+
+		/** Totals up to {@link #checkpointRow}. */
+		private long imported;
+		private long rejected;
+		private long checkpointRow;
+		/** Last row read by this attempt. */
+		private long lastRow;
+		private long rowsRead;
+		private long nextProgress;
+
+		ImportRun(ImportCheckpoint checkpoint) {
+			this.importId = checkpoint.getImportId();
+			this.resumedAfterRow = checkpoint.getLastRow();
+			this.imported = checkpoint.getImported();
+			this.rejected = checkpoint.getRejected();
+			this.checkpointRow = checkpoint.getLastRow();
+			this.lastRow = checkpoint.getLastRow();
+			this.nextProgress = start + progressIntervalNanos;
+		}
+
+		void accept(CouponRow row) {
+			rowsRead++;
+			lastRow = row.number();
+			if (row.error() != null) {
+				reject(row.number(), row.error());
+				rejectedInBatch.add(row.number());
+			} else {
+				try {
+					coupons.add(couponFactory.create(couponFactory.validate(row.coupon())));
+					couponRows.add(row.number());
+				} catch (IllegalArgumentException | InvalidCouponException ex) {
+					reject(row.number(), ex.getMessage());
+					rejectedInBatch.add(row.number());
+				}
+			}
+			if (coupons.size() == batchSize) {
+				flush();
+			}
+			if (System.nanoTime() - nextProgress >= 0) {
+				logProgress();
+			}
+		}
+
+		/**
+		 * Writes the collected coupons and moves the checkpoint to the last row
+		 * read.
+		 */
+		void flush() {
+			if (lastRow == checkpointRow) {
+				return;
+			}
+			String[] errors = couponBulkWriter.insert(coupons, (last, written) -> checkpointRepository
+					.save(new ImportCheckpoint(importId, couponRows.get(last), imported + written,
+							rejected + countUpTo(rejectedInBatch, couponRows.get(last)) + (last + 1 - written))));
+
+			long written = 0;
+			for (int i = 0; i < errors.length; i++) {
+				if (errors[i] == null) {
+					written++;
+				} else {
+					reject(couponRows.get(i), errors[i]);
+					rejected++;
+				}
+			}
+			imported += written;
+			rejected += rejectedInBatch.size();
+			importedRows.increment(written);
+			// Also covers rejected rows after the last written coupon
+			checkpointRepository.save(new ImportCheckpoint(importId, lastRow, imported, rejected));
+			checkpointRow = lastRow;
+			coupons.clear();
+			couponRows.clear();
+			rejectedInBatch.clear();
+		}
+
+		private void reject(long row, String error) {
+			rejectedRows.increment();
+			if (reported.size() < MAX_REPORTED_REJECTIONS) {
+				reported.add(new ImportRejectionDto(row, error));
+				log.warn("Import {} rejected row {}: {}", importId, row, error);
+				if (reported.size() == MAX_REPORTED_REJECTIONS) {
+					log.warn("Import {}: further rejected rows are only counted", importId);
+				}
+			}
+		}
+
+		private void logProgress() {
+			long elapsedNanos = System.nanoTime() - start;
+			log.info("Import {}: {} rows read, {} imported, {} rejected ({} rows/s)", importId, rowsRead, imported,
+					rejected + rejectedInBatch.size(), rowsPerSecond(elapsedNanos));
+			nextProgress = System.nanoTime() + progressIntervalNanos;
+		}
+
+		private long rowsPerSecond(long elapsedNanos) {
+			return rowsRead * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedNanos, 1);
+		}
+
+		ImportResultDto result() {
+			long elapsedNanos = System.nanoTime() - start;
+			return new ImportResultDto(importId, resumedAfterRow, rowsRead, imported, rejected,
+					TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond(elapsedNanos), List.copyOf(reported));
+		}
+	}
+
+	/**
+	 * Counts the ascending row numbers that are at most {@code row}.
+	 */
+	private static long countUpTo(List<Long> rows, long row) {
+		int count = 0;
+		while (count < rows.size() && rows.get(count) <= row) {
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,14 @@
+package com.monkcommerce.coupon.service.importer;
+
+import com.monkcommerce.coupon.dto.request.CreateCouponDto;
+
+/**
+ * One row of an import file.
+ *
+ * @param number 1-based row number; for NDJSON the line number, for CSV the
+ *               record number after the header
+ * @param coupon the parsed coupon, or {@code null} if the row is malformed
+ * @param error  why the row could not be parsed, or {@code null}
+ */
+record CouponRow(long number, CreateCouponDto coupon, String error) {
+}
@@ -0,0 +1,46 @@
+package com.monkcommerce.coupon.service.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads the rows of an import file one at a time, so only the current row is
+ * held in memory.
+ * <p>
+ * Rows that cannot be parsed are returned with an error instead of failing the
+ * import; only I/O errors and a malformed CSV header are thrown.
+ * </p>
+ */
+interface CouponRowReader extends Closeable {
+
+	/**
+	 * Returns the next non-blank row.
+	 *
+	 * @return the row, or {@code null} at the end of the input
+	 */
+	CouponRow next() throws IOException;
+
+	/**
+	 * Skips all rows up to and including {@code lastRow} without parsing them.
+	 *
+	 * @param lastRow the number of the last row to skip
+	 * @return the number of the last row skipped (less than {@code lastRow} if
+	 *         the input ended first)
+	 */
+	long skipTo(long lastRow) throws IOException;
+
+	/**
+	 * Creates a reader for the format.
+	 *
+	 * @throws IOException if the CSV header cannot be read
+	 */
+	static CouponRowReader open(ImportFormat format, Reader reader, ObjectMapper objectMapper) throws IOException {
+		return switch (format) {
+		case NDJSON -> new NdjsonCouponRowReader(reader, objectMapper);
+		case CSV -> new CsvCouponRowReader(reader, objectMapper);
+		};
+	}
+}
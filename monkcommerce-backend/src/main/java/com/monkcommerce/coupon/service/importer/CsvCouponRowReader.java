@@ -0,0 +1,156 @@
+package com.monkcommerce.coupon.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.monkcommerce.coupon.dto.request.CreateCouponDto;
+
+/**
+ * Reads coupons from RFC 4180 CSV.
+ * <p>
+ * The first record is a header naming the {@link CreateCouponDto} field of each
+ * column: {@code type} and {@code details} are required,
+ * {@code expirationDate} and {@code isStackable} optional. {@code details}
+ * holds a JSON object, e.g.
+ * {@code cart-wise,"{""threshold"":100,""discount"":10}",2026-12-31T23:59:59,false}.
+ * Empty cells are treated as absent. Row numbers count records after the
+ * header; blank records are skipped.
+ * </p>
+ */
+class CsvCouponRowReader implements CouponRowReader {
+
+	private static final String DETAILS = "details";
+	private static final Set<String> COLUMNS = Set.of("type", DETAILS, "expirationDate", "isStackable");
+
+	private final BufferedReader reader;
+	private final ObjectMapper objectMapper;
+	private final List<String> header;
+	private final StringBuilder field = new StringBuilder();
+	private long record;
+
+	CsvCouponRowReader(Reader reader, ObjectMapper objectMapper) throws IOException {
+		this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+		this.objectMapper = objectMapper;
+		this.header = readRecord();
+		if (header == null) {
+			throw new IllegalArgumentException("CSV header is missing");
+		}
+		for (String column : header) {
+			if (!COLUMNS.contains(column)) {
+				throw new IllegalArgumentException("Unknown CSV column: " + column);
+			}
+		}
+		if (!header.contains("type") || !header.contains(DETAILS)) {
+			throw new IllegalArgumentException("CSV header must contain the columns type and details");
+		}
+	}
+
+	@Override
+	public CouponRow next() throws IOException {
+		List<String> cells;
+		do {
+			cells = readRecord();
+			if (cells == null) {
+				return null;
+			}
+			record++;
+		} while (cells.size() == 1 && cells.get(0).isEmpty());
+		if (cells.size() != header.size()) {
+			return new CouponRow(record, null, "Expected " + header.size() + " columns but found " + cells.size());
+		}
+
+		ObjectNode node = objectMapper.createObjectNode();
+		for (int i = 0; i < cells.size(); i++) {
+			String cell = cells.get(i);
+			if (cell.isEmpty()) {
+				continue;
+			}
+			if (DETAILS.equals(header.get(i))) {
+				try {
+					node.set(DETAILS, objectMapper.readTree(cell));
+				} catch (JsonProcessingException ex) {
+					return new CouponRow(record, null, "Malformed details JSON: " + ex.getOriginalMessage());
+				}
+			} else {
+				node.put(header.get(i), cell);
+			}
+		}
+		try {
+			return new CouponRow(record, objectMapper.treeToValue(node, CreateCouponDto.class), null);
+		} catch (JsonProcessingException ex) {
+			return new CouponRow(record, null, "Malformed row: " + ex.getOriginalMessage());
+		}
+	}
+
+	@Override
+	public long skipTo(long lastRow) throws IOException {
+		while (record < lastRow && readRecord() != null) {
+			record++;
+		}
+		return record;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Reads the cells of the next record; quoted cells may contain commas,
+	 * doubled quotes and line breaks.
+	 *
+	 * @return the cells, or {@code null} at the end of the input
+	 */
+	private List<String> readRecord() throws IOException {
+		int c = reader.read();
+		if (c == -1) {
+			return null;
+		}
+		List<String> cells = new ArrayList<>(header == null ? 4 : header.size());
+		boolean quoted = false;
+		field.setLength(0);
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					break;
+				}
+				if (c == '"') {
+					reader.mark(1);
+					if (reader.read() != '"') {
+						reader.reset();
+						quoted = false;
+					} else {
+						field.append('"');
+					}
+				} else {
+					field.append((char) c);
+				}
+			} else if (c == '"' && field.isEmpty()) {
+				quoted = true;
+			} else if (c == ',') {
+				cells.add(field.toString());
+				field.setLength(0);
+			} else if (c == '\n' || c == -1) {
+				break;
+			} else if (c == '\r') {
+				reader.mark(1);
+				if (reader.read() != '\n') {
+					reader.reset();
+				}
+				break;
+			} else {
+				field.append((char) c);
+			}
+			c = reader.read();
+		}
+		cells.add(field.toString());
+		return cells;
+	}
+}
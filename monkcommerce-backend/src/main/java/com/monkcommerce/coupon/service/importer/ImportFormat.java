@@ -0,0 +1,52 @@
+package com.monkcommerce.coupon.service.importer;
+
+import java.util.Arrays;
+
+/**
+ * File formats accepted by the coupon import.
+ */
+public enum ImportFormat {
+
+	/**
+	 * One {@link com.monkcommerce.coupon.dto.request.CreateCouponDto} JSON
+	 * object per line.
+	 */
+	NDJSON("ndjson"),
+
+	/**
+	 * Comma-separated values with a header row naming the
+	 * {@link com.monkcommerce.coupon.dto.request.CreateCouponDto} fields;
+	 * {@code details} holds a JSON object.
+	 */
+	CSV("csv");
+
+	private final String value;
+
+	ImportFormat(String value) {
+		this.value = value;
+	}
+
+	/**
+	 * Gets the string value associated with this format.
+	 *
+	 * @return string representation of the format
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Converts a string value to the corresponding {@link ImportFormat}.
+	 * <p>
+	 * Matching is case-insensitive.
+	 * </p>
+	 *
+	 * @param value the string representation of the format
+	 * @return matching {@link ImportFormat}
+	 * @throws IllegalArgumentException if no matching format is found
+	 */
+	public static ImportFormat fromString(String value) {
+		return Arrays.stream(ImportFormat.values()).filter(format -> format.value.equalsIgnoreCase(value)).findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Unknown import format: " + value));
+	}
+}
@@ -0,0 +1,56 @@
+package com.monkcommerce.coupon.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.monkcommerce.coupon.dto.request.CreateCouponDto;
+
+/**
+ * Reads one {@link CreateCouponDto} JSON object per line. Row numbers are line
+ * numbers; blank lines are skipped.
+ */
+class NdjsonCouponRowReader implements CouponRowReader {
+
+	private final BufferedReader reader;
+	private final ObjectReader couponReader;
+	private long line;
+
+	NdjsonCouponRowReader(Reader reader, ObjectMapper objectMapper) {
+		this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+		this.couponReader = objectMapper.readerFor(CreateCouponDto.class);
+	}
+
+	@Override
+	public CouponRow next() throws IOException {
+		String text;
+		do {
+			text = reader.readLine();
+			if (text == null) {
+				return null;
+			}
+			line++;
+		} while (text.isBlank());
+		try {
+			return new CouponRow(line, couponReader.readValue(text), null);
+		} catch (JsonProcessingException ex) {
+			return new CouponRow(line, null, "Malformed JSON: " + ex.getOriginalMessage());
+		}
+	}
+
+	@Override
+	public long skipTo(long lastRow) throws IOException {
+		while (line < lastRow && reader.readLine() != null) {
+			line++;
+		}
+		return line;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+}
@@ -0,0 +1,92 @@
+package com.monkcommerce.coupon.service.lease;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.entity.SchedulerLease;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Elects one node per background job through rows of the
+ * {@link SchedulerLease} table, without external coordination.
+ * <p>
+ * A node holds a lease until its {@code expires_at}; the holder extends it by
+ * calling {@link #tryAcquire(String, Duration)} again, and any node may take
+ * over a lease that has lapsed. Expiry is compared with the database clock
+ * only, so node clocks do not need to agree. Each statement is atomic, so two
+ * nodes can never both succeed for the same lease.
+ * </p>
+ */
+@Component
+@Slf4j
+public class SchedulerLeaseManager {
+
+	private static final String INSERT = "INSERT IGNORE INTO scheduler_leases (name, owner, expires_at)"
+			+ " VALUES (?, ?, TIMESTAMPADD(MICROSECOND, ?, NOW(6)))";
+
+	private static final String TAKE_OVER = "UPDATE scheduler_leases"
+			+ " SET owner = ?, expires_at = TIMESTAMPADD(MICROSECOND, ?, NOW(6))"
+			+ " WHERE name = ? AND (owner = ? OR expires_at < NOW(6))";
+
+	private static final String RELEASE = "DELETE FROM scheduler_leases WHERE name = ? AND owner = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String owner;
+	private final Set<String> held = ConcurrentHashMap.newKeySet();
+
+	public SchedulerLeaseManager(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		// pid@host plus a random part, so a restarted process is a new owner
+		this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/"
+				+ UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	/**
+	 * Acquires or renews a lease.
+	 *
+	 * @param name the job name
+	 * @param ttl  how long the lease lasts from now
+	 * @return {@code true} if this node holds the lease until {@code ttl} from
+	 *         now, {@code false} if another node holds it
+	 */
+	public boolean tryAcquire(String name, Duration ttl) {
+		long micros = ttl.toNanos() / 1000;
+		boolean acquired = jdbcTemplate.update(INSERT, name, owner, micros) == 1
+				|| jdbcTemplate.update(TAKE_OVER, owner, micros, name, owner) == 1;
+		if (acquired && held.add(name)) {
+			log.info("Acquired lease {} as {}", name, owner);
+		} else if (!acquired && held.remove(name)) {
+			log.warn("Lost lease {} to another node", name);
+		}
+		return acquired;
+	}
+
+	/**
+	 * Gives up a lease held by this node, so another node can take over without
+	 * waiting for it to lapse.
+	 *
+	 * @param name the job name
+	 */
+	public void release(String name) {
+		held.remove(name);
+		if (jdbcTemplate.update(RELEASE, name, owner) == 1) {
+			log.info("Released lease {}", name);
+		}
+	}
+
+	/**
+	 * Returns the identifier this node uses as lease owner.
+	 *
+	 * @return the owner identifier
+	 */
+	public String getOwner() {
+		return owner;
+	}
+}
@@ -0,0 +1,112 @@
+package com.monkcommerce.coupon.service.migration;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.entity.CompletedMigration;
+import com.monkcommerce.coupon.service.cache.CouponCache;
+import com.monkcommerce.coupon.service.cache.CouponJsonCache;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copies coupon details from the legacy {@code coupon_details} join table into
+ * the {@code coupons.details} JSON column.
+ * <p>
+ * Runs during context refresh, once Hibernate has updated the schema and
+ * before the web server accepts requests, so no request can read or cache a
+ * coupon whose details have not been copied yet. Coupons are migrated in ID
+ * ranges of {@code coupon.migration.details-json.batch-size}, one statement
+ * and transaction per range, and only where {@code details} is still
+ * {@code null}, so an interrupted run can simply be restarted. Migrated
+ * coupons get a new {@code version}, and both coupon caches are cleared at the
+ * end.
+ * </p>
+ * <p>
+ * Once done (or if the join table does not exist), a
+ * {@link CompletedMigration} row named {@value #NAME} is written and later
+ * startups only look that row up. The join table is left in place; drop it
+ * once the migration has been verified (see
+ * {@code db/coupon_details_to_json.sql} for the equivalent manual script).
+ * </p>
+ * <p>
+ * Disable with {@code coupon.migration.details-json.enabled=false}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "coupon.migration.details-json.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class CouponDetailsMigration implements SmartInitializingSingleton {
+
+	/**
+	 * Name of the {@link CompletedMigration} marker.
+	 */
+	static final String NAME = "coupon-details-json";
+
+	private static final String COMPLETED = "SELECT COUNT(*) FROM completed_migrations WHERE name = ?";
+
+	private static final String MARK_COMPLETED = "INSERT INTO completed_migrations (name, completed_at) VALUES (?, ?)";
+
+	private static final String JOIN_TABLE_EXISTS = "SELECT COUNT(*) FROM information_schema.tables"
+			+ " WHERE table_schema = DATABASE() AND table_name = 'coupon_details'";
+
+	// Coupons without detail rows get an empty object, so they are not selected again
+	private static final String MIGRATE_RANGE = "UPDATE coupons c SET c.details = COALESCE((SELECT"
+			+ " JSON_OBJECTAGG(d.detail_key, d.detail_value) FROM coupon_details d WHERE d.coupon_id = c.id),"
+			+ " JSON_OBJECT()), c.version = c.version + 1"
+			+ " WHERE c.id > ? AND c.id <= ? AND c.details IS NULL";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final CouponCache couponCache;
+	private final CouponJsonCache couponJsonCache;
+	private final int batchSize;
+
+	public CouponDetailsMigration(JdbcTemplate jdbcTemplate, CouponCache couponCache,
+			CouponJsonCache couponJsonCache,
+			@Value("${coupon.migration.details-json.batch-size:1000}") int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("coupon.migration.details-json.batch-size must be at least 1");
+		}
+		this.jdbcTemplate = jdbcTemplate;
+		this.couponCache = couponCache;
+		this.couponJsonCache = couponJsonCache;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		Integer completed = jdbcTemplate.queryForObject(COMPLETED, Integer.class, NAME);
+		if (completed != null && completed > 0) {
+			return;
+		}
+		Integer joinTables = jdbcTemplate.queryForObject(JOIN_TABLE_EXISTS, Integer.class);
+		if (joinTables != null && joinTables > 0) {
+			migrate();
+		}
+		try {
+			jdbcTemplate.update(MARK_COMPLETED, NAME, LocalDateTime.now());
+		} catch (DuplicateKeyException ex) {
+			log.debug("Migration {} was completed concurrently by another node", NAME);
+		}
+	}
+
+	private void migrate() {
+		long start = System.nanoTime();
+		Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM coupons", Long.class);
+		long migrated = 0;
+		for (long from = 0; from < maxId; from += batchSize) {
+			migrated += jdbcTemplate.update(MIGRATE_RANGE, from, Math.min(from + batchSize, maxId));
+		}
+		couponCache.invalidateAll();
+		couponJsonCache.invalidateAll();
+		log.info("Migrated details of {} coupons from coupon_details to the JSON column in {} ms", migrated,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+}
@@ -0,0 +1,43 @@
+package com.monkcommerce.coupon.service.migration;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.entity.Coupon;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the coupon ID sequence past the IDs already in use.
+ * <p>
+ * Coupon IDs used to be assigned by {@code AUTO_INCREMENT}; the table-backed
+ * {@link Coupon#ID_SEQUENCE} starts at 1 when Hibernate creates it. The pooled
+ * optimizer hands out the {@link Coupon#ID_ALLOCATION_SIZE} IDs below each
+ * value it reads, so the sequence is raised to at least
+ * {@code MAX(id) + ID_ALLOCATION_SIZE + 1}. The update never lowers the
+ * sequence, so it is safe on every startup and on every node.
+ * </p>
+ * <p>
+ * Runs during context refresh, once Hibernate has created the sequence table
+ * and before the web server accepts requests, so no coupon can be created with
+ * an ID from the unaligned sequence.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CouponIdSequenceAlignment implements SmartInitializingSingleton {
+
+	private static final String ALIGN = "UPDATE " + Coupon.ID_SEQUENCE
+			+ " SET next_val = GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) FROM coupons) + ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		int updated = jdbcTemplate.update(ALIGN, Coupon.ID_ALLOCATION_SIZE + 1);
+		log.debug("Aligned {} with existing coupon IDs ({} row)", Coupon.ID_SEQUENCE, updated);
+	}
+}
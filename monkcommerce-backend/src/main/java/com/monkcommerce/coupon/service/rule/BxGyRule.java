@@ -0,0 +1,47 @@
+package com.monkcommerce.coupon.service.rule;
+
+import java.time.LocalDateTime;
+
+import com.monkcommerce.coupon.enums.CouponType;
+
+import lombok.Value;
+
+/**
+ * Compiled Buy-X-Get-Y coupon.
+ * <p>
+ * Every {@code buyQuantities[i]} units of {@code buyProductIds[i]} in the cart
+ * earn one repetition, up to {@code repetitionLimit}. Each repetition makes
+ * {@code getQuantities[j]} units of every {@code getProductIds[j]} free, as
+ * far as the cart contains them. Buy and get products are disjoint.
+ * </p>
+ * <p>
+ * The arrays are shared and must not be modified.
+ * </p>
+ */
+@Value
+public class BxGyRule implements CouponRule {
+
+	Long couponId;
+
+	LocalDateTime expirationDate;
+
+	boolean stackable;
+
+	long[] buyProductIds;
+
+	int[] buyQuantities;
+
+	long[] getProductIds;
+
+	int[] getQuantities;
+
+	/**
+	 * Maximum number of times the offer can be applied to one cart.
+	 */
+	int repetitionLimit;
+
+	@Override
+	public CouponType getType() {
+		return CouponType.BXGY;
+	}
+}
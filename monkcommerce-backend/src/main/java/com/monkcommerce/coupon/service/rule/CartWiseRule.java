@@ -0,0 +1,36 @@
+package com.monkcommerce.coupon.service.rule;
+
+import java.time.LocalDateTime;
+
+import com.monkcommerce.coupon.enums.CouponType;
+
+import lombok.Value;
+
+/**
+ * Compiled cart-wise coupon: a percentage discount on the whole cart once the
+ * cart total exceeds {@code threshold}.
+ */
+@Value
+public class CartWiseRule implements CouponRule {
+
+	Long couponId;
+
+	LocalDateTime expirationDate;
+
+	boolean stackable;
+
+	/**
+	 * Cart total that must be exceeded for the coupon to apply, in minor units.
+	 */
+	long threshold;
+
+	/**
+	 * Discount percentage in basis points, e.g. {@code 1000} for 10%.
+	 */
+	int discountBasisPoints;
+
+	@Override
+	public CouponType getType() {
+		return CouponType.CART_WISE;
+	}
+}
@@ -0,0 +1,147 @@
+package com.monkcommerce.coupon.service.rule;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.money.Money;
+
+/**
+ * Helpers for reading typed values out of a coupon's string {@code details}
+ * map while compiling a {@link CouponRule}.
+ * <p>
+ * Every failure is reported as an {@link InvalidCouponException} naming the
+ * offending key, so malformed coupons are rejected with HTTP 400 when they are
+ * created or updated.
+ * </p>
+ */
+public final class CouponDetailsParser {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private CouponDetailsParser() {
+	}
+
+	/**
+	 * Reads a required, non-negative money amount.
+	 *
+	 * @param details the coupon details
+	 * @param key     the detail key
+	 * @return the amount in minor units, rounded as defined by {@link Money}
+	 * @throws InvalidCouponException if the key is missing, not a number, or
+	 *                                negative
+	 */
+	public static long requireAmount(Map<String, String> details, String key) {
+		BigDecimal amount = requireDecimal(details, key);
+		if (amount.signum() < 0) {
+			throw new InvalidCouponException(key, details.get(key));
+		}
+		try {
+			return Money.toMinorUnits(amount);
+		} catch (ArithmeticException ex) {
+			throw new InvalidCouponException(key, details.get(key));
+		}
+	}
+
+	/**
+	 * Reads a required integral value.
+	 *
+	 * @param details the coupon details
+	 * @param key     the detail key
+	 * @return the parsed value
+	 * @throws InvalidCouponException if the key is missing or not an integer
+	 */
+	public static long requireLong(Map<String, String> details, String key) {
+		String value = require(details, key);
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new InvalidCouponException(key, value);
+		}
+	}
+
+	/**
+	 * Reads a required discount percentage in the range {@code (0, 100]}.
+	 *
+	 * @param details the coupon details
+	 * @param key     the detail key
+	 * @return the percentage in basis points, rounded as defined by
+	 *         {@link Money}
+	 * @throws InvalidCouponException if the key is missing or out of range
+	 */
+	public static int requirePercent(Map<String, String> details, String key) {
+		BigDecimal percent = requireDecimal(details, key);
+		if (percent.signum() <= 0 || percent.compareTo(BigDecimal.valueOf(100)) > 0) {
+			throw new InvalidCouponException(key, details.get(key));
+		}
+		int basisPoints = Money.toBasisPoints(percent);
+		if (basisPoints == 0) {
+			throw new InvalidCouponException(key, details.get(key));
+		}
+		return basisPoints;
+	}
+
+	/**
+	 * Reads a required, non-empty JSON array of
+	 * {@code {"product_id": <id>, "quantity": <n>}} objects. Quantities of
+	 * repeated product IDs are added up.
+	 *
+	 * @param details the coupon details
+	 * @param key     the detail key
+	 * @return quantities keyed by product ID, in input order
+	 * @throws InvalidCouponException if the key is missing, not such an array,
+	 *                                a quantity is not positive, or the
+	 *                                quantities of a product add up past
+	 *                                {@link Integer#MAX_VALUE}
+	 */
+	public static Map<Long, Integer> requireProductQuantities(Map<String, String> details, String key) {
+		String value = require(details, key);
+		JsonNode array;
+		try {
+			array = OBJECT_MAPPER.readTree(value);
+		} catch (JsonProcessingException ex) {
+			throw new InvalidCouponException(key, value);
+		}
+		if (array == null || !array.isArray() || array.isEmpty()) {
+			throw new InvalidCouponException(key, value);
+		}
+
+		Map<Long, Integer> quantities = new LinkedHashMap<>();
+		for (JsonNode entry : array) {
+			JsonNode productId = entry.get("product_id");
+			JsonNode quantity = entry.get("quantity");
+			if (productId == null || !productId.canConvertToLong() || !productId.isIntegralNumber()
+					|| quantity == null || !quantity.isIntegralNumber() || !quantity.canConvertToInt()
+					|| quantity.intValue() <= 0) {
+				throw new InvalidCouponException(key, value);
+			}
+			try {
+				quantities.merge(productId.longValue(), quantity.intValue(), Math::addExact);
+			} catch (ArithmeticException ex) {
+				throw new InvalidCouponException(key, value);
+			}
+		}
+		return quantities;
+	}
+
+	private static BigDecimal requireDecimal(Map<String, String> details, String key) {
+		String value = require(details, key);
+		try {
+			return new BigDecimal(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new InvalidCouponException(key, value);
+		}
+	}
+
+	private static String require(Map<String, String> details, String key) {
+		String value = details == null ? null : details.get(key);
+		if (value == null || value.isBlank()) {
+			throw new InvalidCouponException("Missing coupon detail: " + key);
+		}
+		return value;
+	}
+}
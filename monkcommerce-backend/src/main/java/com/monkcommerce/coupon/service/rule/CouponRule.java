@@ -0,0 +1,38 @@
+package com.monkcommerce.coupon.service.rule;
+
+import java.time.LocalDateTime;
+
+import com.monkcommerce.coupon.enums.CouponType;
+
+/**
+ * Immutable, pre-parsed form of a {@link com.monkcommerce.coupon.entity.Coupon}
+ * used on the evaluation path.
+ * <p>
+ * Rules are compiled once from the coupon's string details when the coupon is
+ * created, updated or loaded into the snapshot, so strategies work on
+ * primitive fields instead of parsing {@code details} for every cart.
+ * </p>
+ */
+public interface CouponRule {
+
+	/**
+	 * @return ID of the coupon this rule was compiled from
+	 */
+	Long getCouponId();
+
+	/**
+	 * @return type of the coupon, used to select the {@code CouponStrategy}
+	 */
+	CouponType getType();
+
+	/**
+	 * @return expiration date of the coupon, or {@code null} if it never expires
+	 */
+	LocalDateTime getExpirationDate();
+
+	/**
+	 * @return {@code true} if the coupon may be combined with other stackable
+	 *         coupons, {@code false} if it is exclusive
+	 */
+	boolean isStackable();
+}
@@ -0,0 +1,38 @@
+package com.monkcommerce.coupon.service.rule;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.strategy.CouponStrategy;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Compiles {@link Coupon} entities into {@link CouponRule}s by delegating to
+ * the {@link CouponStrategy} registered for the coupon's type.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponRuleCompiler {
+
+	private final Map<CouponType, CouponStrategy> couponStrategies;
+
+	/**
+	 * Compiles the given coupon.
+	 *
+	 * @param coupon the coupon
+	 * @return the compiled rule, or {@code null} if no strategy handles the
+	 *         coupon's type
+	 * @throws com.monkcommerce.coupon.exception.InvalidCouponException if the
+	 *                                                                  details
+	 *                                                                  are
+	 *                                                                  malformed
+	 */
+	public CouponRule compile(Coupon coupon) {
+		CouponStrategy strategy = couponStrategies.get(coupon.getType());
+		return strategy == null ? null : strategy.compile(coupon);
+	}
+}
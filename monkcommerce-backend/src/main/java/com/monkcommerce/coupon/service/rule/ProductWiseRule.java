@@ -0,0 +1,36 @@
+package com.monkcommerce.coupon.service.rule;
+
+import java.time.LocalDateTime;
+
+import com.monkcommerce.coupon.enums.CouponType;
+
+import lombok.Value;
+
+/**
+ * Compiled product-wise coupon: a percentage discount on every unit of
+ * {@code productId} in the cart.
+ */
+@Value
+public class ProductWiseRule implements CouponRule {
+
+	Long couponId;
+
+	LocalDateTime expirationDate;
+
+	boolean stackable;
+
+	/**
+	 * ID of the product the discount applies to.
+	 */
+	long productId;
+
+	/**
+	 * Discount percentage in basis points, e.g. {@code 1000} for 10%.
+	 */
+	int discountBasisPoints;
+
+	@Override
+	public CouponType getType() {
+		return CouponType.PRODUCT_WISE;
+	}
+}
@@ -0,0 +1,83 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+import com.monkcommerce.coupon.service.rule.CartWiseRule;
+
+/**
+ * Immutable index of cart-wise coupons sorted by threshold.
+ * <p>
+ * Thresholds are held in a primitive {@code long[]} parallel to the rule
+ * array. A cart-wise coupon applies when the cart total is strictly greater
+ * than its threshold, so the eligible coupons for a total always form the
+ * prefix {@code [0, eligibleCount(total))}, found by binary search in
+ * O(log n).
+ * </p>
+ */
+public final class CartThresholdIndex {
+
+	private static final CartWiseRule[] NONE = new CartWiseRule[0];
+
+	private final long[] thresholds;
+	private final CartWiseRule[] rules;
+
+	private CartThresholdIndex(CartWiseRule[] rules) {
+		this.rules = rules;
+		this.thresholds = new long[rules.length];
+		for (int i = 0; i < rules.length; i++) {
+			thresholds[i] = rules[i].getThreshold();
+		}
+	}
+
+	/**
+	 * Builds an index over the given rules.
+	 *
+	 * @param rules cart-wise rules to index
+	 * @return the index
+	 */
+	public static CartThresholdIndex build(Collection<CartWiseRule> rules) {
+		CartWiseRule[] sorted = rules.toArray(NONE);
+		Arrays.sort(sorted, Comparator.comparingLong(CartWiseRule::getThreshold));
+		return new CartThresholdIndex(sorted);
+	}
+
+	/**
+	 * Returns how many coupons apply to the given cart total. The eligible
+	 * coupons are {@code get(0)} to {@code get(count - 1)}.
+	 *
+	 * @param cartTotal the cart total, in minor units
+	 * @return the number of coupons whose threshold is below {@code cartTotal}
+	 */
+	public int eligibleCount(long cartTotal) {
+		int low = 0;
+		int high = thresholds.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (thresholds[mid] < cartTotal) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the coupon at the given position in threshold order.
+	 *
+	 * @param position the position, {@code 0 <= position < size()}
+	 * @return the rule
+	 */
+	public CartWiseRule get(int position) {
+		return rules[position];
+	}
+
+	/**
+	 * @return number of indexed coupons
+	 */
+	public int size() {
+		return rules.length;
+	}
+}
@@ -0,0 +1,36 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import com.monkcommerce.coupon.service.rule.CouponRule;
+
+import lombok.Value;
+
+/**
+ * Application event published when a coupon is created, updated or deleted.
+ * <p>
+ * {@code rule} holds the compiled, committed state of the coupon, or
+ * {@code null} when the coupon was deleted, deactivated, or has no evaluation
+ * strategy. A {@code null} rule removes the coupon from the snapshot.
+ * </p>
+ */
+@Value
+public class CouponChangedEvent {
+
+	/**
+	 * ID of the coupon that changed.
+	 */
+	Long couponId;
+
+	/**
+	 * Compiled rule of the coupon after the change; {@code null} if it should no
+	 * longer be evaluated.
+	 */
+	CouponRule rule;
+
+	public static CouponChangedEvent saved(Long couponId, CouponRule rule) {
+		return new CouponChangedEvent(couponId, rule);
+	}
+
+	public static CouponChangedEvent removed(Long couponId) {
+		return new CouponChangedEvent(couponId, null);
+	}
+}
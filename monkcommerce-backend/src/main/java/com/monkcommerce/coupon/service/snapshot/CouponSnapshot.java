@@ -0,0 +1,283 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.monkcommerce.coupon.service.rule.CartWiseRule;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.rule.ProductWiseRule;
+
+/**
+ * Immutable, in-memory view of every active, non-expired coupon at a point in
+ * time.
+ * <p>
+ * A snapshot is never modified once built. Mutations produce a new snapshot
+ * through {@link #withRule(CouponRule)}, {@link #withoutCoupon(Long)},
+ * {@link #withoutCoupons(Collection)} and
+ * {@link #withChanges(Collection, Collection)}, which copy the current content
+ * (copy-on-write). Readers can therefore iterate a
+ * snapshot without locking while writers swap in a new one.
+ * </p>
+ * <p>
+ * Coupons are held in their compiled {@link CouponRule} form, so no details
+ * parsing happens on the evaluation path. Product-wise rules are additionally
+ * indexed by product ID ({@link ProductCouponIndex}) and cart-wise rules by
+ * threshold ({@link CartThresholdIndex}); the indexes are rebuilt with every
+ * new snapshot and therefore always match {@link #find(Long)}.
+ * </p>
+ * <p>
+ * Expired coupons are removed by {@link CouponSnapshotManager} when their
+ * expiration comes due, so readers do not check expiration dates. Such
+ * removals ({@link #withoutCoupons(Collection)}) do not rebuild the indexes:
+ * the new snapshot shares them and hides the removed rules through a small
+ * identity set, which readers consult only while it is non-empty. Once that
+ * set exceeds about √n rules the indexes are rebuilt without them, so removing
+ * a coupon costs O(√n) amortized instead of O(n). Every other change rebuilds
+ * the indexes.
+ * </p>
+ */
+public final class CouponSnapshot {
+
+	private static final CouponSnapshot EMPTY = new CouponSnapshot(Collections.emptyMap(), Instant.EPOCH);
+
+	/**
+	 * Smallest number of hidden rules that triggers a rebuild of the indexes.
+	 */
+	private static final int MIN_HIDDEN_BEFORE_REBUILD = 64;
+
+	private final Map<Long, CouponRule> rulesById;
+	private final ProductCouponIndex productIndex;
+	private final CartThresholdIndex cartWiseIndex;
+	private final List<CouponRule> otherRules;
+	/**
+	 * Rules still held by the structures above that are no longer part of the
+	 * snapshot; compared by identity and never modified.
+	 */
+	private final Set<CouponRule> hidden;
+	private final Instant createdAt;
+
+	private CouponSnapshot(Map<Long, CouponRule> rulesById, Instant createdAt) {
+		List<ProductWiseRule> productRules = new ArrayList<>();
+		List<CartWiseRule> cartWiseRules = new ArrayList<>();
+		List<CouponRule> otherRules = new ArrayList<>();
+		for (CouponRule rule : rulesById.values()) {
+			if (rule instanceof ProductWiseRule productRule) {
+				productRules.add(productRule);
+			} else if (rule instanceof CartWiseRule cartWiseRule) {
+				cartWiseRules.add(cartWiseRule);
+			} else {
+				otherRules.add(rule);
+			}
+		}
+		this.rulesById = Collections.unmodifiableMap(rulesById);
+		this.productIndex = ProductCouponIndex.build(productRules);
+		this.cartWiseIndex = CartThresholdIndex.build(cartWiseRules);
+		this.otherRules = Collections.unmodifiableList(otherRules);
+		this.hidden = Collections.emptySet();
+		this.createdAt = createdAt;
+	}
+
+	/**
+	 * Shares the structures of {@code base} and hides the given rules.
+	 */
+	private CouponSnapshot(CouponSnapshot base, Set<CouponRule> hidden) {
+		this.rulesById = base.rulesById;
+		this.productIndex = base.productIndex;
+		this.cartWiseIndex = base.cartWiseIndex;
+		this.otherRules = base.otherRules;
+		this.hidden = hidden;
+		this.createdAt = base.createdAt;
+	}
+
+	/**
+	 * Returns a snapshot without coupons, used until the first load completes.
+	 *
+	 * @return the empty snapshot
+	 */
+	public static CouponSnapshot empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Builds a snapshot from the given compiled rules.
+	 *
+	 * @param rules rules of all active coupons
+	 * @return a new snapshot
+	 */
+	public static CouponSnapshot of(Collection<CouponRule> rules) {
+		Map<Long, CouponRule> byId = new LinkedHashMap<>(rules.size() * 2);
+		for (CouponRule rule : rules) {
+			byId.put(rule.getCouponId(), rule);
+		}
+		return new CouponSnapshot(byId, Instant.now());
+	}
+
+	/**
+	 * Returns a new snapshot in which the given rule is added or replaced.
+	 *
+	 * @param rule the compiled rule of an active coupon
+	 * @return the new snapshot
+	 */
+	public CouponSnapshot withRule(CouponRule rule) {
+		Map<Long, CouponRule> byId = visibleRules();
+		byId.put(rule.getCouponId(), rule);
+		return new CouponSnapshot(byId, createdAt);
+	}
+
+	/**
+	 * Returns a new snapshot without the coupon with the given ID.
+	 *
+	 * @param couponId the coupon ID
+	 * @return the new snapshot, or this snapshot if the coupon was not present
+	 */
+	public CouponSnapshot withoutCoupon(Long couponId) {
+		if (find(couponId) == null) {
+			return this;
+		}
+		Map<Long, CouponRule> byId = visibleRules();
+		byId.remove(couponId);
+		return new CouponSnapshot(byId, createdAt);
+	}
+
+	/**
+	 * Returns a new snapshot without the coupons with the given IDs.
+	 * <p>
+	 * The indexes are shared with this snapshot and the removed rules hidden,
+	 * until enough rules are hidden to rebuild them; see the class
+	 * documentation.
+	 * </p>
+	 *
+	 * @param couponIds the coupon IDs
+	 * @return the new snapshot, or this snapshot if none of the coupons was
+	 *         present
+	 */
+	public CouponSnapshot withoutCoupons(Collection<Long> couponIds) {
+		Set<CouponRule> nowHidden = Collections.newSetFromMap(new IdentityHashMap<>(hidden.size() + couponIds.size()));
+		nowHidden.addAll(hidden);
+		boolean changed = false;
+		for (Long couponId : couponIds) {
+			CouponRule rule = rulesById.get(couponId);
+			if (rule != null) {
+				changed |= nowHidden.add(rule);
+			}
+		}
+		if (!changed) {
+			return this;
+		}
+		if (nowHidden.size() > Math.max(MIN_HIDDEN_BEFORE_REBUILD, (int) Math.sqrt(rulesById.size()))) {
+			Map<Long, CouponRule> byId = new LinkedHashMap<>(rulesById);
+			for (CouponRule rule : nowHidden) {
+				byId.remove(rule.getCouponId());
+			}
+			return new CouponSnapshot(byId, createdAt);
+		}
+		return new CouponSnapshot(this, Collections.unmodifiableSet(nowHidden));
+	}
+
+	/**
+	 * Returns a new snapshot with a batch of changes applied in one copy.
+	 *
+	 * @param saved     compiled rules of active coupons to add or replace
+	 * @param removed   IDs of coupons to remove; applied before {@code saved}
+	 * @return the new snapshot
+	 */
+	public CouponSnapshot withChanges(Collection<CouponRule> saved, Collection<Long> removed) {
+		Map<Long, CouponRule> byId = visibleRules();
+		byId.keySet().removeAll(removed);
+		for (CouponRule rule : saved) {
+			byId.put(rule.getCouponId(), rule);
+		}
+		return new CouponSnapshot(byId, createdAt);
+	}
+
+	/**
+	 * Looks up an active, non-expired coupon's rule by ID.
+	 *
+	 * @param couponId the coupon ID
+	 * @return the rule, or {@code null} if absent
+	 */
+	public CouponRule find(Long couponId) {
+		CouponRule rule = rulesById.get(couponId);
+		return rule == null || hidden.contains(rule) ? null : rule;
+	}
+
+	/**
+	 * Returns the rules that may apply to a cart with the given products and
+	 * total: the cart-wise rules whose threshold is below the total, the
+	 * product-wise rules indexed under those products, and every rule of other
+	 * types.
+	 *
+	 * @param productIds distinct product IDs in the cart
+	 * @param cartTotal  the cart total before discounts, in minor units
+	 * @return candidate rules
+	 */
+	public List<CouponRule> getCandidateRules(long[] productIds, long cartTotal) {
+		int eligibleCartWise = cartWiseIndex.eligibleCount(cartTotal);
+		int capacity = eligibleCartWise + otherRules.size();
+		for (long productId : productIds) {
+			capacity += productIndex.get(productId).length;
+		}
+		// Sized exactly so collecting candidates never regrows the list
+		List<CouponRule> candidates = new ArrayList<>(capacity);
+		if (hidden.isEmpty()) {
+			for (int i = 0; i < eligibleCartWise; i++) {
+				candidates.add(cartWiseIndex.get(i));
+			}
+			candidates.addAll(otherRules);
+			for (long productId : productIds) {
+				Collections.addAll(candidates, productIndex.get(productId));
+			}
+			return candidates;
+		}
+		for (int i = 0; i < eligibleCartWise; i++) {
+			addVisible(candidates, cartWiseIndex.get(i));
+		}
+		for (CouponRule rule : otherRules) {
+			addVisible(candidates, rule);
+		}
+		for (long productId : productIds) {
+			for (ProductWiseRule rule : productIndex.get(productId)) {
+				addVisible(candidates, rule);
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * @return the number of coupons in this snapshot
+	 */
+	public int size() {
+		return rulesById.size() - hidden.size();
+	}
+
+	/**
+	 * @return when the snapshot was last fully loaded from the database
+	 */
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	private void addVisible(List<CouponRule> candidates, CouponRule rule) {
+		if (!hidden.contains(rule)) {
+			candidates.add(rule);
+		}
+	}
+
+	/**
+	 * Returns a modifiable copy of the visible rules by ID.
+	 */
+	private Map<Long, CouponRule> visibleRules() {
+		Map<Long, CouponRule> byId = new LinkedHashMap<>(rulesById);
+		for (CouponRule rule : hidden) {
+			byId.remove(rule.getCouponId());
+		}
+		return byId;
+	}
+}
@@ -0,0 +1,384 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.repository.CouponRepository;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.rule.CouponRuleCompiler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the current {@link CouponSnapshot} used by the evaluation endpoints.
+ * <p>
+ * Reads are lock-free: {@link #current()} returns the latest published
+ * snapshot. Writers are serialized and publish a new snapshot on:
+ * <ul>
+ * <li>a committed coupon mutation ({@link CouponChangedEvent})</li>
+ * <li>changes read from the coupon change log, e.g. made on another node
+ * ({@link #reload(Collection)})</li>
+ * <li>the periodic full refresh ({@code coupon.snapshot.refresh-interval})</li>
+ * <li>coupons coming due in the {@link ExpiryWheel}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The expiration of every coupon in the snapshot is scheduled in an
+ * {@link ExpiryWheel} that a dedicated thread advances every
+ * {@code coupon.snapshot.expiry-tick}. Coupons coming due in the same tick are
+ * removed together, at most one tick before their expiration instant, so
+ * evaluation never compares expiration dates. Removing them does not rebuild
+ * the snapshot's indexes (see {@link CouponSnapshot#withoutCoupons(Collection)}).
+ * </p>
+ * <p>
+ * The full refresh and the change-log reloads load and compile coupons without
+ * holding the writer lock, so expirations and mutations are not held up by
+ * the query; the lock is only taken to publish. Changes applied while a
+ * refresh loads are recorded and applied again on top of its result; coupons
+ * changed while a reload loads keep their newer state.
+ * </p>
+ * <p>
+ * Exposes {@code coupon.snapshot.size}, {@code coupon.snapshot.age} and
+ * {@code coupon.snapshot.expirations.scheduled} gauges and the
+ * {@code coupon.snapshot.expired} counter.
+ * </p>
+ */
+@Component
+@Slf4j
+public class CouponSnapshotManager {
+
+	private final CouponRepository couponRepository;
+	private final CouponRuleCompiler couponRuleCompiler;
+	private final long expiryTickMillis;
+	private final ScheduledExecutorService expiryExecutor;
+	private final Counter expired;
+
+	/** Serializes full refreshes; never acquired while holding {@code this}. */
+	private final Object refreshLock = new Object();
+
+	private volatile CouponSnapshot snapshot = CouponSnapshot.empty();
+	/**
+	 * Changes applied while a refresh is loading, in order; {@code null} when no
+	 * refresh is loading. Guarded by {@code this}.
+	 */
+	private List<CouponChangedEvent> changedDuringRefresh;
+	/**
+	 * Per reload still loading, the coupons changed since it started. Guarded by
+	 * {@code this}.
+	 */
+	private final Set<Set<Long>> changedDuringReload = Collections.newSetFromMap(new IdentityHashMap<>());
+	/** Replaced and advanced under {@code this}; read without it only by the gauge. */
+	private volatile ExpiryWheel expiryWheel;
+
+	public CouponSnapshotManager(CouponRepository couponRepository, CouponRuleCompiler couponRuleCompiler,
+			@Value("${coupon.snapshot.expiry-tick:PT0.1S}") Duration expiryTick, MeterRegistry meterRegistry) {
+		if (expiryTick.toMillis() < 1) {
+			throw new IllegalArgumentException("coupon.snapshot.expiry-tick must be at least 1 ms");
+		}
+		this.couponRepository = couponRepository;
+		this.couponRuleCompiler = couponRuleCompiler;
+		this.expiryTickMillis = expiryTick.toMillis();
+		this.expiryWheel = new ExpiryWheel(System.currentTimeMillis(), expiryTickMillis);
+		this.expiryExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "coupon-expiry-wheel");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		Gauge.builder("coupon.snapshot.size", this, manager -> manager.current().size())
+				.description("Number of active coupons held in memory").register(meterRegistry);
+		TimeGauge.builder("coupon.snapshot.age", this, TimeUnit.MILLISECONDS, CouponSnapshotManager::ageMillis)
+				.description("Time since the coupon snapshot was last fully loaded").register(meterRegistry);
+		Gauge.builder("coupon.snapshot.expirations.scheduled", this, CouponSnapshotManager::scheduledExpirations)
+				.description("Coupon expirations scheduled in the expiry wheel").register(meterRegistry);
+		this.expired = Counter.builder("coupon.snapshot.expired")
+				.description("Coupons removed from the snapshot on expiry").register(meterRegistry);
+	}
+
+	/**
+	 * Returns the latest published snapshot.
+	 *
+	 * @return the current snapshot, never {@code null}
+	 */
+	public CouponSnapshot current() {
+		return snapshot;
+	}
+
+	/**
+	 * Loads the initial snapshot once the application is ready and starts
+	 * advancing the expiry wheel.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		refresh();
+		expiryExecutor.scheduleAtFixedRate(this::expire, expiryTickMillis, expiryTickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stops advancing the expiry wheel.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		expiryExecutor.shutdownNow();
+	}
+
+	/**
+	 * Reloads all active, non-expired coupons, schedules their expirations in a
+	 * new {@link ExpiryWheel} and publishes a new snapshot.
+	 * <p>
+	 * Coupons whose details cannot be compiled (e.g. rows written before
+	 * validation existed) are logged and left out of the snapshot.
+	 * </p>
+	 * <p>
+	 * The query and compilation run without the writer lock. Mutations applied
+	 * meanwhile are applied again to the loaded coupons before the new snapshot
+	 * is published, so the reload cannot overwrite them.
+	 * </p>
+	 */
+	@Scheduled(fixedDelayString = "${coupon.snapshot.refresh-interval:PT1M}", initialDelayString = "${coupon.snapshot.refresh-interval:PT1M}")
+	public void refresh() {
+		synchronized (refreshLock) {
+			long start = System.nanoTime();
+			synchronized (this) {
+				changedDuringRefresh = new ArrayList<>();
+			}
+			Map<Long, CouponRule> loaded;
+			try {
+				loaded = load();
+			} catch (RuntimeException ex) {
+				synchronized (this) {
+					changedDuringRefresh = null;
+				}
+				throw ex;
+			}
+			int size = publish(loaded);
+			log.debug("Loaded coupon snapshot with {} coupons in {} ms", size,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		}
+	}
+
+	private Map<Long, CouponRule> load() {
+		List<Coupon> coupons = couponRepository.findActiveAndNotExpired(LocalDateTime.now());
+		Map<Long, CouponRule> rules = new LinkedHashMap<>(coupons.size() * 2);
+		for (Coupon coupon : coupons) {
+			try {
+				CouponRule rule = couponRuleCompiler.compile(coupon);
+				if (rule != null) {
+					rules.put(rule.getCouponId(), rule);
+				}
+			} catch (InvalidCouponException ex) {
+				log.warn("Skipping coupon {} with malformed details: {}", coupon.getId(), ex.getMessage());
+			}
+		}
+		return rules;
+	}
+
+	/**
+	 * Applies the changes recorded during the load, schedules the expirations
+	 * in a new wheel and publishes the snapshot.
+	 *
+	 * @return the number of coupons published
+	 */
+	private synchronized int publish(Map<Long, CouponRule> loaded) {
+		for (CouponChangedEvent change : changedDuringRefresh) {
+			if (change.getRule() != null) {
+				loaded.put(change.getCouponId(), change.getRule());
+			} else {
+				loaded.remove(change.getCouponId());
+			}
+		}
+		changedDuringRefresh = null;
+
+		ExpiryWheel wheel = new ExpiryWheel(System.currentTimeMillis(), expiryTickMillis);
+		List<CouponRule> rules = new ArrayList<>(loaded.size());
+		for (CouponRule rule : loaded.values()) {
+			// Coupons that expired while loading are left out
+			if (schedule(wheel, rule)) {
+				rules.add(rule);
+			}
+		}
+		expiryWheel = wheel;
+		snapshot = CouponSnapshot.of(rules);
+		return rules.size();
+	}
+
+	/**
+	 * Applies a committed coupon mutation to the snapshot.
+	 *
+	 * @param event the change event published by the service layer
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public synchronized void onCouponChanged(CouponChangedEvent event) {
+		if (changedDuringRefresh != null) {
+			changedDuringRefresh.add(event);
+		}
+		for (Set<Long> changed : changedDuringReload) {
+			changed.add(event.getCouponId());
+		}
+		CouponRule rule = event.getRule();
+		if (rule != null && schedule(expiryWheel, rule)) {
+			snapshot = snapshot.withRule(rule);
+		} else {
+			expiryWheel.cancel(event.getCouponId());
+			snapshot = snapshot.withoutCoupon(event.getCouponId());
+		}
+	}
+
+	/**
+	 * Reloads the given coupons and applies their committed state to the
+	 * snapshot in one copy: active coupons are added or replaced, inactive,
+	 * expired, malformed and deleted ones are removed.
+	 * <p>
+	 * The coupons are read by primary key and compiled without the writer lock.
+	 * A coupon changed on this node while they load keeps the state applied
+	 * then, which is at least as new as the loaded one.
+	 * </p>
+	 *
+	 * @param couponIds the IDs of the changed coupons
+	 */
+	public void reload(Collection<Long> couponIds) {
+		Set<Long> changedMeanwhile = new HashSet<>();
+		synchronized (this) {
+			changedDuringReload.add(changedMeanwhile);
+		}
+		Map<Long, CouponRule> loaded;
+		try {
+			loaded = load(couponIds);
+		} catch (RuntimeException ex) {
+			synchronized (this) {
+				changedDuringReload.remove(changedMeanwhile);
+			}
+			throw ex;
+		}
+		publishReloaded(new LinkedHashSet<>(couponIds), loaded, changedMeanwhile);
+	}
+
+	/**
+	 * Loads and compiles the given coupons, leaving out inactive and malformed
+	 * ones.
+	 */
+	private Map<Long, CouponRule> load(Collection<Long> couponIds) {
+		Map<Long, CouponRule> rules = new HashMap<>();
+		for (Coupon coupon : couponRepository.findAllById(couponIds)) {
+			if (!Boolean.TRUE.equals(coupon.getIsActive())) {
+				continue;
+			}
+			try {
+				CouponRule rule = couponRuleCompiler.compile(coupon);
+				if (rule != null) {
+					rules.put(coupon.getId(), rule);
+				}
+			} catch (InvalidCouponException ex) {
+				log.warn("Skipping coupon {} with malformed details: {}", coupon.getId(), ex.getMessage());
+			}
+		}
+		return rules;
+	}
+
+	/**
+	 * Publishes the reloaded coupons, except the ones changed since the reload
+	 * started.
+	 */
+	private synchronized void publishReloaded(Set<Long> couponIds, Map<Long, CouponRule> loaded,
+			Set<Long> changedMeanwhile) {
+		changedDuringReload.remove(changedMeanwhile);
+		List<CouponRule> saved = new ArrayList<>(loaded.size());
+		Set<Long> removed = new HashSet<>();
+		for (Long couponId : couponIds) {
+			if (changedMeanwhile.contains(couponId)) {
+				continue;
+			}
+			CouponRule rule = loaded.get(couponId);
+			if (rule != null && schedule(expiryWheel, rule)) {
+				saved.add(rule);
+			} else {
+				expiryWheel.cancel(couponId);
+				removed.add(couponId);
+			}
+			for (Set<Long> changed : changedDuringReload) {
+				changed.add(couponId);
+			}
+		}
+		if (changedDuringRefresh != null) {
+			for (CouponRule rule : saved) {
+				changedDuringRefresh.add(CouponChangedEvent.saved(rule.getCouponId(), rule));
+			}
+			for (Long couponId : removed) {
+				changedDuringRefresh.add(CouponChangedEvent.removed(couponId));
+			}
+		}
+		snapshot = snapshot.withChanges(saved, removed);
+	}
+
+	/**
+	 * Advances the expiry wheel to now and removes the coupons that came due.
+	 */
+	synchronized void expire() {
+		List<Long> due = new ArrayList<>();
+		try {
+			expiryWheel.advanceTo(System.currentTimeMillis(), due::add);
+		} catch (RuntimeException ex) {
+			// An exception would cancel the periodic task
+			log.error("Failed to advance the coupon expiry wheel", ex);
+		}
+		if (!due.isEmpty()) {
+			snapshot = snapshot.withoutCoupons(due);
+			expired.increment(due.size());
+			log.debug("Removed {} expired coupons from the snapshot", due.size());
+		}
+	}
+
+	/**
+	 * Schedules the rule's expiration, if it has one.
+	 *
+	 * @return {@code false} if the coupon is already due
+	 */
+	private static boolean schedule(ExpiryWheel wheel, CouponRule rule) {
+		if (rule.getExpirationDate() == null) {
+			wheel.cancel(rule.getCouponId());
+			return true;
+		}
+		return wheel.schedule(rule.getCouponId(),
+				rule.getExpirationDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+	}
+
+	private double scheduledExpirations() {
+		return expiryWheel.size();
+	}
+
+	private double ageMillis() {
+		Instant createdAt = snapshot.getCreatedAt();
+		return Instant.EPOCH.equals(createdAt) ? 0 : Duration.between(createdAt, Instant.now()).toMillis();
+	}
+}
@@ -0,0 +1,196 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel holding the expiration of every coupon in the
+ * snapshot.
+ * <p>
+ * Time advances in ticks of {@code tickMillis} from {@code originMillis}.
+ * Level 0 has one slot per tick for the next {@value #SLOTS} ticks; each higher
+ * level has {@value #SLOTS} slots that each span a whole turn of the level
+ * below. A deadline is placed on the lowest level whose range covers it and
+ * moves down a level whenever its slot on a higher level comes due, so
+ * scheduling, cancelling and advancing by one tick are all O(1) amortized,
+ * however many coupons are scheduled. {@value #LEVELS} levels span
+ * {@code 64^8} ticks (almost 900,000 years at 100 ms).
+ * </p>
+ * <p>
+ * A deadline is rounded down to its tick, so a coupon comes due at most one
+ * tick before its expiration instant, never after it (apart from the delay
+ * of whoever calls {@link #advanceTo(long, LongConsumer)}).
+ * </p>
+ * <p>
+ * Cancelled and rescheduled deadlines are not searched for in their slots;
+ * the current deadline of each coupon is kept in a map and stale slot entries
+ * are dropped when their slot is processed.
+ * </p>
+ * <p>
+ * Not thread-safe; {@link CouponSnapshotManager} uses it under its writer
+ * lock.
+ * </p>
+ */
+final class ExpiryWheel {
+
+	private static final int BITS = 6;
+	private static final int SLOTS = 1 << BITS;
+	private static final int MASK = SLOTS - 1;
+	private static final int LEVELS = 8;
+	private static final long HORIZON = 1L << (BITS * LEVELS);
+
+	private final long originMillis;
+	private final long tickMillis;
+	private final Slot[][] slots = new Slot[LEVELS][SLOTS];
+	private final Map<Long, Long> deadlines = new HashMap<>();
+	private long currentTick;
+
+	/**
+	 * @param originMillis the time of tick 0, in epoch milliseconds
+	 * @param tickMillis   the length of a tick in milliseconds
+	 */
+	ExpiryWheel(long originMillis, long tickMillis) {
+		if (tickMillis < 1) {
+			throw new IllegalArgumentException("tickMillis must be at least 1");
+		}
+		this.originMillis = originMillis;
+		this.tickMillis = tickMillis;
+	}
+
+	/**
+	 * Schedules the expiration of a coupon, replacing any earlier schedule.
+	 *
+	 * @param couponId        the coupon ID
+	 * @param expiresAtMillis the expiration instant in epoch milliseconds
+	 * @return {@code true} if scheduled, {@code false} if the expiration falls
+	 *         in a tick the wheel has already passed (the coupon is due now)
+	 */
+	boolean schedule(long couponId, long expiresAtMillis) {
+		long deadline = Math.floorDiv(expiresAtMillis - originMillis, tickMillis);
+		if (deadline <= currentTick) {
+			deadlines.remove(couponId);
+			return false;
+		}
+		deadlines.put(couponId, deadline);
+		place(couponId, deadline);
+		return true;
+	}
+
+	/**
+	 * Cancels the scheduled expiration of a coupon, if any.
+	 *
+	 * @param couponId the coupon ID
+	 */
+	void cancel(long couponId) {
+		deadlines.remove(couponId);
+	}
+
+	/**
+	 * @return the number of scheduled expirations
+	 */
+	int size() {
+		return deadlines.size();
+	}
+
+	/**
+	 * Advances the wheel to the tick containing {@code nowMillis}, reporting
+	 * every coupon that came due on the way.
+	 *
+	 * @param nowMillis the current time in epoch milliseconds
+	 * @param due       receives the IDs of the coupons that came due
+	 */
+	void advanceTo(long nowMillis, LongConsumer due) {
+		long target = Math.floorDiv(nowMillis - originMillis, tickMillis);
+		while (currentTick < target) {
+			currentTick++;
+			// Move the deadlines of the slot that has come due on each higher level
+			// down, as in a clock where a full turn of one hand moves the next
+			for (int level = 1; level < LEVELS && (currentTick & ((1L << (BITS * level)) - 1)) == 0; level++) {
+				Slot slot = slots[level][index(currentTick, level)];
+				if (slot != null && slot.size > 0) {
+					Slot cascading = slot.drain();
+					for (int i = 0; i < cascading.size; i++) {
+						if (isCurrent(cascading.ids[i], cascading.deadlines[i])) {
+							place(cascading.ids[i], cascading.deadlines[i]);
+						}
+					}
+				}
+			}
+			Slot slot = slots[0][index(currentTick, 0)];
+			if (slot != null && slot.size > 0) {
+				Slot firing = slot.drain();
+				for (int i = 0; i < firing.size; i++) {
+					if (isCurrent(firing.ids[i], firing.deadlines[i])) {
+						deadlines.remove(firing.ids[i]);
+						due.accept(firing.ids[i]);
+					}
+				}
+			}
+		}
+	}
+
+	private boolean isCurrent(long couponId, long deadline) {
+		Long current = deadlines.get(couponId);
+		return current != null && current == deadline;
+	}
+
+	private void place(long couponId, long deadline) {
+		long delta = deadline - currentTick;
+		// Deadlines beyond the top level are parked at its far end and placed again from there
+		long placement = delta < HORIZON ? deadline : currentTick + HORIZON - 1;
+		int level = 0;
+		while (level < LEVELS - 1 && placement - currentTick >= 1L << (BITS * (level + 1))) {
+			level++;
+		}
+		int index = index(placement, level);
+		Slot slot = slots[level][index];
+		if (slot == null) {
+			slot = new Slot();
+			slots[level][index] = slot;
+		}
+		slot.add(couponId, deadline);
+	}
+
+	private static int index(long tick, int level) {
+		return (int) ((tick >>> (BITS * level)) & MASK);
+	}
+
+	/**
+	 * Entries of one slot, as parallel primitive arrays.
+	 */
+	private static final class Slot {
+
+		private static final int INITIAL_CAPACITY = 8;
+
+		private long[] ids = new long[INITIAL_CAPACITY];
+		private long[] deadlines = new long[INITIAL_CAPACITY];
+		private int size;
+
+		void add(long id, long deadline) {
+			if (size == ids.length) {
+				ids = Arrays.copyOf(ids, size * 2);
+				deadlines = Arrays.copyOf(deadlines, size * 2);
+			}
+			ids[size] = id;
+			deadlines[size] = deadline;
+			size++;
+		}
+
+		/**
+		 * Moves the entries into a new slot and empties this one, so entries can
+		 * be placed back into this slot while the returned one is iterated.
+		 */
+		Slot drain() {
+			Slot drained = new Slot();
+			drained.ids = ids;
+			drained.deadlines = deadlines;
+			drained.size = size;
+			ids = new long[INITIAL_CAPACITY];
+			deadlines = new long[INITIAL_CAPACITY];
+			size = 0;
+			return drained;
+		}
+	}
+}
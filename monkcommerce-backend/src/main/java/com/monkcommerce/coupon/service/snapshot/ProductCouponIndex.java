@@ -0,0 +1,100 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.monkcommerce.coupon.service.rule.ProductWiseRule;
+
+/**
+ * Immutable inverted index from product ID to the product-wise coupons that
+ * target it.
+ * <p>
+ * Backed by an open-addressing hash table over a primitive {@code long[]} key
+ * array, so lookups neither box the product ID nor allocate. Looking up the
+ * products of a cart therefore costs O(cart items), independent of how many
+ * product-wise coupons exist.
+ * </p>
+ */
+public final class ProductCouponIndex {
+
+	private static final ProductWiseRule[] NONE = new ProductWiseRule[0];
+
+	private final long[] keys;
+	private final ProductWiseRule[][] values;
+	private final int mask;
+
+	private ProductCouponIndex(long[] keys, ProductWiseRule[][] values) {
+		this.keys = keys;
+		this.values = values;
+		this.mask = keys.length - 1;
+	}
+
+	/**
+	 * Builds an index over the given rules.
+	 *
+	 * @param rules product-wise rules to index
+	 * @return the index
+	 */
+	public static ProductCouponIndex build(Collection<ProductWiseRule> rules) {
+		Map<Long, List<ProductWiseRule>> byProduct = new HashMap<>();
+		for (ProductWiseRule rule : rules) {
+			byProduct.computeIfAbsent(rule.getProductId(), id -> new ArrayList<>(1)).add(rule);
+		}
+
+		int capacity = tableSizeFor(byProduct.size());
+		long[] keys = new long[capacity];
+		ProductWiseRule[][] values = new ProductWiseRule[capacity][];
+		int mask = capacity - 1;
+		for (Map.Entry<Long, List<ProductWiseRule>> entry : byProduct.entrySet()) {
+			long productId = entry.getKey();
+			int slot = hash(productId) & mask;
+			while (values[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = productId;
+			values[slot] = entry.getValue().toArray(NONE);
+		}
+		return new ProductCouponIndex(keys, values);
+	}
+
+	/**
+	 * Returns the product-wise rules targeting the given product.
+	 * <p>
+	 * The returned array is shared and must not be modified.
+	 * </p>
+	 *
+	 * @param productId the product ID
+	 * @return matching rules, or an empty array
+	 */
+	public ProductWiseRule[] get(long productId) {
+		int slot = hash(productId) & mask;
+		ProductWiseRule[] rules;
+		while ((rules = values[slot]) != null) {
+			if (keys[slot] == productId) {
+				return rules;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NONE;
+	}
+
+	private static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Power-of-two table size keeping the load factor at or below 0.5, with at
+	 * least one free slot so probing always terminates.
+	 */
+	private static int tableSizeFor(int entries) {
+		int capacity = 2;
+		while (capacity < entries * 2) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+}
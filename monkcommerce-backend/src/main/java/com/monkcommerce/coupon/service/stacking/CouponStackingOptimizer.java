@@ -0,0 +1,253 @@
+package com.monkcommerce.coupon.service.stacking;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds the combination of applicable coupons that gives the highest total
+ * discount.
+ * <p>
+ * The answer is either a single coupon (stackable or exclusive) or a set of
+ * stackable coupons whose {@link StackingCandidate#getClaims() claims} do not
+ * overlap. Choosing that set is a weighted set-packing problem, solved with a
+ * depth-first branch-and-bound search:
+ * <ul>
+ * <li>candidates are visited by descending discount and the greedy
+ * combination seeds the incumbent</li>
+ * <li>a branch is pruned once its discount plus an upper bound of the
+ * remaining coupons cannot beat the incumbent; the bound spreads each coupon's
+ * discount over the parts of the cart it claims and takes the best share per
+ * part</li>
+ * <li>the search stops at {@code coupon.stacking.time-budget} and returns the
+ * best combination found so far</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class CouponStackingOptimizer {
+
+	/**
+	 * How many nodes are visited between two clock reads.
+	 */
+	private static final int DEADLINE_CHECK_MASK = 1023;
+
+	private static final Comparator<StackingCandidate> BEST_FIRST = Comparator
+			.comparingLong(StackingCandidate::getDiscount).reversed()
+			.thenComparing(StackingCandidate::getCouponId);
+
+	private final Duration timeBudget;
+
+	public CouponStackingOptimizer(@Value("${coupon.stacking.time-budget:PT0.05S}") Duration timeBudget) {
+		this.timeBudget = timeBudget;
+	}
+
+	/**
+	 * Computes the best combination of the given coupons.
+	 *
+	 * @param candidates coupons applicable to the cart
+	 * @return the selected combination
+	 */
+	public StackingResult optimize(List<StackingCandidate> candidates) {
+		long deadline = System.nanoTime() + timeBudget.toNanos();
+
+		StackingCandidate bestSingle = null;
+		List<StackingCandidate> stackable = new ArrayList<>();
+		for (StackingCandidate candidate : candidates) {
+			if (candidate.getDiscount() <= 0) {
+				continue;
+			}
+			if (bestSingle == null || BEST_FIRST.compare(candidate, bestSingle) < 0) {
+				bestSingle = candidate;
+			}
+			if (candidate.isStackable()) {
+				stackable.add(candidate);
+			}
+		}
+		if (bestSingle == null) {
+			return new StackingResult(List.of(), 0, true, 0);
+		}
+
+		stackable.sort(BEST_FIRST);
+		Search search = new Search(stackable.toArray(new StackingCandidate[0]), deadline);
+		search.run();
+
+		if (bestSingle.getDiscount() >= search.bestTotal) {
+			return new StackingResult(List.of(bestSingle), bestSingle.getDiscount(), !search.timedOut, search.nodes);
+		}
+		List<StackingCandidate> selected = new ArrayList<>();
+		for (int i = 0; i < search.items.length; i++) {
+			if (search.bestChosen[i]) {
+				selected.add(search.items[i]);
+			}
+		}
+		return new StackingResult(selected, search.bestTotal, !search.timedOut, search.nodes);
+	}
+
+	/**
+	 * State of one branch-and-bound run over stackable candidates sorted best
+	 * first.
+	 * <p>
+	 * Claims are flattened to {@code int[]} bit lists and the claimed bits of the
+	 * current branch to a {@code boolean[]}, so the inner loop neither allocates
+	 * nor walks {@link BitSet} words.
+	 * </p>
+	 */
+	private static final class Search {
+
+		private final StackingCandidate[] items;
+		private final long[] discounts;
+		private final int[][] claimBits;
+
+		/**
+		 * {@code shares[i]} is item {@code i}'s discount divided by its number of
+		 * claimed bits.
+		 */
+		private final double[] shares;
+
+		/**
+		 * {@code remaining[i]} is the sum of discounts of items {@code i..n-1}.
+		 */
+		private final long[] remaining;
+
+		private final boolean[] chosen;
+		private final boolean[] bestChosen;
+		private final boolean[] used;
+		private final double[] bestShareByBit;
+		private final long deadline;
+
+		private long bestTotal;
+		private long nodes;
+		private boolean timedOut;
+
+		private Search(StackingCandidate[] items, long deadline) {
+			int n = items.length;
+			int bitCount = 0;
+			this.items = items;
+			this.discounts = new long[n];
+			this.claimBits = new int[n][];
+			this.shares = new double[n];
+			this.remaining = new long[n + 1];
+			this.chosen = new boolean[n];
+			this.bestChosen = new boolean[n];
+			this.deadline = deadline;
+			for (int i = 0; i < n; i++) {
+				discounts[i] = items[i].getDiscount();
+				claimBits[i] = items[i].getClaims().stream().toArray();
+				shares[i] = claimBits[i].length == 0 ? discounts[i] : (double) discounts[i] / claimBits[i].length;
+				bitCount = Math.max(bitCount, items[i].getClaims().length());
+			}
+			for (int i = n - 1; i >= 0; i--) {
+				remaining[i] = remaining[i + 1] + discounts[i];
+			}
+			this.used = new boolean[bitCount];
+			this.bestShareByBit = new double[bitCount];
+		}
+
+		private void run() {
+			seedGreedy();
+			search(0, 0);
+		}
+
+		/**
+		 * Takes every item that fits, best first, as the initial incumbent.
+		 */
+		private void seedGreedy() {
+			for (int i = 0; i < items.length; i++) {
+				if (fits(i)) {
+					claim(i, true);
+					bestChosen[i] = true;
+					bestTotal += discounts[i];
+				}
+			}
+			for (int i = 0; i < items.length; i++) {
+				if (bestChosen[i]) {
+					claim(i, false);
+				}
+			}
+		}
+
+		private void search(int index, long current) {
+			if (timedOut) {
+				return;
+			}
+			if ((++nodes & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+				timedOut = true;
+				return;
+			}
+			if (current > bestTotal) {
+				bestTotal = current;
+				System.arraycopy(chosen, 0, bestChosen, 0, chosen.length);
+			}
+			if (index == items.length || current + remaining[index] <= bestTotal
+					|| current + upperBound(index) <= bestTotal) {
+				return;
+			}
+
+			if (fits(index)) {
+				claim(index, true);
+				chosen[index] = true;
+				search(index + 1, current + discounts[index]);
+				chosen[index] = false;
+				claim(index, false);
+			}
+			search(index + 1, current);
+		}
+
+		/**
+		 * Upper bound of the discount still obtainable from items
+		 * {@code index..n-1}.
+		 * <p>
+		 * Each item's discount is spread evenly over the bits it claims. In any
+		 * valid combination a free bit is claimed by at most one item, so the sum
+		 * over free bits of the largest share offered for that bit bounds the
+		 * result. Items without claims never conflict and count in full. The
+		 * bound is exact when every item claims a single bit.
+		 * </p>
+		 */
+		private double upperBound(int index) {
+			Arrays.fill(bestShareByBit, 0.0);
+			double unclaimed = 0.0;
+			for (int i = index; i < items.length; i++) {
+				if (!fits(i)) {
+					continue;
+				}
+				if (claimBits[i].length == 0) {
+					unclaimed += discounts[i];
+					continue;
+				}
+				for (int bit : claimBits[i]) {
+					if (shares[i] > bestShareByBit[bit]) {
+						bestShareByBit[bit] = shares[i];
+					}
+				}
+			}
+			double bound = unclaimed;
+			for (double share : bestShareByBit) {
+				bound += share;
+			}
+			return bound;
+		}
+
+		private boolean fits(int item) {
+			for (int bit : claimBits[item]) {
+				if (used[bit]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private void claim(int item, boolean claimed) {
+			for (int bit : claimBits[item]) {
+				used[bit] = claimed;
+			}
+		}
+	}
+}
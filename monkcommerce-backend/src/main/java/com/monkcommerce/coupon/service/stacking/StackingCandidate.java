@@ -0,0 +1,36 @@
+package com.monkcommerce.coupon.service.stacking;
+
+import java.util.BitSet;
+
+import lombok.Value;
+
+/**
+ * A coupon that applies to the cart, as seen by the
+ * {@link CouponStackingOptimizer}.
+ */
+@Value
+public class StackingCandidate {
+
+	Long couponId;
+
+	/**
+	 * Coupon type value (e.g. "cart-wise"), carried through to the response.
+	 */
+	String type;
+
+	/**
+	 * Discount the coupon gives the cart on its own, in minor units.
+	 */
+	long discount;
+
+	/**
+	 * Whether the coupon may be combined with other stackable coupons.
+	 */
+	boolean stackable;
+
+	/**
+	 * Parts of the cart the coupon discounts; see
+	 * {@link com.monkcommerce.coupon.service.strategy.CouponStrategy#claims}.
+	 */
+	BitSet claims;
+}
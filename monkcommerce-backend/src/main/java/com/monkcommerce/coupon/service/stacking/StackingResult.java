@@ -0,0 +1,34 @@
+package com.monkcommerce.coupon.service.stacking;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Combination of coupons chosen by the {@link CouponStackingOptimizer}.
+ */
+@Value
+public class StackingResult {
+
+	/**
+	 * Selected coupons, highest discount first. Empty if no coupon applies.
+	 */
+	List<StackingCandidate> coupons;
+
+	/**
+	 * Sum of the selected coupons' discounts, in minor units.
+	 */
+	long totalDiscount;
+
+	/**
+	 * {@code true} if the search completed within the time budget, so the
+	 * combination is proven optimal; {@code false} if it is the best found
+	 * before the budget ran out.
+	 */
+	boolean optimal;
+
+	/**
+	 * Number of search nodes visited.
+	 */
+	long nodesExplored;
+}
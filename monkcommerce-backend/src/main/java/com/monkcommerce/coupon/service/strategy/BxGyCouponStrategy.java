@@ -0,0 +1,249 @@
+package com.monkcommerce.coupon.service.strategy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import com.monkcommerce.coupon.entity.Cart;
+import com.monkcommerce.coupon.entity.CartItem;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.service.rule.BxGyRule;
+import com.monkcommerce.coupon.service.rule.CouponDetailsParser;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Strategy implementation for Buy-X-Get-Y coupons.
+ * <p>
+ * This strategy makes units of the "get" products free once the {@link Cart}
+ * contains enough units of the "buy" products. The {@link Coupon} is expected
+ * to contain:
+ * <ul>
+ * <li><b>buy_products</b> - JSON array of
+ * {@code {"product_id": .., "quantity": ..}}; every {@code quantity} units of
+ * a listed product earn one repetition</li>
+ * <li><b>get_products</b> - JSON array of
+ * {@code {"product_id": .., "quantity": ..}}; units of each product made free
+ * per repetition</li>
+ * <li><b>repetition_limit</b> - optional maximum number of repetitions
+ * (default {@code 1})</li>
+ * </ul>
+ * These are compiled into a {@link BxGyRule}.
+ * </p>
+ * <p>
+ * Evaluation is a single pass over the rule's products, reading merged
+ * quantities from the {@link EvaluationCart}: repetitions and free units are
+ * computed arithmetically, so the cost does not depend on the repetition limit
+ * or the quantities in the cart.
+ * </p>
+ */
+@Component
+public class BxGyCouponStrategy implements CouponStrategy {
+
+	@Override
+	public CouponType getType() {
+		return CouponType.BXGY;
+	}
+
+	/**
+	 * Compiles the {@code buy_products}, {@code get_products} and
+	 * {@code repetition_limit} details.
+	 *
+	 * @param coupon the BxGy coupon
+	 * @return the compiled {@link BxGyRule}
+	 * @throws InvalidCouponException if a detail is missing or malformed, the
+	 *                                repetition limit is not positive, or a
+	 *                                product is both a buy and a get product
+	 */
+	@Override
+	public CouponRule compile(Coupon coupon) {
+		Map<String, String> details = coupon.getDetails();
+		Map<Long, Integer> buy = CouponDetailsParser.requireProductQuantities(details, "buy_products");
+		Map<Long, Integer> get = CouponDetailsParser.requireProductQuantities(details, "get_products");
+
+		int repetitionLimit = 1;
+		if (details.get("repetition_limit") != null) {
+			long limit = CouponDetailsParser.requireLong(details, "repetition_limit");
+			if (limit <= 0 || limit > Integer.MAX_VALUE) {
+				throw new InvalidCouponException("repetition_limit", details.get("repetition_limit"));
+			}
+			repetitionLimit = (int) limit;
+		}
+
+		for (Long productId : get.keySet()) {
+			if (buy.containsKey(productId)) {
+				throw new InvalidCouponException("Product " + productId + " cannot be both a buy and a get product");
+			}
+		}
+
+		return new BxGyRule(coupon.getId(), coupon.getExpirationDate(), Boolean.TRUE.equals(coupon.getIsStackable()),
+				toIds(buy), toQuantities(buy), toIds(get), toQuantities(get), repetitionLimit);
+	}
+
+	/**
+	 * Checks if the coupon is applicable to the given cart.
+	 * <p>
+	 * A BxGy coupon is applicable if the cart earns at least one repetition and
+	 * contains at least one unit of a get product.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link BxGyRule}
+	 * @return {@code true} if at least one unit would be free, {@code false}
+	 *         otherwise
+	 */
+	@Override
+	public boolean isApplicable(EvaluationCart cart, CouponRule rule) {
+		return calculateDiscount(cart, rule) > 0;
+	}
+
+	/**
+	 * Calculates the value of the free units.
+	 * <p>
+	 * Free units of a get product are taken from its cart lines in order, at
+	 * each line's unit price, exactly as
+	 * {@link #applyCoupon(EvaluationCart, CouponRule)} assigns them.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link BxGyRule}
+	 * @return the total price of the free units; {@code 0} if not applicable
+	 */
+	@Override
+	public long calculateDiscount(EvaluationCart cart, CouponRule rule) {
+		BxGyRule bxGyRule = (BxGyRule) rule;
+		long repetitions = repetitions(cart, bxGyRule);
+		if (repetitions == 0) {
+			return 0;
+		}
+
+		long[] getProductIds = bxGyRule.getGetProductIds();
+		int[] getQuantities = bxGyRule.getGetQuantities();
+		long discount = 0;
+		for (int i = 0; i < getProductIds.length; i++) {
+			int slot = cart.slotOf(getProductIds[i]);
+			if (slot >= 0) {
+				long free = Math.min(cart.getQuantity(slot), repetitions * getQuantities[i]);
+				for (int line = cart.getFirstLine(slot); line >= 0 && free > 0; line = cart.getNextLine(line)) {
+					long lineFree = Math.min(cart.getLineQuantity(line), free);
+					discount += lineFree * cart.getLinePrice(line);
+					free -= lineFree;
+				}
+			}
+		}
+		return discount;
+	}
+
+	/**
+	 * Returns the cart total, a trivial upper bound for free units.
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link BxGyRule}
+	 * @return the cart total
+	 */
+	@Override
+	public long maxDiscount(EvaluationCart cart, CouponRule rule) {
+		return cart.getTotalPrice();
+	}
+
+	/**
+	 * Claims the slots of the get products present in the cart, so two stacked
+	 * coupons never discount the same free units.
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link BxGyRule}
+	 * @return the get products' slot bits
+	 */
+	@Override
+	public BitSet claims(EvaluationCart cart, CouponRule rule) {
+		BitSet claims = new BitSet(cart.getProductCount() + 1);
+		for (long productId : ((BxGyRule) rule).getGetProductIds()) {
+			int slot = cart.slotOf(productId);
+			if (slot >= 0) {
+				claims.set(slot);
+			}
+		}
+		return claims;
+	}
+
+	/**
+	 * Applies the coupon to the given cart.
+	 * <p>
+	 * Free units are assigned to the get products' cart lines in order, each line
+	 * receiving at most its quantity. The returned {@link Cart} carries copies of
+	 * the items with their per-item discount, plus the total price, total
+	 * discount, and final price.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} of the request
+	 * @param rule the {@link BxGyRule}
+	 * @return a new {@link Cart} instance with updated prices and discounts
+	 */
+	@Override
+	public Cart applyCoupon(EvaluationCart cart, CouponRule rule) {
+		BxGyRule bxGyRule = (BxGyRule) rule;
+		long repetitions = repetitions(cart, bxGyRule);
+
+		long[] freeBySlot = new long[cart.getProductCount()];
+		long[] getProductIds = bxGyRule.getGetProductIds();
+		int[] getQuantities = bxGyRule.getGetQuantities();
+		for (int i = 0; i < getProductIds.length; i++) {
+			int slot = cart.slotOf(getProductIds[i]);
+			if (slot >= 0) {
+				freeBySlot[slot] = Math.min(cart.getQuantity(slot), repetitions * getQuantities[i]);
+			}
+		}
+
+		List<CartItem> items = new ArrayList<>(cart.getLineCount());
+		long totalDiscount = 0;
+		for (int line = 0; line < cart.getLineCount(); line++) {
+			int slot = cart.getLineSlot(line);
+			long price = cart.getLinePrice(line);
+			long itemDiscount = 0;
+			if (freeBySlot[slot] > 0) {
+				long free = Math.min(cart.getLineQuantity(line), freeBySlot[slot]);
+				freeBySlot[slot] -= free;
+				itemDiscount = free * price;
+				totalDiscount += itemDiscount;
+			}
+			items.add(new CartItem(cart.getLineProductId(line), cart.getLineQuantity(line), price, itemDiscount));
+		}
+
+		Cart updatedCart = new Cart();
+		updatedCart.setItems(items);
+		updatedCart.setTotalPrice(cart.getTotalPrice());
+		updatedCart.setTotalDiscount(totalDiscount);
+		updatedCart.setFinalPrice(cart.getTotalPrice() - totalDiscount);
+
+		return updatedCart;
+	}
+
+	/**
+	 * Number of repetitions the cart earns, capped by the repetition limit.
+	 */
+	private long repetitions(EvaluationCart cart, BxGyRule rule) {
+		long[] buyProductIds = rule.getBuyProductIds();
+		int[] buyQuantities = rule.getBuyQuantities();
+		long repetitions = 0;
+		for (int i = 0; i < buyProductIds.length && repetitions < rule.getRepetitionLimit(); i++) {
+			int slot = cart.slotOf(buyProductIds[i]);
+			if (slot >= 0) {
+				repetitions += cart.getQuantity(slot) / buyQuantities[i];
+			}
+		}
+		return Math.min(repetitions, rule.getRepetitionLimit());
+	}
+
+	private static long[] toIds(Map<Long, Integer> quantities) {
+		return quantities.keySet().stream().mapToLong(Long::longValue).toArray();
+	}
+
+	private static int[] toQuantities(Map<Long, Integer> quantities) {
+		return quantities.values().stream().mapToInt(Integer::intValue).toArray();
+	}
+}
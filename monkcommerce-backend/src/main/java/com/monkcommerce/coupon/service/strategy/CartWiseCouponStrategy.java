@@ -1,7 +1,16 @@
 package com.monkcommerce.coupon.service.strategy;
 
+import java.util.BitSet;
+
 import com.monkcommerce.coupon.entity.Cart;
 import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.money.Money;
+import com.monkcommerce.coupon.service.rule.CartWiseRule;
+import com.monkcommerce.coupon.service.rule.CouponDetailsParser;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+
 import org.springframework.stereotype.Component;
 
 /**
@@ -15,11 +24,40 @@ import org.springframework.stereotype.Component;
  * applicable</li>
  * <li><b>discount</b> - the discount percentage (e.g., {@code 15} for 15%)</li>
  * </ul>
+ * These are compiled into a {@link CartWiseRule}.
  * </p>
  */
 @Component
 public class CartWiseCouponStrategy implements CouponStrategy {
 
+	@Override
+	public CouponType getType() {
+		return CouponType.CART_WISE;
+	}
+
+	/**
+	 * Compiles the {@code threshold} and {@code discount} details.
+	 *
+	 * @param coupon the cart-wise coupon
+	 * @return the compiled {@link CartWiseRule}
+	 * @throws com.monkcommerce.coupon.exception.InvalidCouponException if a
+	 *                                                                  detail is
+	 *                                                                  missing,
+	 *                                                                  not
+	 *                                                                  numeric,
+	 *                                                                  or the
+	 *                                                                  threshold
+	 *                                                                  is
+	 *                                                                  negative
+	 */
+	@Override
+	public CouponRule compile(Coupon coupon) {
+		long threshold = CouponDetailsParser.requireAmount(coupon.getDetails(), "threshold");
+		int discountBasisPoints = CouponDetailsParser.requirePercent(coupon.getDetails(), "discount");
+		return new CartWiseRule(coupon.getId(), coupon.getExpirationDate(),
+				Boolean.TRUE.equals(coupon.getIsStackable()), threshold, discountBasisPoints);
+	}
+
 	/**
 	 * Checks if the coupon is applicable to the given cart.
 	 * <p>
@@ -27,34 +65,59 @@ public class CartWiseCouponStrategy implements CouponStrategy {
 	 * than the threshold specified in the coupon details.
 	 * </p>
 	 *
-	 * @param cart   the {@link Cart} containing items
-	 * @param coupon the {@link Coupon} with threshold and discount details
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link CartWiseRule} with threshold and discount details
 	 * @return {@code true} if the cart total exceeds the threshold, {@code false}
 	 *         otherwise
 	 */
 	@Override
-	public boolean isApplicable(Cart cart, Coupon coupon) {
-		double threshold = Double.parseDouble(coupon.getDetails().get("threshold"));
-		return cart.calculateTotalPrice() > threshold;
+	public boolean isApplicable(EvaluationCart cart, CouponRule rule) {
+		return cart.getTotalPrice() > ((CartWiseRule) rule).getThreshold();
 	}
 
 	/**
 	 * Calculates the discount amount for the given cart if the coupon is
 	 * applicable.
 	 *
-	 * @param cart   the {@link Cart} containing items
-	 * @param coupon the {@link Coupon} with discount details
-	 * @return the discount amount based on the cart total; {@code 0.0} if not
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link CartWiseRule} with discount details
+	 * @return the discount amount based on the cart total, rounded once;
+	 *         {@code 0} if not
 	 *         applicable
 	 */
 	@Override
-	public double calculateDiscount(Cart cart, Coupon coupon) {
-		if (!isApplicable(cart, coupon)) {
-			return 0.0;
+	public long calculateDiscount(EvaluationCart cart, CouponRule rule) {
+		if (!isApplicable(cart, rule)) {
+			return 0;
 		}
 
-		double discountPercentage = Double.parseDouble(coupon.getDetails().get("discount"));
-		return cart.calculateTotalPrice() * (discountPercentage / 100);
+		return Money.percentOf(cart.getTotalPrice(), ((CartWiseRule) rule).getDiscountBasisPoints());
+	}
+
+	/**
+	 * Returns the discount the coupon would give if the cart met the threshold.
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link CartWiseRule} with discount details
+	 * @return the cart total multiplied by the discount percentage
+	 */
+	@Override
+	public long maxDiscount(EvaluationCart cart, CouponRule rule) {
+		return Money.percentOf(cart.getTotalPrice(), ((CartWiseRule) rule).getDiscountBasisPoints());
+	}
+
+	/**
+	 * Claims the cart as a whole, so at most one cart-wise coupon is stacked.
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link CartWiseRule}
+	 * @return the cart-level bit
+	 */
+	@Override
+	public BitSet claims(EvaluationCart cart, CouponRule rule) {
+		BitSet claims = new BitSet(cart.getProductCount() + 1);
+		claims.set(cart.getProductCount());
+		return claims;
 	}
 
 	/**
@@ -65,19 +128,19 @@ public class CartWiseCouponStrategy implements CouponStrategy {
 	 * accordingly.
 	 * </p>
 	 *
-	 * @param cart   the original {@link Cart}
-	 * @param coupon the {@link Coupon} with threshold and discount details
+	 * @param cart the {@link EvaluationCart} of the request
+	 * @param rule the {@link CartWiseRule} with threshold and discount details
 	 * @return a new {@link Cart} instance with updated totals
 	 */
 	@Override
-	public Cart applyCoupon(Cart cart, Coupon coupon) {
-		double discount = calculateDiscount(cart, coupon);
+	public Cart applyCoupon(EvaluationCart cart, CouponRule rule) {
+		long discount = calculateDiscount(cart, rule);
 
 		Cart updatedCart = new Cart();
-		updatedCart.setItems(cart.getItems());
-		updatedCart.setTotalPrice(cart.calculateTotalPrice());
+		updatedCart.setItems(cart.toCartItems());
+		updatedCart.setTotalPrice(cart.getTotalPrice());
 		updatedCart.setTotalDiscount(discount);
-		updatedCart.setFinalPrice(cart.calculateTotalPrice() - discount);
+		updatedCart.setFinalPrice(cart.getTotalPrice() - discount);
 
 		return updatedCart;
 	}
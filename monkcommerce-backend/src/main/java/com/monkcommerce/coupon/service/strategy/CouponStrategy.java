@@ -1,7 +1,12 @@
 package com.monkcommerce.coupon.service.strategy;
 
+import java.util.BitSet;
+
 import com.monkcommerce.coupon.entity.Cart;
 import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.rule.CouponRule;
 
 /**
  * Strategy interface for applying coupon business rules.
@@ -9,6 +14,7 @@ import com.monkcommerce.coupon.entity.Coupon;
  * Each {@link Coupon} type should have a dedicated implementation of this
  * interface that defines:
  * <ul>
+ * <li>How the coupon's details are compiled into a {@link CouponRule}</li>
  * <li>Whether the coupon is applicable to a given {@link Cart}</li>
  * <li>How the discount is calculated</li>
  * <li>How the coupon is applied to update the cart totals</li>
@@ -16,38 +22,95 @@ import com.monkcommerce.coupon.entity.Coupon;
  * This follows the <b>Strategy Pattern</b>, allowing new coupon types to be
  * added without modifying existing business logic.
  * </p>
+ * <p>
+ * The evaluation methods receive the rule produced by
+ * {@link #compile(Coupon)} for this strategy's {@link #getType()}, and the
+ * request's {@link EvaluationCart}, whose totals are computed once and shared
+ * across all strategies.
+ * </p>
  */
 public interface CouponStrategy {
 
+	/**
+	 * @return the coupon type handled by this strategy
+	 */
+	CouponType getType();
+
+	/**
+	 * Parses and validates the coupon's details into an immutable rule.
+	 *
+	 * @param coupon the coupon to compile
+	 * @return the compiled {@link CouponRule}
+	 * @throws com.monkcommerce.coupon.exception.InvalidCouponException if the
+	 *                                                                  details
+	 *                                                                  are
+	 *                                                                  missing or
+	 *                                                                  malformed
+	 */
+	CouponRule compile(Coupon coupon);
+
 	/**
 	 * Determines whether the given coupon can be applied to the cart.
 	 *
-	 * @param cart   the {@link Cart} containing items and totals
-	 * @param coupon the {@link Coupon} to validate
+	 * @param cart the {@link EvaluationCart} containing items and totals
+	 * @param rule the compiled {@link CouponRule} to validate
 	 * @return {@code true} if the coupon is applicable; {@code false} otherwise
 	 */
-	boolean isApplicable(Cart cart, Coupon coupon);
+	boolean isApplicable(EvaluationCart cart, CouponRule rule);
 
 	/**
 	 * Calculates the discount amount for the given cart if the coupon is
 	 * applicable.
 	 *
-	 * @param cart   the {@link Cart} containing items and totals
-	 * @param coupon the {@link Coupon} for which to calculate the discount
-	 * @return the discount amount (≥ 0). Returns {@code 0.0} if not applicable
+	 * @param cart the {@link EvaluationCart} containing items and totals
+	 * @param rule the compiled {@link CouponRule} for which to calculate the
+	 *             discount
+	 * @return the discount amount in minor units (≥ 0). Returns {@code 0} if not
+	 *         applicable
+	 */
+	long calculateDiscount(EvaluationCart cart, CouponRule rule);
+
+	/**
+	 * Returns an upper bound of the discount this coupon could give the cart,
+	 * without checking applicability.
+	 * <p>
+	 * Must be cheaper than {@link #calculateDiscount(EvaluationCart, CouponRule)}
+	 * and never smaller than it. Used to skip full evaluation of coupons that
+	 * cannot beat the ones already selected.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} containing items and totals
+	 * @param rule the compiled {@link CouponRule}
+	 * @return the maximum possible discount amount in minor units (≥ 0)
+	 */
+	long maxDiscount(EvaluationCart cart, CouponRule rule);
+
+	/**
+	 * Returns the parts of the cart this coupon discounts, used to decide which
+	 * stackable coupons can be combined.
+	 * <p>
+	 * Bits {@code 0} to {@code cart.getProductCount() - 1} are the product slots
+	 * of the {@link EvaluationCart}; bit {@code cart.getProductCount()} stands
+	 * for the cart as a whole. Two coupons claiming the same bit cannot be
+	 * stacked.
+	 * </p>
+	 *
+	 * @param cart the {@link EvaluationCart} containing items and totals
+	 * @param rule the compiled {@link CouponRule}, applicable to the cart
+	 * @return the claimed bits
 	 */
-	double calculateDiscount(Cart cart, Coupon coupon);
+	BitSet claims(EvaluationCart cart, CouponRule rule);
 
 	/**
 	 * Applies the coupon to the given cart, updating totals and discounts.
 	 *
-	 * @param cart   the {@link Cart} to which the coupon will be applied
-	 * @param coupon the {@link Coupon} being applied
+	 * @param cart the {@link EvaluationCart} to which the coupon will be applied
+	 * @param rule the compiled {@link CouponRule} being applied
 	 * @return the updated {@link Cart} with discounts applied
 	 * @throws com.monkcommerce.coupon.exception.InvalidCouponException if the
 	 *                                                                  coupon
 	 *                                                                  cannot be
 	 *                                                                  applied
 	 */
-	Cart applyCoupon(Cart cart, Coupon coupon);
+	Cart applyCoupon(EvaluationCart cart, CouponRule rule);
 }
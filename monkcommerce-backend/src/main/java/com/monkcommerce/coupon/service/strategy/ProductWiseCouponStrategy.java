@@ -1,8 +1,19 @@
 package com.monkcommerce.coupon.service.strategy;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
 import com.monkcommerce.coupon.entity.Cart;
 import com.monkcommerce.coupon.entity.CartItem;
 import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.money.Money;
+import com.monkcommerce.coupon.service.rule.CouponDetailsParser;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.rule.ProductWiseRule;
+
 import org.springframework.stereotype.Component;
 
 /**
@@ -15,11 +26,35 @@ import org.springframework.stereotype.Component;
  * applies</li>
  * <li><b>discount</b> - the discount percentage (e.g., {@code 10} for 10%)</li>
  * </ul>
+ * These are compiled into a {@link ProductWiseRule}.
  * </p>
  */
 @Component
 public class ProductWiseCouponStrategy implements CouponStrategy {
 
+	@Override
+	public CouponType getType() {
+		return CouponType.PRODUCT_WISE;
+	}
+
+	/**
+	 * Compiles the {@code product_id} and {@code discount} details.
+	 *
+	 * @param coupon the product-wise coupon
+	 * @return the compiled {@link ProductWiseRule}
+	 * @throws com.monkcommerce.coupon.exception.InvalidCouponException if a
+	 *                                                                  detail is
+	 *                                                                  missing or
+	 *                                                                  malformed
+	 */
+	@Override
+	public CouponRule compile(Coupon coupon) {
+		long productId = CouponDetailsParser.requireLong(coupon.getDetails(), "product_id");
+		int discountBasisPoints = CouponDetailsParser.requirePercent(coupon.getDetails(), "discount");
+		return new ProductWiseRule(coupon.getId(), coupon.getExpirationDate(),
+				Boolean.TRUE.equals(coupon.getIsStackable()), productId, discountBasisPoints);
+	}
+
 	/**
 	 * Checks if the coupon is applicable to the given cart.
 	 * <p>
@@ -27,70 +62,110 @@ public class ProductWiseCouponStrategy implements CouponStrategy {
 	 * with the product ID specified in the coupon details.
 	 * </p>
 	 *
-	 * @param cart   the {@link Cart} containing items
-	 * @param coupon the {@link Coupon} with product-specific details
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link ProductWiseRule} with product-specific details
 	 * @return {@code true} if the product is in the cart, {@code false} otherwise
 	 */
 	@Override
-	public boolean isApplicable(Cart cart, Coupon coupon) {
-		Long productId = Long.parseLong(coupon.getDetails().get("product_id"));
-		return cart.getItems().stream().anyMatch(item -> item.getProductId().equals(productId));
+	public boolean isApplicable(EvaluationCart cart, CouponRule rule) {
+		return cart.containsProduct(((ProductWiseRule) rule).getProductId());
 	}
 
 	/**
 	 * Calculates the discount amount for the given cart if the coupon is
 	 * applicable.
+	 * <p>
+	 * The percentage is rounded per cart line, so the result always equals the
+	 * sum of the item discounts returned by
+	 * {@link #applyCoupon(EvaluationCart, CouponRule)}.
+	 * </p>
 	 *
-	 * @param cart   the {@link Cart} containing items
-	 * @param coupon the {@link Coupon} with product-specific details
-	 * @return the total discount for the specified product; {@code 0.0} if not
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link ProductWiseRule} with product-specific details
+	 * @return the total discount for the specified product; {@code 0} if not
 	 *         applicable
 	 */
 	@Override
-	public double calculateDiscount(Cart cart, Coupon coupon) {
-		if (!isApplicable(cart, coupon)) {
-			return 0.0;
+	public long calculateDiscount(EvaluationCart cart, CouponRule rule) {
+		ProductWiseRule productRule = (ProductWiseRule) rule;
+		int slot = cart.slotOf(productRule.getProductId());
+		if (slot < 0) {
+			return 0;
+		}
+
+		long discount = 0;
+		for (int line = cart.getFirstLine(slot); line >= 0; line = cart.getNextLine(line)) {
+			discount += Money.percentOf(cart.getLineAmount(line), productRule.getDiscountBasisPoints());
 		}
+		return discount;
+	}
 
-		Long productId = Long.parseLong(coupon.getDetails().get("product_id"));
-		double discountPercentage = Double.parseDouble(coupon.getDetails().get("discount"));
+	/**
+	 * Returns the discount the coupon would give if the whole cart consisted of
+	 * the coupon's product. Avoids the product lookup.
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link ProductWiseRule} with discount details
+	 * @return the cart total multiplied by the discount percentage, plus the
+	 *         rounding allowance
+	 */
+	@Override
+	public long maxDiscount(EvaluationCart cart, CouponRule rule) {
+		// One rounding per line adds at most one minor unit per line
+		return Money.percentOf(cart.getTotalPrice(), ((ProductWiseRule) rule).getDiscountBasisPoints())
+				+ cart.getLineCount();
+	}
 
-		return cart.getItems().stream().filter(item -> item.getProductId().equals(productId))
-				.mapToDouble(item -> item.getPrice() * item.getQuantity() * (discountPercentage / 100)).sum();
+	/**
+	 * Claims the slot of the coupon's product, so at most one product-wise
+	 * coupon is stacked per product.
+	 *
+	 * @param cart the {@link EvaluationCart} containing items
+	 * @param rule the {@link ProductWiseRule}
+	 * @return the product's slot bit
+	 */
+	@Override
+	public BitSet claims(EvaluationCart cart, CouponRule rule) {
+		BitSet claims = new BitSet(cart.getProductCount() + 1);
+		claims.set(cart.slotOf(((ProductWiseRule) rule).getProductId()));
+		return claims;
 	}
 
 	/**
 	 * Applies the coupon to the given cart.
 	 * <p>
 	 * The discount is applied only to items matching the product ID specified in
-	 * the coupon details. The {@link Cart}'s total price, total discount, and final
-	 * price are recalculated accordingly.
+	 * the coupon details. The returned {@link Cart} carries copies of the items
+	 * with their per-item discount, plus the total price, total discount, and
+	 * final price.
 	 * </p>
 	 *
-	 * @param cart   the original {@link Cart}
-	 * @param coupon the {@link Coupon} with product-specific details
+	 * @param cart the {@link EvaluationCart} of the request
+	 * @param rule the {@link ProductWiseRule} with product-specific details
 	 * @return a new {@link Cart} instance with updated prices and discounts
 	 */
 	@Override
-	public Cart applyCoupon(Cart cart, Coupon coupon) {
-		Long productId = Long.parseLong(coupon.getDetails().get("product_id"));
-		double discountPercentage = Double.parseDouble(coupon.getDetails().get("discount"));
+	public Cart applyCoupon(EvaluationCart cart, CouponRule rule) {
+		ProductWiseRule productRule = (ProductWiseRule) rule;
+		long productId = productRule.getProductId();
+		int discountBasisPoints = productRule.getDiscountBasisPoints();
 
-		Cart updatedCart = new Cart();
-		updatedCart.setItems(cart.getItems());
-
-		double totalDiscount = 0.0;
-		for (CartItem item : updatedCart.getItems()) {
-			if (item.getProductId().equals(productId)) {
-				double itemDiscount = item.getPrice() * item.getQuantity() * (discountPercentage / 100);
-				item.setTotalDiscount(itemDiscount);
-				totalDiscount += itemDiscount;
-			}
+		List<CartItem> items = new ArrayList<>(cart.getLineCount());
+		long totalDiscount = 0;
+		for (int line = 0; line < cart.getLineCount(); line++) {
+			long itemDiscount = cart.getLineProductId(line) == productId
+					? Money.percentOf(cart.getLineAmount(line), discountBasisPoints)
+					: 0;
+			totalDiscount += itemDiscount;
+			items.add(new CartItem(cart.getLineProductId(line), cart.getLineQuantity(line), cart.getLinePrice(line),
+					itemDiscount));
 		}
 
-		updatedCart.setTotalPrice(cart.calculateTotalPrice());
+		Cart updatedCart = new Cart();
+		updatedCart.setItems(items);
+		updatedCart.setTotalPrice(cart.getTotalPrice());
 		updatedCart.setTotalDiscount(totalDiscount);
-		updatedCart.setFinalPrice(cart.calculateTotalPrice() - totalDiscount);
+		updatedCart.setFinalPrice(cart.getTotalPrice() - totalDiscount);
 
 		return updatedCart;
 	}
@@ -0,0 +1,25 @@
+-- Moves coupon details from the legacy coupon_details join table into the
+-- coupons.details JSON column (MySQL 5.7.22+).
+--
+-- CouponDetailsMigration runs the UPDATE automatically at startup in ID
+-- batches, before the web server starts; this script is the manual equivalent. Run it after the
+-- application has added the details column (spring.jpa.hibernate.ddl-auto).
+
+UPDATE coupons c
+SET c.details = COALESCE((SELECT JSON_OBJECTAGG(d.detail_key, d.detail_value)
+                          FROM coupon_details d
+                          WHERE d.coupon_id = c.id), JSON_OBJECT()),
+    c.version = c.version + 1
+WHERE c.details IS NULL;
+
+-- Record completion so CouponDetailsMigration skips its checks on startup.
+INSERT IGNORE INTO completed_migrations (name, completed_at) VALUES ('coupon-details-json', NOW());
+
+-- Verify: every coupon that had detail rows now has a details object.
+SELECT COUNT(*) AS unmigrated
+FROM coupons c
+WHERE c.details IS NULL
+  AND EXISTS (SELECT 1 FROM coupon_details d WHERE d.coupon_id = c.id);
+
+-- Once unmigrated is 0 and the application runs on the JSON column:
+-- DROP TABLE coupon_details;
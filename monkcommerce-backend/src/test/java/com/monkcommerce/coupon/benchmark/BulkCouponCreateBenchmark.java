@@ -0,0 +1,94 @@
+package com.monkcommerce.coupon.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Inserts per second of {@code POST /api/v1/coupons/bulk} compared with one
+ * {@code POST /api/v1/coupons} per coupon.
+ * <p>
+ * Sends {@code coupons} cart-wise coupons in bulk requests of
+ * {@code requestSize}, then creates {@code singleCoupons} coupons one request
+ * at a time, and prints the inserts per second of both. Every coupon gets a
+ * distinct expiration date (one second apart, starting a year from the run
+ * time), so runs do not collide on {@code uk_coupon_type_active_expiration}.
+ * The number of per-item failures reported by the bulk endpoint is printed as
+ * well.
+ * </p>
+ * <p>
+ * Start the application against MySQL, then run:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monkcommerce.coupon.benchmark.BulkCouponCreateBenchmark -Dexec.args="http://localhost:8080 50000 5000 1000"}
+ * </p>
+ * <p>
+ * Arguments (all optional): base URL, bulk coupon count (default 50000),
+ * coupons per bulk request (default 5000), coupons created one by one
+ * (default 1000).
+ * </p>
+ */
+public final class BulkCouponCreateBenchmark {
+
+	private BulkCouponCreateBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		int coupons = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+		int requestSize = args.length > 2 ? Integer.parseInt(args[2]) : 5_000;
+		int singleCoupons = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+
+		HttpClient client = HttpClient.newHttpClient();
+		LocalDateTime firstExpiration = LocalDateTime.now().plusYears(1).truncatedTo(ChronoUnit.SECONDS);
+
+		long start = System.nanoTime();
+		int failures = 0;
+		for (int from = 0; from < coupons; from += requestSize) {
+			int to = Math.min(from + requestSize, coupons);
+			StringBuilder body = new StringBuilder(64 * (to - from)).append('[');
+			for (int i = from; i < to; i++) {
+				body.append(i == from ? "" : ",").append(couponJson(firstExpiration.plusSeconds(i), i));
+			}
+			String response = send(client, baseUrl + "/api/v1/coupons/bulk", body.append(']').toString());
+			failures += count(response, "\"error\":\"");
+		}
+		double bulkSeconds = (System.nanoTime() - start) / 1e9;
+
+		start = System.nanoTime();
+		for (int i = 0; i < singleCoupons; i++) {
+			send(client, baseUrl + "/api/v1/coupons", couponJson(firstExpiration.plusSeconds(coupons + i), i));
+		}
+		double singleSeconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("bulk:   %d coupons in %.1f s = %.0f inserts/s (%d failed)%n", coupons, bulkSeconds,
+				(coupons - failures) / bulkSeconds, failures);
+		System.out.printf("single: %d coupons in %.1f s = %.0f inserts/s%n", singleCoupons, singleSeconds,
+				singleCoupons / singleSeconds);
+	}
+
+	private static String couponJson(LocalDateTime expiration, int i) {
+		return "{\"type\":\"cart-wise\",\"details\":{\"threshold\":" + (100 + i % 400) + ",\"discount\":"
+				+ (5 + i % 20) + "},\"expirationDate\":\"" + expiration + "\"}";
+	}
+
+	private static String send(HttpClient client, String url, String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofMinutes(10))
+				.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build();
+		HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() >= 300) {
+			throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+		}
+		return response.body();
+	}
+
+	private static int count(String text, String token) {
+		int count = 0;
+		for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+			count++;
+		}
+		return count;
+	}
+}
@@ -0,0 +1,138 @@
+package com.monkcommerce.coupon.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load generator for comparing Tomcat's platform-thread pool
+ * with the virtual-thread execution mode.
+ * <p>
+ * Each of {@code concurrency} clients (virtual threads) sends requests back to
+ * back for the measured duration, alternating between a database-bound call
+ * ({@code GET /api/v1/coupons/{id}}) and an in-memory evaluation
+ * ({@code POST /api/v1/applicable-coupons}). Throughput, p50, p99 and the error
+ * count are printed at the end; requests sent during the warm-up are not
+ * recorded.
+ * </p>
+ * <p>
+ * Start the application against MySQL, once as is and once with
+ * {@code --spring.profiles.active=virtual-threads}, and run against each:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monkcommerce.coupon.benchmark.CheckoutLoadGenerator -Dexec.args="http://localhost:8080 1 2000 30"}
+ * </p>
+ * <p>
+ * Arguments (all optional): base URL, coupon ID to fetch, concurrency,
+ * measured seconds, warm-up seconds.
+ * </p>
+ */
+public final class CheckoutLoadGenerator {
+
+	private static final String CART_JSON = """
+			{"items":[{"productId":1,"quantity":6,"price":50.0},
+			{"productId":2,"quantity":3,"price":30.0},
+			{"productId":3,"quantity":2,"price":25.0}]}""";
+
+	private CheckoutLoadGenerator() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		long couponId = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+		int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+		Duration measured = Duration.ofSeconds(args.length > 3 ? Long.parseLong(args[3]) : 30);
+		Duration warmup = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 10);
+
+		HttpRequest dbRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/coupons/" + couponId))
+				.timeout(Duration.ofSeconds(30)).GET().build();
+		HttpRequest evalRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/applicable-coupons"))
+				.timeout(Duration.ofSeconds(30)).header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(CART_JSON)).build();
+
+		long start = System.nanoTime();
+		long measureFrom = start + warmup.toNanos();
+		long measureUntil = measureFrom + measured.toNanos();
+		AtomicLong errors = new AtomicLong();
+
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+				HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+						.connectTimeout(Duration.ofSeconds(10)).executor(clients).build()) {
+			List<Future<long[]>> workers = new ArrayList<>(concurrency);
+			for (int w = 0; w < concurrency; w++) {
+				boolean dbFirst = (w & 1) == 0;
+				workers.add(clients.submit(() -> runClient(http, dbFirst ? dbRequest : evalRequest,
+						dbFirst ? evalRequest : dbRequest, measureFrom, measureUntil, errors)));
+			}
+
+			long[] latencies = new long[0];
+			for (Future<long[]> worker : workers) {
+				long[] recorded = worker.get();
+				int offset = latencies.length;
+				latencies = Arrays.copyOf(latencies, offset + recorded.length);
+				System.arraycopy(recorded, 0, latencies, offset, recorded.length);
+			}
+			report(latencies, errors.get(), measured, concurrency);
+		}
+	}
+
+	/**
+	 * Sends requests until {@code measureUntil}, alternating between the two
+	 * requests, and returns the latencies recorded after {@code measureFrom}.
+	 */
+	private static long[] runClient(HttpClient http, HttpRequest first, HttpRequest second, long measureFrom,
+			long measureUntil, AtomicLong errors) {
+		long[] latencies = new long[1024];
+		int count = 0;
+		boolean useFirst = true;
+		long now;
+		while ((now = System.nanoTime()) < measureUntil) {
+			HttpRequest request = useFirst ? first : second;
+			useFirst = !useFirst;
+			boolean failed;
+			try {
+				failed = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 500;
+			} catch (Exception ex) {
+				failed = true;
+			}
+			long end = System.nanoTime();
+			if (now < measureFrom || end > measureUntil) {
+				continue;
+			}
+			if (failed) {
+				errors.incrementAndGet();
+				continue;
+			}
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = end - now;
+		}
+		return Arrays.copyOf(latencies, count);
+	}
+
+	private static void report(long[] latencies, long errors, Duration measured, int concurrency) {
+		Arrays.sort(latencies);
+		System.out.printf("concurrency   %d%n", concurrency);
+		System.out.printf("requests      %d (%d errors)%n", latencies.length, errors);
+		System.out.printf("throughput    %.1f req/s%n", latencies.length / (double) measured.toSeconds());
+		System.out.printf("p50           %.2f ms%n", percentile(latencies, 0.50) / 1e6);
+		System.out.printf("p99           %.2f ms%n", percentile(latencies, 0.99) / 1e6);
+		System.out.printf("max           %.2f ms%n", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+}
@@ -0,0 +1,235 @@
+package com.monkcommerce.coupon.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Load time of 100k coupons with their details: the legacy
+ * {@code coupon_details} join table versus the inline JSON column.
+ * <p>
+ * Creates three scratch tables ({@code bench_coupons_legacy},
+ * {@code bench_coupon_details}, {@code bench_coupons_json}) holding the same
+ * coupons and details, then times loading every coupon into an id → details
+ * map three ways:
+ * <ul>
+ * <li>{@code join-table lazy} – one query for the coupons plus one per coupon
+ * for its details (the {@code @ElementCollection} N+1)</li>
+ * <li>{@code join-table fetch} – one {@code LEFT JOIN}, one result row per
+ * detail (the old {@code JOIN FETCH} snapshot query)</li>
+ * <li>{@code json column} – one query, one row per coupon, details parsed with
+ * Jackson</li>
+ * </ul>
+ * The median of the runs is printed for each. The scratch tables are dropped at
+ * the end.
+ * </p>
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monkcommerce.coupon.benchmark.CouponDetailsLoadBenchmark -Dexec.args="jdbc:mysql://localhost:3306/coupondb root secret 100000"}
+ * </p>
+ * <p>
+ * Arguments: JDBC URL, user, password, coupon count (default 100000), runs
+ * (default 5).
+ * </p>
+ */
+public final class CouponDetailsLoadBenchmark {
+
+	private static final int INSERT_BATCH_SIZE = 5000;
+	private static final TypeReference<Map<String, String>> DETAILS_TYPE = new TypeReference<>() {
+	};
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private CouponDetailsLoadBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		String url = args.length > 0 ? args[0] : "jdbc:mysql://localhost:3306/coupondb";
+		String user = args.length > 1 ? args[1] : "root";
+		String password = args.length > 2 ? args[2] : "";
+		int coupons = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+		int runs = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+
+		try (Connection connection = DriverManager.getConnection(
+				url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true", user, password)) {
+			try {
+				seed(connection, coupons);
+				System.out.printf("%-20s %12s %12s%n", "layout", "median ms", "coupons");
+				report("join-table lazy", runs, () -> loadLazy(connection));
+				report("join-table fetch", runs, () -> loadJoined(connection));
+				report("json column", runs, () -> loadJson(connection));
+			} finally {
+				dropTables(connection);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface Load {
+		Map<Long, Map<String, String>> run() throws Exception;
+	}
+
+	private static void report(String name, int runs, Load load) throws Exception {
+		long[] nanos = new long[runs];
+		int loaded = 0;
+		for (int run = 0; run < runs; run++) {
+			long start = System.nanoTime();
+			loaded = load.run().size();
+			nanos[run] = System.nanoTime() - start;
+		}
+		Arrays.sort(nanos);
+		System.out.printf("%-20s %12.1f %12d%n", name, nanos[runs / 2] / 1e6, loaded);
+	}
+
+	private static Map<Long, Map<String, String>> loadLazy(Connection connection) throws SQLException {
+		List<Long> ids = new ArrayList<>();
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT id, type FROM bench_coupons_legacy")) {
+			while (resultSet.next()) {
+				ids.add(resultSet.getLong(1));
+			}
+		}
+		Map<Long, Map<String, String>> coupons = new HashMap<>(ids.size() * 2);
+		try (PreparedStatement details = connection.prepareStatement(
+				"SELECT detail_key, detail_value FROM bench_coupon_details WHERE coupon_id = ?")) {
+			for (Long id : ids) {
+				details.setLong(1, id);
+				Map<String, String> map = new HashMap<>();
+				try (ResultSet resultSet = details.executeQuery()) {
+					while (resultSet.next()) {
+						map.put(resultSet.getString(1), resultSet.getString(2));
+					}
+				}
+				coupons.put(id, map);
+			}
+		}
+		return coupons;
+	}
+
+	private static Map<Long, Map<String, String>> loadJoined(Connection connection) throws SQLException {
+		Map<Long, Map<String, String>> coupons = new HashMap<>();
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT c.id, c.type, d.detail_key, d.detail_value"
+						+ " FROM bench_coupons_legacy c LEFT JOIN bench_coupon_details d ON d.coupon_id = c.id")) {
+			while (resultSet.next()) {
+				Map<String, String> map = coupons.computeIfAbsent(resultSet.getLong(1), id -> new HashMap<>());
+				String key = resultSet.getString(3);
+				if (key != null) {
+					map.put(key, resultSet.getString(4));
+				}
+			}
+		}
+		return coupons;
+	}
+
+	private static Map<Long, Map<String, String>> loadJson(Connection connection) throws Exception {
+		Map<Long, Map<String, String>> coupons = new HashMap<>();
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT id, type, details FROM bench_coupons_json")) {
+			while (resultSet.next()) {
+				coupons.put(resultSet.getLong(1), OBJECT_MAPPER.readValue(resultSet.getString(3), DETAILS_TYPE));
+			}
+		}
+		return coupons;
+	}
+
+	/**
+	 * Creates the scratch tables with {@code coupons} coupons, cycling through
+	 * cart-wise (2 details), product-wise (2) and BxGy (3) coupons.
+	 */
+	private static void seed(Connection connection, int coupons) throws Exception {
+		dropTables(connection);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE bench_coupons_legacy (id BIGINT PRIMARY KEY, type VARCHAR(50) NOT NULL)");
+			statement.execute("CREATE TABLE bench_coupon_details (coupon_id BIGINT NOT NULL,"
+					+ " detail_key VARCHAR(100) NOT NULL, detail_value VARCHAR(2000),"
+					+ " PRIMARY KEY (coupon_id, detail_key))");
+			statement.execute("CREATE TABLE bench_coupons_json (id BIGINT PRIMARY KEY, type VARCHAR(50) NOT NULL,"
+					+ " details JSON)");
+		}
+
+		long start = System.nanoTime();
+		connection.setAutoCommit(false);
+		try (PreparedStatement legacy = connection.prepareStatement("INSERT INTO bench_coupons_legacy VALUES (?, ?)");
+				PreparedStatement details = connection
+						.prepareStatement("INSERT INTO bench_coupon_details VALUES (?, ?, ?)");
+				PreparedStatement json = connection.prepareStatement("INSERT INTO bench_coupons_json VALUES (?, ?, ?)")) {
+			for (long id = 1; id <= coupons; id++) {
+				String type = switch ((int) (id % 3)) {
+				case 0 -> "CART_WISE";
+				case 1 -> "PRODUCT_WISE";
+				default -> "BXGY";
+				};
+				Map<String, String> map = details(type, id);
+
+				legacy.setLong(1, id);
+				legacy.setString(2, type);
+				legacy.addBatch();
+				for (Map.Entry<String, String> entry : map.entrySet()) {
+					details.setLong(1, id);
+					details.setString(2, entry.getKey());
+					details.setString(3, entry.getValue());
+					details.addBatch();
+				}
+				json.setLong(1, id);
+				json.setString(2, type);
+				json.setString(3, OBJECT_MAPPER.writeValueAsString(map));
+				json.addBatch();
+
+				if (id % INSERT_BATCH_SIZE == 0) {
+					legacy.executeBatch();
+					details.executeBatch();
+					json.executeBatch();
+					connection.commit();
+				}
+			}
+			legacy.executeBatch();
+			details.executeBatch();
+			json.executeBatch();
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(true);
+		}
+		System.out.printf("seeded %d coupons in %.1f s%n", coupons, (System.nanoTime() - start) / 1e9);
+	}
+
+	private static Map<String, String> details(String type, long id) {
+		Map<String, String> map = new LinkedHashMap<>();
+		switch (type) {
+		case "CART_WISE" -> {
+			map.put("threshold", String.valueOf(100 + id % 400));
+			map.put("discount", String.valueOf(5 + id % 20));
+		}
+		case "PRODUCT_WISE" -> {
+			map.put("product_id", String.valueOf(1 + id % 1000));
+			map.put("discount", String.valueOf(5 + id % 20));
+		}
+		default -> {
+			map.put("buy_products", "[{\"product_id\":" + (1 + id % 1000) + ",\"quantity\":2}]");
+			map.put("get_products", "[{\"product_id\":" + (1 + (id + 7) % 1000) + ",\"quantity\":1}]");
+			map.put("repetition_limit", "3");
+		}
+		}
+		return map;
+	}
+
+	private static void dropTables(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS bench_coupon_details");
+			statement.execute("DROP TABLE IF EXISTS bench_coupons_legacy");
+			statement.execute("DROP TABLE IF EXISTS bench_coupons_json");
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.monkcommerce.coupon.benchmark;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.monkcommerce.coupon.dto.response.ApplicableCouponDto;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.evaluation.CouponEvaluator;
+import com.monkcommerce.coupon.service.rule.BxGyRule;
+import com.monkcommerce.coupon.service.rule.CartWiseRule;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.rule.ProductWiseRule;
+import com.monkcommerce.coupon.service.snapshot.CouponSnapshot;
+import com.monkcommerce.coupon.service.strategy.BxGyCouponStrategy;
+import com.monkcommerce.coupon.service.strategy.CartWiseCouponStrategy;
+import com.monkcommerce.coupon.service.strategy.CouponStrategy;
+import com.monkcommerce.coupon.service.strategy.ProductWiseCouponStrategy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Time and allocation of the {@code getApplicableCoupons} evaluation path on a
+ * 20-product cart.
+ * <p>
+ * The catalog mixes cart-wise, product-wise and BxGy coupons in equal parts.
+ * {@code evaluateCandidates} runs only the strategies' applicability and
+ * discount checks over the candidate set and should report
+ * {@code gc.alloc.rate.norm} of about 0 B/op at every catalog size: evaluating
+ * a coupon against the primitive-array {@link EvaluationCart} allocates
+ * nothing. {@code getApplicableCoupons} is the full service path (candidate
+ * lookup plus {@link CouponEvaluator}, sequential); it allocates the
+ * candidate list and one result per applicable coupon.
+ * </p>
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monkcommerce.coupon.benchmark.CouponEvaluationBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponEvaluationBenchmark {
+
+	private static final int CART_PRODUCTS = 20;
+	private static final int CATALOG_PRODUCTS = 200;
+
+	@Param({ "1000", "10000" })
+	private int catalogSize;
+
+	private CouponSnapshot snapshot;
+	private CouponEvaluator evaluator;
+	private Map<CouponType, CouponStrategy> strategies;
+	private EvaluationCart cart;
+	private List<CouponRule> candidates;
+
+	@Setup
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<CouponRule> rules = new ArrayList<>(catalogSize);
+		for (int i = 0; i < catalogSize; i++) {
+			long couponId = i;
+			int basisPoints = 100 * (1 + random.nextInt(50));
+			switch (i % 3) {
+			case 0 -> rules.add(new CartWiseRule(couponId, null, false, random.nextInt(200_000), basisPoints));
+			case 1 -> rules.add(new ProductWiseRule(couponId, null, false, 1 + random.nextInt(CATALOG_PRODUCTS),
+					basisPoints));
+			default -> rules.add(new BxGyRule(couponId, null, false,
+					new long[] { 1 + random.nextInt(CATALOG_PRODUCTS) }, new int[] { 2 },
+					new long[] { 1 + random.nextInt(CATALOG_PRODUCTS) }, new int[] { 1 }, 3));
+			}
+		}
+		snapshot = CouponSnapshot.of(rules);
+
+		strategies = new EnumMap<>(CouponType.class);
+		for (CouponStrategy strategy : List.of(new CartWiseCouponStrategy(), new ProductWiseCouponStrategy(),
+				new BxGyCouponStrategy())) {
+			strategies.put(strategy.getType(), strategy);
+		}
+		evaluator = new CouponEvaluator(strategies, Integer.MAX_VALUE, 1, new SimpleMeterRegistry());
+
+		EvaluationCart.Builder builder = EvaluationCart.builder(CART_PRODUCTS);
+		for (int p = 1; p <= CART_PRODUCTS; p++) {
+			builder.add(p, 1 + random.nextInt(4), 500 + random.nextInt(9500));
+		}
+		cart = builder.build();
+		candidates = snapshot.getCandidateRules(cart.getProductIds(), cart.getTotalPrice());
+	}
+
+	@TearDown
+	public void tearDown() {
+		evaluator.shutdown();
+	}
+
+	@Benchmark
+	public void evaluateCandidates(Blackhole blackhole) {
+		for (int i = 0; i < candidates.size(); i++) {
+			CouponRule rule = candidates.get(i);
+			CouponStrategy strategy = strategies.get(rule.getType());
+			if (strategy.isApplicable(cart, rule)) {
+				blackhole.consume(strategy.calculateDiscount(cart, rule));
+			}
+		}
+	}
+
+	@Benchmark
+	public List<ApplicableCouponDto> getApplicableCoupons() {
+		return evaluator.evaluate(snapshot.getCandidateRules(cart.getProductIds(), cart.getTotalPrice()), cart);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CouponEvaluationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class).build()).run();
+	}
+}
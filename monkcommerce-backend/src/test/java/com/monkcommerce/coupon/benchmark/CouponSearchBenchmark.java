@@ -0,0 +1,195 @@
+package com.monkcommerce.coupon.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latency and index usage of the {@code GET /api/v1/coupons/search} queries on
+ * a large {@code coupons} table.
+ * <p>
+ * Fills the table up to {@code rows} coupons (types, active flags, expiration
+ * and creation dates spread evenly), then, for each search scenario, prints
+ * the {@code EXPLAIN} plan (chosen key, estimated rows, extra) and the median
+ * latency. The SQL has the shape Hibernate generates for
+ * {@code CouponSpecifications.buildCouponFilter} with a slice request: the
+ * filter, the requested sort with {@code id} as tie-breaker, and
+ * {@code LIMIT size + 1}. Every filtered scenario should report one of the
+ * {@code idx_coupon_*} indexes as its key ({@code PRIMARY} for the unfiltered
+ * listing); a {@code Using filesort} then only sorts the matching rows.
+ * </p>
+ * <p>
+ * Start the application once against the target database so the schema and
+ * indexes exist, then run the benchmark; restart the application afterwards so
+ * the coupon ID sequence moves past the inserted IDs:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monkcommerce.coupon.benchmark.CouponSearchBenchmark -Dexec.args="jdbc:mysql://localhost:3306/coupondb root secret 1000000"}
+ * </p>
+ * <p>
+ * Arguments: JDBC URL, user, password, target row count (default 1000000),
+ * runs per scenario (default 50).
+ * </p>
+ */
+public final class CouponSearchBenchmark {
+
+	private static final int INSERT_BATCH_SIZE = 5000;
+	private static final int PAGE_SIZE = 20;
+	private static final String[] TYPES = { "CART_WISE", "PRODUCT_WISE", "BXGY" };
+	private static final String DETAILS = "{\"threshold\": \"100\", \"discount\": \"10\"}";
+
+	private static final String COLUMNS = "c.id, c.created_at, c.details, c.expiration_date, c.is_active, c.is_stackable,"
+			+ " c.type, c.updated_at, c.version";
+
+	private CouponSearchBenchmark() {
+	}
+
+	/**
+	 * One search request and its SQL.
+	 */
+	private record Scenario(String name, String where, String orderBy, Object... parameters) {
+	}
+
+	public static void main(String[] args) throws SQLException {
+		String url = args.length > 0 ? args[0] : "jdbc:mysql://localhost:3306/coupondb";
+		String user = args.length > 1 ? args[1] : "root";
+		String password = args.length > 2 ? args[2] : "";
+		int rows = args.length > 3 ? Integer.parseInt(args[3]) : 1_000_000;
+		int runs = args.length > 4 ? Integer.parseInt(args[4]) : 50;
+
+		LocalDateTime now = LocalDateTime.now();
+		try (Connection connection = DriverManager.getConnection(url + separator(url) + "rewriteBatchedStatements=true",
+				user, password)) {
+			seed(connection, rows, now);
+
+			List<Scenario> scenarios = List.of(
+					new Scenario("all, sort=id", "", "c.id"),
+					new Scenario("type=cart-wise&isActive=true, sort=id",
+							"c.type = ? AND c.is_active = ?", "c.id", "CART_WISE", true),
+					new Scenario("isActive=true&includeExpired=false, sort=expirationDate",
+							"c.is_active = ? AND (c.expiration_date IS NULL OR c.expiration_date > ?)",
+							"c.expiration_date, c.id", true, Timestamp.valueOf(now)),
+					new Scenario("type=bxgy, sort=expirationDate",
+							"c.type = ?", "c.expiration_date, c.id", "BXGY"),
+					new Scenario("createdFrom/createdTo (1 day), sort=id",
+							"c.created_at BETWEEN ? AND ?", "c.id",
+							Timestamp.valueOf(now.minusDays(3)), Timestamp.valueOf(now.minusDays(2))),
+					new Scenario("isActive=false, sort=isActive,expirationDate",
+							"c.is_active = ?", "c.is_active, c.expiration_date, c.id", false));
+
+			System.out.printf("%-58s %-30s %10s %-28s %10s%n", "scenario", "key", "est. rows", "extra", "median ms");
+			for (Scenario scenario : scenarios) {
+				String sql = "SELECT " + COLUMNS + " FROM coupons c"
+						+ (scenario.where().isEmpty() ? "" : " WHERE " + scenario.where()) + " ORDER BY "
+						+ scenario.orderBy() + " LIMIT " + (PAGE_SIZE + 1);
+				String[] plan = explain(connection, sql, scenario.parameters());
+				double median = medianMillis(connection, sql, scenario.parameters(), runs);
+				System.out.printf("%-58s %-30s %10s %-28s %10.3f%n", scenario.name(), plan[0], plan[1], plan[2],
+						median);
+			}
+		}
+	}
+
+	private static String separator(String url) {
+		return url.contains("?") ? "&" : "?";
+	}
+
+	/**
+	 * Inserts coupons until the table holds at least {@code rows}.
+	 * <p>
+	 * Expiration dates are one second apart, which keeps
+	 * {@code uk_coupon_type_active_expiration} satisfied; every tenth coupon
+	 * never expires.
+	 * </p>
+	 */
+	private static void seed(Connection connection, int rows, LocalDateTime now) throws SQLException {
+		long existing;
+		long maxId;
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), COALESCE(MAX(id), 0) FROM coupons")) {
+			resultSet.next();
+			existing = resultSet.getLong(1);
+			maxId = resultSet.getLong(2);
+		}
+		if (existing >= rows) {
+			System.out.printf("coupons already holds %d rows%n", existing);
+			return;
+		}
+
+		long start = System.nanoTime();
+		LocalDateTime firstExpiration = now.minusDays(rows / 172_800 + 1);
+		connection.setAutoCommit(false);
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO coupons (id, type, details,"
+				+ " is_active, is_stackable, expiration_date, created_at, updated_at, version)"
+				+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)")) {
+			for (long i = existing; i < rows; i++) {
+				Timestamp created = Timestamp.valueOf(now.minusDays(30).plusSeconds(i * 2));
+				insert.setLong(1, maxId + 1 + i - existing);
+				insert.setString(2, TYPES[(int) (i % TYPES.length)]);
+				insert.setString(3, DETAILS);
+				insert.setBoolean(4, i % 4 != 0);
+				insert.setBoolean(5, i % 2 == 0);
+				insert.setTimestamp(6, i % 10 == 0 ? null : Timestamp.valueOf(firstExpiration.plusSeconds(i)));
+				insert.setTimestamp(7, created);
+				insert.setTimestamp(8, created);
+				insert.addBatch();
+				if ((i + 1) % INSERT_BATCH_SIZE == 0) {
+					insert.executeBatch();
+					connection.commit();
+				}
+			}
+			insert.executeBatch();
+			connection.commit();
+		} finally {
+			connection.setAutoCommit(true);
+		}
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ANALYZE TABLE coupons");
+		}
+		System.out.printf("inserted %d coupons in %.1f s%n", rows - existing, (System.nanoTime() - start) / 1e9);
+	}
+
+	/**
+	 * Returns the key, estimated rows and extra column of the first plan row.
+	 */
+	private static String[] explain(Connection connection, String sql, Object[] parameters) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			bind(statement, parameters);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				resultSet.next();
+				return new String[] { String.valueOf(resultSet.getString("key")), resultSet.getString("rows"),
+						String.valueOf(resultSet.getString("Extra")) };
+			}
+		}
+	}
+
+	private static double medianMillis(Connection connection, String sql, Object[] parameters, int runs)
+			throws SQLException {
+		long[] nanos = new long[runs];
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			bind(statement, parameters);
+			for (int run = 0; run < runs; run++) {
+				long start = System.nanoTime();
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						resultSet.getLong(1);
+					}
+				}
+				nanos[run] = System.nanoTime() - start;
+			}
+		}
+		Arrays.sort(nanos);
+		return nanos[runs / 2] / 1e6;
+	}
+
+	private static void bind(PreparedStatement statement, Object[] parameters) throws SQLException {
+		for (int i = 0; i < parameters.length; i++) {
+			statement.setObject(i + 1, parameters[i]);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.monkcommerce.coupon.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.monkcommerce.coupon.service.stacking.CouponStackingOptimizer;
+import com.monkcommerce.coupon.service.stacking.StackingCandidate;
+import com.monkcommerce.coupon.service.stacking.StackingResult;
+
+/**
+ * Latency of {@link CouponStackingOptimizer} for 100+ applicable coupons on a
+ * 40-product cart.
+ * <p>
+ * {@code claimsPerCoupon = 1} models product-wise and cart-wise coupons (one
+ * product or the whole cart each); {@code 3} models coupons spanning several
+ * products, where the overlap makes the search combinatorial. The time budget
+ * is raised to one second so the numbers show the full search cost.
+ * </p>
+ * <p>
+ * Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.monkcommerce.coupon.benchmark.CouponStackingBenchmark}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CouponStackingBenchmark {
+
+	private static final int CART_PRODUCTS = 40;
+
+	@Param({ "100", "200" })
+	private int candidateCount;
+
+	@Param({ "1", "3" })
+	private int claimsPerCoupon;
+
+	private CouponStackingOptimizer optimizer;
+	private List<StackingCandidate> candidates;
+
+	@Setup
+	public void setUp() {
+		optimizer = new CouponStackingOptimizer(Duration.ofSeconds(1));
+		SplittableRandom random = new SplittableRandom(42);
+		candidates = new ArrayList<>(candidateCount);
+		for (int i = 0; i < candidateCount; i++) {
+			BitSet claims = new BitSet(CART_PRODUCTS + 1);
+			for (int c = 0; c < claimsPerCoupon; c++) {
+				// bit CART_PRODUCTS is the cart-level claim of cart-wise coupons
+				claims.set(random.nextInt(CART_PRODUCTS + 1));
+			}
+			long discount = 100 + random.nextInt(5000);
+			boolean stackable = random.nextInt(10) < 8;
+			candidates.add(new StackingCandidate((long) i, "product-wise", discount, stackable, claims));
+		}
+	}
+
+	@Benchmark
+	public StackingResult optimize() {
+		return optimizer.optimize(candidates);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CouponStackingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,99 @@
+package com.monkcommerce.coupon.entity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.monkcommerce.coupon.money.Money;
+
+class EvaluationCartTest {
+
+	@Test
+	void mergesLinesOfTheSameProduct() {
+		EvaluationCart cart = EvaluationCart.builder(4).add(7, 2, 500).add(8, 1, 1_000).add(7, 3, 400).build();
+
+		assertEquals(3, cart.getLineCount());
+		assertEquals(2, cart.getProductCount());
+		assertArrayEquals(new long[] { 7, 8 }, cart.getProductIds());
+		int slot = cart.slotOf(7);
+		assertEquals(5, cart.getQuantity(slot));
+		assertEquals(2 * 500 + 3 * 400, cart.getLineTotal(slot));
+		assertEquals(6, cart.getItemCount());
+		assertEquals(3_200, cart.getTotalPrice());
+	}
+
+	@Test
+	void keepsTheLinesOfAProductInOrder() {
+		EvaluationCart cart = EvaluationCart.builder(4).add(7, 2, 500).add(8, 1, 1_000).add(7, 3, 400).add(7, 1, 300)
+				.build();
+
+		List<Integer> lines = new ArrayList<>();
+		for (int line = cart.getFirstLine(cart.slotOf(7)); line >= 0; line = cart.getNextLine(line)) {
+			lines.add(line);
+			assertEquals(cart.slotOf(7), cart.getLineSlot(line));
+		}
+		assertEquals(List.of(0, 2, 3), lines);
+		assertEquals(1_200, cart.getLineAmount(2));
+		assertEquals(List.of(7L, 8L, 7L, 7L), cart.toCartItems().stream().map(CartItem::getProductId).toList());
+	}
+
+	@Test
+	void looksUpProductsNotInTheCart() {
+		EvaluationCart cart = EvaluationCart.builder(1).add(0, 1, 100).add(Long.MIN_VALUE, 1, 100).build();
+
+		assertTrue(cart.containsProduct(0));
+		assertTrue(cart.containsProduct(Long.MIN_VALUE));
+		assertFalse(cart.containsProduct(1));
+		assertEquals(-1, cart.slotOf(Long.MAX_VALUE));
+	}
+
+	@Test
+	void growsPastTheExpectedLines() {
+		EvaluationCart.Builder builder = EvaluationCart.builder(1);
+		for (int productId = 0; productId < 1_000; productId++) {
+			builder.add(productId, 1, 10);
+		}
+		EvaluationCart cart = builder.build();
+
+		assertEquals(1_000, cart.getProductCount());
+		for (int productId = 0; productId < 1_000; productId++) {
+			assertEquals(productId, cart.getProductId(cart.slotOf(productId)));
+		}
+		assertEquals(10_000, cart.getTotalPrice());
+	}
+
+	@Test
+	void rejectsQuantitiesThatOverflow() {
+		EvaluationCart.Builder sameProduct = EvaluationCart.builder(2).add(7, Integer.MAX_VALUE, 0).add(7, 1, 0);
+		assertThrows(ArithmeticException.class, sameProduct::build);
+
+		EvaluationCart.Builder itemCount = EvaluationCart.builder(2).add(7, Integer.MAX_VALUE, 0).add(8, 1, 0);
+		assertThrows(ArithmeticException.class, itemCount::build);
+	}
+
+	@Test
+	void rejectsTotalsThatOverflow() {
+		EvaluationCart.Builder lineTotal = EvaluationCart.builder(1).add(7, 2, Long.MAX_VALUE / 2 + 1);
+		assertThrows(ArithmeticException.class, lineTotal::build);
+
+		EvaluationCart.Builder cartTotal = EvaluationCart.builder(2).add(7, 1, Long.MAX_VALUE).add(8, 1, 1);
+		assertThrows(ArithmeticException.class, cartTotal::build);
+	}
+
+	@Test
+	void capsTheTotalSoPercentagesCanBeTaken() {
+		EvaluationCart atLimit = EvaluationCart.builder(2).add(7, 1, Money.MAX_AMOUNT - 1).add(8, 1, 1).build();
+		assertEquals(Money.MAX_AMOUNT, atLimit.getTotalPrice());
+		assertEquals(Money.MAX_AMOUNT, Money.percentOf(atLimit.getTotalPrice(), Money.FULL_PERCENT));
+
+		EvaluationCart.Builder overLimit = EvaluationCart.builder(2).add(7, 1, Money.MAX_AMOUNT).add(8, 1, 1);
+		assertThrows(ArithmeticException.class, overLimit::build);
+	}
+}
@@ -0,0 +1,61 @@
+package com.monkcommerce.coupon.money;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+	@Test
+	void roundsDecimalAmountsHalfUp() {
+		assertEquals(1235, Money.toMinorUnits(new BigDecimal("12.345")));
+		assertEquals(1234, Money.toMinorUnits(new BigDecimal("12.3449")));
+		assertEquals(1200, Money.toMinorUnits(new BigDecimal("12")));
+		assertEquals(0, Money.toMinorUnits(new BigDecimal("0.004")));
+		assertEquals(1, Money.toMinorUnits(new BigDecimal("0.005")));
+		assertEquals(-1235, Money.toMinorUnits(new BigDecimal("-12.345")));
+	}
+
+	@Test
+	void rejectsAmountsBeyondALong() {
+		assertThrows(ArithmeticException.class, () -> Money.toMinorUnits(new BigDecimal("92233720368547758.08")));
+	}
+
+	@Test
+	void convertsMinorUnitsBackToTwoDecimals() {
+		assertEquals(new BigDecimal("12.35"), Money.toDecimal(1235));
+		assertEquals(new BigDecimal("0.00"), Money.toDecimal(0));
+		assertEquals(new BigDecimal("-0.05"), Money.toDecimal(-5));
+	}
+
+	@Test
+	void roundsPercentagesToBasisPointsHalfUp() {
+		assertEquals(1250, Money.toBasisPoints(new BigDecimal("12.5")));
+		assertEquals(1235, Money.toBasisPoints(new BigDecimal("12.345")));
+		assertEquals(10_000, Money.toBasisPoints(new BigDecimal("100")));
+		assertEquals(1, Money.toBasisPoints(new BigDecimal("0.005")));
+	}
+
+	@Test
+	void roundsPercentagesOfAmountsHalfUp() {
+		// 12.5% of 1.00 = 0.125 -> 0.13
+		assertEquals(13, Money.percentOf(100, 1250));
+		// 12.5% of 0.99 = 0.12375 -> 0.12
+		assertEquals(12, Money.percentOf(99, 1250));
+		// 0.5% of 1.00 = 0.005 -> 0.01; 0.49% of 1.00 -> 0.00
+		assertEquals(1, Money.percentOf(100, 50));
+		assertEquals(0, Money.percentOf(100, 49));
+		assertEquals(12_345, Money.percentOf(12_345, Money.FULL_PERCENT));
+		assertEquals(0, Money.percentOf(0, 5_000));
+	}
+
+	@Test
+	void takesAnyPercentageOfTheLargestAmount() {
+		assertEquals(Money.MAX_AMOUNT, Money.percentOf(Money.MAX_AMOUNT, Money.FULL_PERCENT));
+		assertEquals((Money.MAX_AMOUNT + 1) / 2, Money.percentOf(Money.MAX_AMOUNT, Money.FULL_PERCENT / 2));
+		assertThrows(ArithmeticException.class, () -> Money.percentOf(Money.MAX_AMOUNT + 1, Money.FULL_PERCENT));
+	}
+}
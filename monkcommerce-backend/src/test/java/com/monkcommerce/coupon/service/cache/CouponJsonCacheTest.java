@@ -0,0 +1,103 @@
+package com.monkcommerce.coupon.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.service.snapshot.CouponChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CouponJsonCacheTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CouponJsonCache cache = new CouponJsonCache(objectMapper, 100, meterRegistry);
+
+	@Test
+	void servesTheCachedJsonOfTheSameVersionOnly() throws Exception {
+		Coupon coupon = coupon(1, 3, "10");
+		byte[] json = cache.put(coupon);
+
+		assertArrayEquals(objectMapper.writeValueAsBytes(coupon), json);
+		assertArrayEquals(json, cache.get(1L, 3));
+		assertNull(cache.get(1L, 2));
+		assertNull(cache.get(1L, 4));
+		assertNull(cache.get(2L, 3));
+		assertEquals(1, meterRegistry.get("coupon.json.cache.requests").tag("result", "hit").counter().count());
+		assertEquals(3, meterRegistry.get("coupon.json.cache.requests").tag("result", "miss").counter().count());
+	}
+
+	@Test
+	void replacesAnOlderVersion() {
+		cache.put(coupon(1, 3, "10"));
+		byte[] newer = cache.put(coupon(1, 4, "20"));
+
+		assertNull(cache.get(1L, 3));
+		assertArrayEquals(newer, cache.get(1L, 4));
+	}
+
+	@Test
+	void keepsANewerVersionWhenAnOlderOneIsPutLate() {
+		byte[] newer = cache.put(coupon(1, 4, "20"));
+		byte[] older = cache.put(coupon(1, 3, "10"));
+
+		// The caller still gets the JSON of the coupon it put
+		assertTrue(new String(older, StandardCharsets.UTF_8).contains("\"10\""));
+		assertArrayEquals(newer, cache.get(1L, 4));
+		assertNull(cache.get(1L, 3));
+	}
+
+	@Test
+	void serializesWithoutCaching() {
+		byte[] json = cache.serialize(coupon(1, 3, "10"));
+
+		assertTrue(json.length > 0);
+		assertNull(cache.get(1L, 3));
+	}
+
+	@Test
+	void evictsChangedCoupons() {
+		cache.put(coupon(1, 1, "10"));
+		cache.put(coupon(2, 1, "10"));
+		cache.put(coupon(3, 1, "10"));
+
+		cache.onCouponChanged(CouponChangedEvent.removed(1L));
+		assertNull(cache.get(1L, 1));
+		cache.invalidateAll(List.of(2L));
+		assertNull(cache.get(2L, 1));
+		assertNotNull(cache.get(3L, 1));
+		cache.invalidateAll();
+		assertNull(cache.get(3L, 1));
+	}
+
+	@Test
+	void joinsElementsIntoAnArraySkippingNulls() {
+		byte[][] elements = { "{\"id\":1}".getBytes(StandardCharsets.UTF_8), null,
+				"{\"id\":2}".getBytes(StandardCharsets.UTF_8) };
+
+		assertEquals("[{\"id\":1},{\"id\":2}]",
+				new String(CouponJsonCache.toJsonArray(elements), StandardCharsets.UTF_8));
+		assertEquals("[]", new String(CouponJsonCache.toJsonArray(new byte[][] { null }), StandardCharsets.UTF_8));
+	}
+
+	private static Coupon coupon(long id, long version, String discount) {
+		Coupon coupon = new Coupon();
+		coupon.setId(id);
+		coupon.setVersion(version);
+		coupon.setType(CouponType.CART_WISE);
+		coupon.setDetails(Map.of("threshold", "100", "discount", discount));
+		return coupon;
+	}
+}
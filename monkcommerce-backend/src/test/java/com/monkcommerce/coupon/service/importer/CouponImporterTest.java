@@ -0,0 +1,169 @@
+package com.monkcommerce.coupon.service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monkcommerce.coupon.dto.request.CreateCouponDto;
+import com.monkcommerce.coupon.dto.response.ImportRejectionDto;
+import com.monkcommerce.coupon.dto.response.ImportResultDto;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.ImportCheckpoint;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.repository.ImportCheckpointRepository;
+import com.monkcommerce.coupon.service.bulk.CouponBulkWriter;
+import com.monkcommerce.coupon.service.bulk.CouponBulkWriter.BatchListener;
+import com.monkcommerce.coupon.service.bulk.CouponFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CouponImporterTest {
+
+	private static final String IMPORT_ID = "coupons.ndjson";
+
+	/** Rows 1 to 6; row 3 is malformed and row 5 has an invalid discount. */
+	private static final String FILE = row(1) + row(2) + "{\"type\":\n" + row(4) + row(-5) + row(6);
+
+	private final Map<String, ImportCheckpoint> checkpoints = new HashMap<>();
+	/** Discounts of the coupons written, in order. */
+	private final List<String> written = new ArrayList<>();
+	private CouponImporter importer;
+
+	@BeforeEach
+	void setUp() {
+		CouponFactory couponFactory = mock(CouponFactory.class);
+		when(couponFactory.validate(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(couponFactory.create(any())).thenAnswer(invocation -> coupon(invocation.getArgument(0)));
+
+		CouponBulkWriter couponBulkWriter = mock(CouponBulkWriter.class);
+		when(couponBulkWriter.insert(anyList(), any())).thenAnswer(invocation -> {
+			List<Coupon> coupons = invocation.getArgument(0);
+			BatchListener listener = invocation.getArgument(1);
+			coupons.forEach(coupon -> written.add(coupon.getDetails().get("discount")));
+			listener.beforeCommit(coupons.size() - 1, coupons.size());
+			return new String[coupons.size()];
+		});
+
+		ImportCheckpointRepository checkpointRepository = mock(ImportCheckpointRepository.class);
+		when(checkpointRepository.findById(anyString()))
+				.thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.getArgument(0))));
+		when(checkpointRepository.save(any())).thenAnswer(invocation -> {
+			ImportCheckpoint checkpoint = invocation.getArgument(0);
+			checkpoints.put(checkpoint.getImportId(), checkpoint);
+			return checkpoint;
+		});
+
+		importer = new CouponImporter(couponFactory, couponBulkWriter, checkpointRepository,
+				new ObjectMapper().findAndRegisterModules(), 2, Duration.ofHours(1), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void importsEveryRowAndReportsRejections() throws IOException {
+		ImportResultDto result = importer.importCoupons(IMPORT_ID, ImportFormat.NDJSON, stream(FILE));
+
+		assertEquals(List.of("1", "2", "4", "6"), written);
+		assertEquals(0, result.getResumedAfterRow());
+		assertEquals(6, result.getRowsRead());
+		assertEquals(4, result.getImported());
+		assertEquals(2, result.getRejected());
+		assertEquals(List.of(3L, 5L), result.getRejectedRows().stream().map(ImportRejectionDto::getRow).toList());
+		assertCheckpoint(6, 4, 2);
+	}
+
+	@Test
+	void resumesAfterTheLastCheckpoint() throws IOException {
+		// Fails while reading row 5, after the batch of rows 1 and 2 was written
+		String head = row(1) + row(2) + "{\"type\":\n" + row(4) + "{\"type\":\"cart";
+		assertThrows(IOException.class, () -> importer.importCoupons(IMPORT_ID, ImportFormat.NDJSON,
+				new SequenceInputStream(stream(head), failing())));
+
+		assertEquals(List.of("1", "2"), written);
+		assertCheckpoint(2, 2, 0);
+
+		ImportResultDto result = importer.importCoupons(IMPORT_ID, ImportFormat.NDJSON, stream(FILE));
+
+		assertEquals(List.of("1", "2", "4", "6"), written);
+		assertEquals(2, result.getResumedAfterRow());
+		assertEquals(4, result.getRowsRead());
+		assertEquals(4, result.getImported());
+		assertEquals(2, result.getRejected());
+		assertCheckpoint(6, 4, 2);
+	}
+
+	@Test
+	void doesNothingWhenRepeatedAfterSuccess() throws IOException {
+		importer.importCoupons(IMPORT_ID, ImportFormat.NDJSON, stream(FILE));
+
+		ImportResultDto result = importer.importCoupons(IMPORT_ID, ImportFormat.NDJSON, stream(FILE));
+
+		assertEquals(List.of("1", "2", "4", "6"), written);
+		assertEquals(6, result.getResumedAfterRow());
+		assertEquals(0, result.getRowsRead());
+		assertEquals(4, result.getImported());
+		assertEquals(2, result.getRejected());
+	}
+
+	@Test
+	void rejectsAMissingImportId() {
+		assertThrows(IllegalArgumentException.class,
+				() -> importer.importCoupons(" ", ImportFormat.NDJSON, stream(FILE)));
+	}
+
+	private void assertCheckpoint(long lastRow, long imported, long rejected) {
+		ImportCheckpoint checkpoint = checkpoints.get(IMPORT_ID);
+		assertEquals(lastRow, checkpoint.getLastRow());
+		assertEquals(imported, checkpoint.getImported());
+		assertEquals(rejected, checkpoint.getRejected());
+	}
+
+	/**
+	 * An NDJSON row with the given discount.
+	 */
+	private static String row(int discount) {
+		return "{\"type\":\"cart-wise\",\"details\":{\"threshold\":100,\"discount\":" + discount + "}}\n";
+	}
+
+	private static Coupon coupon(CreateCouponDto createCouponDto) {
+		String discount = String.valueOf(createCouponDto.getDetails().get("discount"));
+		if (discount.startsWith("-")) {
+			throw new InvalidCouponException("discount", discount);
+		}
+		Coupon coupon = new Coupon();
+		coupon.setDetails(Map.of("discount", discount));
+		return coupon;
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static InputStream failing() {
+		return new InputStream() {
+
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Connection reset");
+			}
+		};
+	}
+}
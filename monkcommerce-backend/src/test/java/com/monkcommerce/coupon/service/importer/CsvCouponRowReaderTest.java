@@ -0,0 +1,136 @@
+package com.monkcommerce.coupon.service.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class CsvCouponRowReaderTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Test
+	void readsQuotedDetailsAndOptionalColumns() throws IOException {
+		List<CouponRow> rows = readAll("type,details,expirationDate,isStackable\n"
+				+ "cart-wise,\"{\"\"threshold\"\":100,\"\"discount\"\":10}\",2026-12-31T23:59:59,true\n"
+				+ "product-wise,\"{\"\"product_id\"\":1,\"\"discount\"\":20}\",,\n");
+
+		assertEquals(2, rows.size());
+		CouponRow first = rows.get(0);
+		assertEquals(1, first.number());
+		assertNull(first.error());
+		assertEquals("cart-wise", first.coupon().getType());
+		assertEquals(Map.of("threshold", 100, "discount", 10), first.coupon().getDetails());
+		assertEquals(LocalDateTime.of(2026, 12, 31, 23, 59, 59), first.coupon().getExpirationDate());
+		assertEquals(true, first.coupon().getIsStackable());
+
+		CouponRow second = rows.get(1);
+		assertEquals(2, second.number());
+		assertNull(second.coupon().getExpirationDate());
+		assertNull(second.coupon().getIsStackable());
+	}
+
+	@Test
+	void keepsCommasQuotesAndLineBreaksInsideQuotedCells() throws IOException {
+		List<CouponRow> rows = readAll("details,type\n"
+				+ "\"{\"\"note\"\":\"\"a, \\\"\"b\\\"\"\"\",\n\"\"discount\"\":10}\",cart-wise\n"
+				+ "\"{}\",\"product-wise\"\n");
+
+		assertEquals(2, rows.size());
+		assertEquals(Map.of("note", "a, \"b\"", "discount", 10), rows.get(0).coupon().getDetails());
+		assertEquals("cart-wise", rows.get(0).coupon().getType());
+		// The line break inside the first record does not start a new row
+		assertEquals(2, rows.get(1).number());
+		assertEquals("product-wise", rows.get(1).coupon().getType());
+	}
+
+	@Test
+	void acceptsCrlfAndCrLineEndings() throws IOException {
+		List<CouponRow> rows = readAll("type,details\r\n"
+				+ "cart-wise,\"{\"\"discount\"\":1}\"\r\n"
+				+ "cart-wise,\"{\"\"discount\"\":2}\"\r"
+				+ "cart-wise,\"{\"\"discount\"\":3}\"");
+
+		assertEquals(List.of(1L, 2L, 3L), rows.stream().map(CouponRow::number).toList());
+		for (int i = 0; i < rows.size(); i++) {
+			assertNull(rows.get(i).error());
+			assertEquals("cart-wise", rows.get(i).coupon().getType());
+			assertEquals(Map.of("discount", i + 1), rows.get(i).coupon().getDetails());
+		}
+	}
+
+	@Test
+	void skipsBlankRecordsButCountsThem() throws IOException {
+		List<CouponRow> rows = readAll("type,details\n\ncart-wise,{}\r\n\r\n\ncart-wise,{}\n\n");
+
+		assertEquals(List.of(2L, 5L), rows.stream().map(CouponRow::number).toList());
+	}
+
+	@Test
+	void reportsMalformedRowsAndGoesOn() throws IOException {
+		List<CouponRow> rows = readAll("type,details,isStackable\n"
+				+ "cart-wise,{}\n"
+				+ "cart-wise,{\"discount\":,false\n"
+				+ "cart-wise,{},maybe\n"
+				+ "cart-wise,{},false\n");
+
+		assertEquals(4, rows.size());
+		assertEquals("Expected 3 columns but found 2", rows.get(0).error());
+		assertTrue(rows.get(1).error().startsWith("Malformed details JSON: "), rows.get(1).error());
+		assertTrue(rows.get(2).error().startsWith("Malformed row: "), rows.get(2).error());
+		assertNull(rows.get(3).error());
+		assertEquals(4, rows.get(3).number());
+		for (int i = 0; i < 3; i++) {
+			assertNull(rows.get(i).coupon());
+			assertEquals(i + 1, rows.get(i).number());
+		}
+	}
+
+	@Test
+	void rejectsABadHeader() {
+		assertThrows(IllegalArgumentException.class, () -> readAll(""));
+		assertThrows(IllegalArgumentException.class, () -> readAll("type,details,discount\n"));
+		assertThrows(IllegalArgumentException.class, () -> readAll("type,expirationDate\n"));
+	}
+
+	@Test
+	void skipsRecordsUpToACheckpoint() throws IOException {
+		String csv = "type,details\n"
+				+ "cart-wise,\"{\n}\"\n"
+				+ "cart-wise,{}\r\n"
+				+ "product-wise,{}\n";
+		try (CsvCouponRowReader reader = new CsvCouponRowReader(new StringReader(csv), objectMapper)) {
+			assertEquals(2, reader.skipTo(2));
+
+			CouponRow row = reader.next();
+			assertEquals(3, row.number());
+			assertEquals("product-wise", row.coupon().getType());
+			assertNull(reader.next());
+		}
+		try (CsvCouponRowReader reader = new CsvCouponRowReader(new StringReader(csv), objectMapper)) {
+			assertEquals(3, reader.skipTo(10));
+			assertNull(reader.next());
+		}
+	}
+
+	private List<CouponRow> readAll(String csv) throws IOException {
+		List<CouponRow> rows = new ArrayList<>();
+		try (CsvCouponRowReader reader = new CsvCouponRowReader(new StringReader(csv), objectMapper)) {
+			for (CouponRow row = reader.next(); row != null; row = reader.next()) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+}
@@ -0,0 +1,88 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import com.monkcommerce.coupon.service.rule.CartWiseRule;
+import com.monkcommerce.coupon.service.rule.CouponRule;
+
+class CartThresholdIndexTest {
+
+	@Test
+	void findsNothingInAnEmptyIndex() {
+		CartThresholdIndex index = CartThresholdIndex.build(List.of());
+
+		assertEquals(0, index.size());
+		assertEquals(0, index.eligibleCount(Long.MAX_VALUE));
+	}
+
+	@Test
+	void requiresTheTotalToExceedTheThreshold() {
+		CartThresholdIndex index = CartThresholdIndex.build(List.of(rule(1, 10_000)));
+
+		assertEquals(0, index.eligibleCount(9_999));
+		assertEquals(0, index.eligibleCount(10_000));
+		assertEquals(1, index.eligibleCount(10_001));
+	}
+
+	@Test
+	void sortsRulesByThreshold() {
+		CartThresholdIndex index = CartThresholdIndex.build(
+				List.of(rule(1, 500), rule(2, 0), rule(3, 20_000), rule(4, 500), rule(5, 1_000)));
+
+		assertEquals(5, index.size());
+		assertEquals(0, index.eligibleCount(0));
+		assertEquals(1, index.eligibleCount(1));
+		assertEquals(1, index.eligibleCount(500));
+		assertEquals(3, index.eligibleCount(501));
+		assertEquals(4, index.eligibleCount(1_001));
+		assertEquals(5, index.eligibleCount(Long.MAX_VALUE));
+		for (int position = 1; position < index.size(); position++) {
+			assertTrue(index.get(position - 1).getThreshold() <= index.get(position).getThreshold());
+		}
+		assertEquals(2L, index.get(0).getCouponId());
+		assertEquals(3L, index.get(4).getCouponId());
+	}
+
+	@Test
+	void matchesALinearScan() {
+		SplittableRandom random = new SplittableRandom(11);
+		List<CartWiseRule> rules = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			rules.add(rule(i, random.nextLong(0, 100_000)));
+		}
+		CartThresholdIndex index = CartThresholdIndex.build(rules);
+
+		for (int i = 0; i < 10_000; i++) {
+			long total = random.nextLong(-10, 100_010);
+			long expected = rules.stream().filter(rule -> rule.getThreshold() < total).count();
+			assertEquals(expected, index.eligibleCount(total), "total " + total);
+		}
+	}
+
+	@Test
+	void leavesOutRulesRemovedFromTheSnapshot() {
+		CouponSnapshot snapshot = CouponSnapshot.of(List.of(rule(1, 0), rule(2, 1_000), rule(3, 5_000)));
+
+		assertEquals(List.of(1L, 2L), couponIds(snapshot.getCandidateRules(new long[0], 1_001)));
+		assertEquals(List.of(2L), couponIds(snapshot.withoutCoupon(1L).getCandidateRules(new long[0], 1_001)));
+		assertEquals(List.of(1L, 3L),
+				couponIds(snapshot.withoutCoupons(List.of(2L)).getCandidateRules(new long[0], 5_001)));
+		assertEquals(List.of(), couponIds(snapshot.withoutCoupons(List.of(1L, 2L, 3L))
+				.getCandidateRules(new long[0], Long.MAX_VALUE)));
+	}
+
+	private static List<Long> couponIds(List<CouponRule> rules) {
+		return rules.stream().map(CouponRule::getCouponId).sorted().toList();
+	}
+
+	private static CartWiseRule rule(long couponId, long threshold) {
+		return new CartWiseRule(couponId, null, false, threshold, 1000);
+	}
+}
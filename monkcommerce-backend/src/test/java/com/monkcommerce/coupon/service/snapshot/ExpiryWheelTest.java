@@ -0,0 +1,149 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiryWheelTest {
+
+	private static final long ORIGIN = 1_000_000L;
+
+	@Test
+	void firesOnTheTickOfTheDeadline() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 100);
+		wheel.schedule(1, ORIGIN + 500);
+
+		assertEquals(List.of(), advance(wheel, ORIGIN + 499));
+		assertEquals(List.of(1L), advance(wheel, ORIGIN + 500));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void roundsDeadlinesDownToTheTick() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 100);
+		wheel.schedule(1, ORIGIN + 250);
+
+		assertEquals(List.of(), advance(wheel, ORIGIN + 199));
+		// Due at most one tick before the expiration instant, never after it
+		assertEquals(List.of(1L), advance(wheel, ORIGIN + 200));
+	}
+
+	@Test
+	void cascadesDeadlinesAcrossLevelBoundaries() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 1);
+		long[] deadlines = { 1, 63, 64, 65, 127, 128, 4095, 4096, 4097, 8191, 262_143, 262_144, 262_145, 300_000 };
+		for (int i = 0; i < deadlines.length; i++) {
+			assertTrue(wheel.schedule(i, ORIGIN + deadlines[i]));
+		}
+
+		Map<Long, Long> firedAt = new HashMap<>();
+		for (long tick = 1; tick <= 300_000; tick++) {
+			long now = tick;
+			wheel.advanceTo(ORIGIN + tick, id -> firedAt.put(id, now));
+		}
+
+		assertEquals(deadlines.length, firedAt.size());
+		for (int i = 0; i < deadlines.length; i++) {
+			assertEquals(deadlines[i], firedAt.get((long) i), "coupon " + i);
+		}
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void firesEverythingDueInOneLargeAdvance() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 1);
+		wheel.schedule(1, ORIGIN + 10);
+		wheel.schedule(2, ORIGIN + 5_000);
+		wheel.schedule(3, ORIGIN + 270_000);
+		wheel.schedule(4, ORIGIN + 270_001);
+
+		assertEquals(List.of(1L, 2L, 3L), advance(wheel, ORIGIN + 270_000));
+		assertEquals(1, wheel.size());
+		assertEquals(List.of(4L), advance(wheel, ORIGIN + 270_001));
+	}
+
+	@Test
+	void cancelledDeadlinesDoNotFire() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 1);
+		wheel.schedule(1, ORIGIN + 100);
+		wheel.schedule(2, ORIGIN + 10_000);
+		wheel.cancel(1);
+		wheel.cancel(2);
+
+		assertEquals(0, wheel.size());
+		assertEquals(List.of(), advance(wheel, ORIGIN + 20_000));
+	}
+
+	@Test
+	void reschedulingReplacesTheEarlierDeadline() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 1);
+		wheel.schedule(1, ORIGIN + 100);
+		wheel.schedule(1, ORIGIN + 5_000);
+		wheel.schedule(2, ORIGIN + 5_000);
+		wheel.schedule(2, ORIGIN + 100);
+
+		assertEquals(2, wheel.size());
+		assertEquals(List.of(2L), advance(wheel, ORIGIN + 4_999));
+		assertEquals(List.of(1L), advance(wheel, ORIGIN + 5_000));
+		assertEquals(List.of(), advance(wheel, ORIGIN + 10_000));
+	}
+
+	@Test
+	void rejectsDeadlinesInTicksAlreadyPassed() {
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 100);
+		advance(wheel, ORIGIN + 1_000);
+
+		assertFalse(wheel.schedule(1, ORIGIN + 1_099));
+		assertFalse(wheel.schedule(2, ORIGIN + 500));
+		assertTrue(wheel.schedule(3, ORIGIN + 1_100));
+		assertEquals(1, wheel.size());
+	}
+
+	@Test
+	void matchesAReferenceUnderRandomOperations() {
+		SplittableRandom random = new SplittableRandom(7);
+		ExpiryWheel wheel = new ExpiryWheel(ORIGIN, 1);
+		Map<Long, Long> expected = new HashMap<>();
+		long now = ORIGIN;
+		for (int step = 0; step < 50_000; step++) {
+			int operation = random.nextInt(10);
+			long couponId = random.nextInt(2_000);
+			if (operation < 5) {
+				long expiresAt = now + 1 + (long) Math.pow(2, random.nextDouble() * 22);
+				if (wheel.schedule(couponId, expiresAt)) {
+					expected.put(couponId, expiresAt);
+				}
+			} else if (operation < 6) {
+				wheel.cancel(couponId);
+				expected.remove(couponId);
+			} else {
+				long target = now + random.nextInt(500);
+				List<Long> fired = advance(wheel, target);
+				for (Long id : fired) {
+					Long expiresAt = expected.remove(id);
+					assertTrue(expiresAt != null && expiresAt <= target, "coupon " + id + " fired early or twice");
+				}
+				for (long expiresAt : expected.values()) {
+					assertTrue(expiresAt > target, "a due coupon did not fire");
+				}
+				now = target;
+			}
+			assertEquals(expected.size(), wheel.size());
+		}
+	}
+
+	private static List<Long> advance(ExpiryWheel wheel, long nowMillis) {
+		List<Long> fired = new ArrayList<>();
+		wheel.advanceTo(nowMillis, fired::add);
+		fired.sort(null);
+		return fired;
+	}
+}
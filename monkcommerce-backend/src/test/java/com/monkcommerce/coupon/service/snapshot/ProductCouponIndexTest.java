@@ -0,0 +1,94 @@
+package com.monkcommerce.coupon.service.snapshot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.monkcommerce.coupon.service.rule.CouponRule;
+import com.monkcommerce.coupon.service.rule.ProductWiseRule;
+
+class ProductCouponIndexTest {
+
+	@Test
+	void returnsNothingFromAnEmptyIndex() {
+		ProductCouponIndex index = ProductCouponIndex.build(List.of());
+
+		assertEquals(0, index.get(0).length);
+		assertEquals(0, index.get(42).length);
+	}
+
+	@Test
+	void returnsEveryRuleOfAProduct() {
+		ProductWiseRule first = rule(1, 7);
+		ProductWiseRule second = rule(2, 7);
+		ProductWiseRule other = rule(3, 8);
+		ProductCouponIndex index = ProductCouponIndex.build(List.of(first, other, second));
+
+		assertEquals(Set.of(1L, 2L), couponIds(index.get(7)));
+		assertArrayEquals(new ProductWiseRule[] { other }, index.get(8));
+		assertEquals(0, index.get(9).length);
+	}
+
+	@Test
+	void findsBoundaryProductIds() {
+		long[] productIds = { 0, -1, Long.MIN_VALUE, Long.MAX_VALUE };
+		List<ProductWiseRule> rules = new ArrayList<>();
+		for (int i = 0; i < productIds.length; i++) {
+			rules.add(rule(i + 1, productIds[i]));
+		}
+		ProductCouponIndex index = ProductCouponIndex.build(rules);
+
+		for (int i = 0; i < productIds.length; i++) {
+			assertEquals(Set.of(i + 1L), couponIds(index.get(productIds[i])), "product " + productIds[i]);
+		}
+		assertEquals(0, index.get(1).length);
+	}
+
+	@Test
+	void findsEveryProductOfALargeIndex() {
+		List<ProductWiseRule> rules = new ArrayList<>();
+		for (int productId = 0; productId < 10_000; productId++) {
+			// Strided IDs, so that many of them land in the same buckets
+			rules.add(rule(productId, productId * 1024L));
+		}
+		ProductCouponIndex index = ProductCouponIndex.build(rules);
+
+		for (int productId = 0; productId < 10_000; productId++) {
+			assertEquals(Set.of((long) productId), couponIds(index.get(productId * 1024L)));
+			assertEquals(0, index.get(productId * 1024L + 1).length);
+		}
+	}
+
+	@Test
+	void leavesOutRulesRemovedFromTheSnapshot() {
+		CouponRule kept = rule(1, 7);
+		CouponSnapshot snapshot = CouponSnapshot.of(List.of(kept, rule(2, 7), rule(3, 8)));
+
+		CouponSnapshot withoutOne = snapshot.withoutCoupon(2L);
+		assertEquals(List.of(kept), withoutOne.getCandidateRules(new long[] { 7 }, 0));
+		assertEquals(Set.of(1L, 3L), couponIds(withoutOne.getCandidateRules(new long[] { 7, 8 }, 0)));
+
+		CouponSnapshot expired = snapshot.withoutCoupons(List.of(2L, 3L));
+		assertEquals(Set.of(1L), couponIds(expired.getCandidateRules(new long[] { 7, 8 }, 0)));
+		assertEquals(Set.of(1L, 2L, 3L), couponIds(snapshot.getCandidateRules(new long[] { 7, 8 }, 0)));
+	}
+
+	private static Set<Long> couponIds(ProductWiseRule[] rules) {
+		return Stream.of(rules).map(ProductWiseRule::getCouponId).collect(Collectors.toSet());
+	}
+
+	private static Set<Long> couponIds(List<CouponRule> rules) {
+		return rules.stream().map(CouponRule::getCouponId).collect(Collectors.toSet());
+	}
+
+	private static ProductWiseRule rule(long couponId, long productId) {
+		return new ProductWiseRule(couponId, null, false, productId, 1000);
+	}
+}
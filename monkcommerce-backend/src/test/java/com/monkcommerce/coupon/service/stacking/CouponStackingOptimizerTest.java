@@ -0,0 +1,158 @@
+package com.monkcommerce.coupon.service.stacking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class CouponStackingOptimizerTest {
+
+	private final CouponStackingOptimizer optimizer = new CouponStackingOptimizer(Duration.ofSeconds(10));
+
+	@Test
+	void returnsNothingWithoutPositiveDiscounts() {
+		StackingResult empty = optimizer.optimize(List.of());
+		assertEquals(List.of(), empty.getCoupons());
+		assertEquals(0, empty.getTotalDiscount());
+		assertTrue(empty.isOptimal());
+
+		StackingResult zero = optimizer.optimize(List.of(candidate(1, 0, true, 0), candidate(2, -5, false, 1)));
+		assertEquals(List.of(), zero.getCoupons());
+		assertEquals(0, zero.getTotalDiscount());
+	}
+
+	@Test
+	void prefersAnExclusiveCouponWorthMoreThanTheStack() {
+		StackingCandidate exclusive = candidate(1, 100, false, 0, 1, 2);
+		StackingResult result = optimizer.optimize(
+				List.of(candidate(2, 40, true, 0), candidate(3, 40, true, 1), exclusive, candidate(4, 15, true, 2)));
+
+		assertEquals(List.of(exclusive), result.getCoupons());
+		assertEquals(100, result.getTotalDiscount());
+	}
+
+	@Test
+	void stacksCouponsWithDisjointClaims() {
+		StackingResult result = optimizer.optimize(List.of(candidate(1, 50, false, 0, 1), candidate(2, 30, true, 0),
+				candidate(3, 30, true, 1), candidate(4, 45, true, 0, 1)));
+
+		assertEquals(60, result.getTotalDiscount());
+		assertEquals(List.of(2L, 3L), couponIds(result));
+		assertTrue(result.isOptimal());
+	}
+
+	@Test
+	void beatsTheGreedyChoice() {
+		// Greedy takes coupon 1 and then cannot add anything
+		StackingResult result = optimizer.optimize(
+				List.of(candidate(1, 50, true, 0, 1), candidate(2, 30, true, 0), candidate(3, 30, true, 1)));
+
+		assertEquals(60, result.getTotalDiscount());
+		assertEquals(List.of(2L, 3L), couponIds(result));
+	}
+
+	@Test
+	void matchesBruteForceOnSmallCarts() {
+		SplittableRandom random = new SplittableRandom(42);
+		for (int round = 0; round < 2_000; round++) {
+			List<StackingCandidate> candidates = randomCandidates(random, 1 + random.nextInt(12), 1 + random.nextInt(8));
+
+			StackingResult result = optimizer.optimize(candidates);
+
+			assertTrue(result.isOptimal());
+			assertEquals(bruteForce(candidates), result.getTotalDiscount(), "round " + round);
+			assertValid(result);
+		}
+	}
+
+	@Test
+	void returnsAValidCombinationWhenOutOfTime() {
+		SplittableRandom random = new SplittableRandom(3);
+		List<StackingCandidate> candidates = randomCandidates(random, 400, 200);
+
+		StackingResult result = new CouponStackingOptimizer(Duration.ZERO).optimize(candidates);
+
+		assertFalse(result.isOptimal());
+		assertTrue(result.getTotalDiscount() > 0);
+		assertValid(result);
+	}
+
+	private static List<StackingCandidate> randomCandidates(SplittableRandom random, int count, int parts) {
+		List<StackingCandidate> candidates = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			BitSet claims = new BitSet();
+			int claimed = 1 + random.nextInt(Math.min(parts, 3));
+			for (int c = 0; c < claimed; c++) {
+				claims.set(random.nextInt(parts));
+			}
+			candidates.add(new StackingCandidate((long) i + 1, "cart-wise", random.nextInt(-10, 200),
+					random.nextInt(4) > 0, claims));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Best single coupon or best set of stackable coupons with disjoint claims,
+	 * over every subset.
+	 */
+	private static long bruteForce(List<StackingCandidate> candidates) {
+		long best = 0;
+		for (StackingCandidate candidate : candidates) {
+			best = Math.max(best, candidate.getDiscount());
+		}
+		List<StackingCandidate> stackable = candidates.stream()
+				.filter(candidate -> candidate.isStackable() && candidate.getDiscount() > 0).toList();
+		for (int mask = 1; mask < 1 << stackable.size(); mask++) {
+			BitSet claimed = new BitSet();
+			long total = 0;
+			boolean disjoint = true;
+			for (int i = 0; i < stackable.size() && disjoint; i++) {
+				if ((mask & 1 << i) != 0) {
+					BitSet claims = stackable.get(i).getClaims();
+					disjoint = !claimed.intersects(claims);
+					claimed.or(claims);
+					total += stackable.get(i).getDiscount();
+				}
+			}
+			if (disjoint) {
+				best = Math.max(best, total);
+			}
+		}
+		return best;
+	}
+
+	private static void assertValid(StackingResult result) {
+		List<StackingCandidate> coupons = result.getCoupons();
+		long total = 0;
+		BitSet claimed = new BitSet();
+		for (StackingCandidate coupon : coupons) {
+			assertTrue(coupon.getDiscount() > 0);
+			if (coupons.size() > 1) {
+				assertTrue(coupon.isStackable());
+				assertFalse(claimed.intersects(coupon.getClaims()), "overlapping claims");
+				claimed.or(coupon.getClaims());
+			}
+			total += coupon.getDiscount();
+		}
+		assertEquals(total, result.getTotalDiscount());
+	}
+
+	private static List<Long> couponIds(StackingResult result) {
+		return result.getCoupons().stream().map(StackingCandidate::getCouponId).sorted().toList();
+	}
+
+	private static StackingCandidate candidate(long couponId, long discount, boolean stackable, int... parts) {
+		BitSet claims = new BitSet();
+		for (int part : parts) {
+			claims.set(part);
+		}
+		return new StackingCandidate(couponId, "cart-wise", discount, stackable, claims);
+	}
+}
@@ -0,0 +1,124 @@
+package com.monkcommerce.coupon.service.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.monkcommerce.coupon.entity.Cart;
+import com.monkcommerce.coupon.entity.CartItem;
+import com.monkcommerce.coupon.entity.Coupon;
+import com.monkcommerce.coupon.entity.EvaluationCart;
+import com.monkcommerce.coupon.enums.CouponType;
+import com.monkcommerce.coupon.exception.InvalidCouponException;
+import com.monkcommerce.coupon.service.rule.BxGyRule;
+
+class BxGyCouponStrategyTest {
+
+	private final BxGyCouponStrategy strategy = new BxGyCouponStrategy();
+
+	@Test
+	void earnsRepetitionsPerBuyProductAndAddsThemUp() {
+		// 3 / 2 + 3 / 3 = 2 repetitions
+		BxGyRule rule = rule(new long[] { 1, 2 }, new int[] { 2, 3 }, new long[] { 3 }, new int[] { 1 }, 5);
+		EvaluationCart cart = EvaluationCart.builder(3).add(1, 3, 1_000).add(2, 3, 1_000).add(3, 5, 100).build();
+
+		assertTrue(strategy.isApplicable(cart, rule));
+		assertEquals(200, strategy.calculateDiscount(cart, rule));
+	}
+
+	@Test
+	void doesNotPoolRemaindersAcrossBuyProducts() {
+		// 1 / 2 + 2 / 3 = 0 repetitions, although 3 of 5 buy units are present
+		BxGyRule rule = rule(new long[] { 1, 2 }, new int[] { 2, 3 }, new long[] { 3 }, new int[] { 1 }, 5);
+		EvaluationCart cart = EvaluationCart.builder(3).add(1, 1, 1_000).add(2, 2, 1_000).add(3, 5, 100).build();
+
+		assertFalse(strategy.isApplicable(cart, rule));
+		assertEquals(0, strategy.calculateDiscount(cart, rule));
+	}
+
+	@Test
+	void poolsTheUnitsOfOneBuyProductAcrossLines() {
+		BxGyRule rule = rule(new long[] { 1 }, new int[] { 2 }, new long[] { 3 }, new int[] { 1 }, 5);
+		EvaluationCart cart = EvaluationCart.builder(4).add(1, 1, 1_000).add(3, 5, 100).add(1, 3, 1_000).build();
+
+		assertEquals(200, strategy.calculateDiscount(cart, rule));
+	}
+
+	@Test
+	void capsRepetitionsAtTheLimit() {
+		BxGyRule rule = rule(new long[] { 1 }, new int[] { 2 }, new long[] { 3 }, new int[] { 2 }, 3);
+		EvaluationCart cart = EvaluationCart.builder(2).add(1, 20, 1_000).add(3, 100, 100).build();
+
+		// 10 repetitions earned, 3 allowed, 2 free units each
+		assertEquals(600, strategy.calculateDiscount(cart, rule));
+	}
+
+	@Test
+	void makesAtMostTheUnitsInTheCartFree() {
+		BxGyRule rule = rule(new long[] { 1 }, new int[] { 1 }, new long[] { 3, 4 }, new int[] { 2, 1 }, 10);
+		EvaluationCart cart = EvaluationCart.builder(2).add(1, 10, 1_000).add(3, 3, 100).build();
+
+		// Product 4 is not in the cart; product 3 has only 3 units
+		assertEquals(300, strategy.calculateDiscount(cart, rule));
+	}
+
+	@Test
+	void takesFreeUnitsFromTheLinesInOrder() {
+		BxGyRule rule = rule(new long[] { 1 }, new int[] { 1 }, new long[] { 3 }, new int[] { 1 }, 2);
+		EvaluationCart cart = EvaluationCart.builder(3).add(3, 1, 500).add(1, 2, 1_000).add(3, 3, 100).build();
+
+		assertEquals(600, strategy.calculateDiscount(cart, rule));
+
+		Cart applied = strategy.applyCoupon(cart, rule);
+		assertEquals(List.of(500L, 0L, 100L), applied.getItems().stream().map(CartItem::getTotalDiscount).toList());
+		assertEquals(2_800, applied.getTotalPrice());
+		assertEquals(600, applied.getTotalDiscount());
+		assertEquals(2_200, applied.getFinalPrice());
+	}
+
+	@Test
+	void compilesTheDetailsWithADefaultLimitOfOne() {
+		BxGyRule rule = (BxGyRule) strategy.compile(coupon(Map.of("buy_products",
+				"[{\"product_id\":1,\"quantity\":2},{\"product_id\":2,\"quantity\":1}]", "get_products",
+				"[{\"product_id\":3,\"quantity\":1}]")));
+
+		assertEquals(1, rule.getRepetitionLimit());
+		EvaluationCart cart = EvaluationCart.builder(3).add(1, 4, 1_000).add(2, 4, 1_000).add(3, 5, 100).build();
+		assertEquals(100, strategy.calculateDiscount(cart, rule));
+	}
+
+	@Test
+	void rejectsInvalidDetails() {
+		String buy = "[{\"product_id\":1,\"quantity\":2}]";
+		String get = "[{\"product_id\":3,\"quantity\":1}]";
+
+		assertThrows(InvalidCouponException.class, () -> strategy
+				.compile(coupon(Map.of("buy_products", buy, "get_products", get, "repetition_limit", "0"))));
+		assertThrows(InvalidCouponException.class,
+				() -> strategy.compile(coupon(Map.of("buy_products", buy, "get_products", buy))));
+		assertThrows(InvalidCouponException.class, () -> strategy.compile(coupon(Map.of("buy_products",
+				"[{\"product_id\":1,\"quantity\":2147483647},{\"product_id\":1,\"quantity\":1}]", "get_products",
+				get))));
+	}
+
+	private static BxGyRule rule(long[] buyProductIds, int[] buyQuantities, long[] getProductIds,
+			int[] getQuantities, int repetitionLimit) {
+		return new BxGyRule(1L, null, false, buyProductIds, buyQuantities, getProductIds, getQuantities,
+				repetitionLimit);
+	}
+
+	private static Coupon coupon(Map<String, String> details) {
+		Coupon coupon = new Coupon();
+		coupon.setId(1L);
+		coupon.setType(CouponType.BXGY);
+		coupon.setDetails(new HashMap<>(details));
+		return coupon;
+	}
+}